@@ -7,6 +7,20 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
+    /**
+     * lock 취득 대기 시간(ms)
+     */
     long tryLockTime() default 5000L;
     
-}
\ No newline at end of file
+    /**
+     * lock 보유 시간(ms)
+     * adaptiveLease 인 경우 watchdog 이 연장할 수 있는 최대 보유 시간이다.
+     */
+    long leaseTime() default 15000L;
+    
+    /**
+     * 엔드포인트별 실제 보유 시간 분포(p99)로 lease 를 정하고,
+     * 처리가 길어지면 watchdog 이 leaseTime 까지 연장한다.
+     */
+    boolean adaptiveLease() default false;
+}
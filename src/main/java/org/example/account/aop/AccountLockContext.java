@@ -0,0 +1,36 @@
+package org.example.account.aop;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 현재 thread 가 보유한 계좌 lock 의 fencing token
+ * LockService 가 lock 취득 시 저장하고 해제 시 지운다.
+ */
+public final class AccountLockContext {
+    private static final ThreadLocal<Map<String, Long>> FENCING_TOKENS =
+            ThreadLocal.withInitial(HashMap::new);
+    
+    private AccountLockContext() {
+    }
+    
+    public static void setFencingToken(String accountNumber, long token) {
+        FENCING_TOKENS.get().put(accountNumber, token);
+    }
+    
+    /**
+     * @return Redis lock 이 아닌 경우(local fallback 등) 비어 있다.
+     */
+    public static Optional<Long> getFencingToken(String accountNumber) {
+        return Optional.ofNullable(FENCING_TOKENS.get().get(accountNumber));
+    }
+    
+    public static void clear(String accountNumber) {
+        Map<String, Long> tokens = FENCING_TOKENS.get();
+        tokens.remove(accountNumber);
+        if (tokens.isEmpty()) {
+            FENCING_TOKENS.remove();
+        }
+    }
+}
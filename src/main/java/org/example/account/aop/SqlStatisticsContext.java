@@ -0,0 +1,87 @@
+package org.example.account.aop;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 현재 요청에서 실행한 SQL 통계
+ * SqlStatisticsFilter 가 요청 시작 시 begin, 끝날 때 end 로 꺼낸다.
+ * Hibernate StatementInspector / SessionEventListener / PostLoad listener 가 채운다.
+ */
+public final class SqlStatisticsContext {
+    private static final ThreadLocal<Counters> COUNTERS = new ThreadLocal<>();
+    
+    private SqlStatisticsContext() {
+    }
+    
+    public static void begin() {
+        COUNTERS.set(new Counters());
+    }
+    
+    /**
+     * @return begin 하지 않았으면 null
+     */
+    public static Counters end() {
+        Counters counters = COUNTERS.get();
+        COUNTERS.remove();
+        
+        return counters;
+    }
+    
+    public static void onStatement(String sql) {
+        Counters counters = COUNTERS.get();
+        if (counters != null) {
+            counters.statements++;
+            counters.statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+    
+    public static void onEntityLoad() {
+        Counters counters = COUNTERS.get();
+        if (counters != null) {
+            counters.entityLoads++;
+        }
+    }
+    
+    public static void onFlush() {
+        Counters counters = COUNTERS.get();
+        if (counters != null) {
+            counters.flushes++;
+        }
+    }
+    
+    public static void onJdbcExecution(long nanos) {
+        Counters counters = COUNTERS.get();
+        if (counters != null) {
+            counters.jdbcNanos += nanos;
+        }
+    }
+    
+    @Getter
+    public static class Counters {
+        private int statements;
+        private int entityLoads;
+        private int flushes;
+        private long jdbcNanos;
+        // SQL 별 실행 횟수 (파라미터는 ? 로 남아 있어 같은 모양의 조회가 모인다.)
+        private final Map<String, Integer> statementCounts = new HashMap<>();
+        
+        /**
+         * @return 가장 많이 반복된 SQL, 실행한 SQL 이 없으면 null
+         */
+        public Map.Entry<String, Integer> getMostRepeatedStatement() {
+            return statementCounts.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElse(null);
+        }
+        
+        public long countStatementsStartingWith(String prefix) {
+            return statementCounts.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+    }
+}
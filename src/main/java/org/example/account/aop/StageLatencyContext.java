@@ -0,0 +1,124 @@
+package org.example.account.aop;
+
+import org.example.account.type.LatencyStage;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 현재 요청의 단계별 누적 시간 (nano)
+ * StageLatencyFilter 가 요청 시작 시 begin, 끝날 때 end 로 꺼내 histogram 에 기록한다.
+ * 수집이 꺼져 있거나 filter 밖(스케줄러 등)에서 호출되면 아무것도 하지 않는다.
+ *
+ * <pre>
+ * long start = StageLatencyContext.start();
+ * ...
+ * StageLatencyContext.stop(LatencyStage.VALIDATION, start);
+ * </pre>
+ */
+public final class StageLatencyContext {
+    private static final int STAGES = LatencyStage.values().length;
+    private static final ThreadLocal<Timings> TIMINGS = new ThreadLocal<>();
+    
+    private static volatile boolean enabled;
+    
+    private StageLatencyContext() {
+    }
+    
+    public static void setEnabled(boolean enabled) {
+        StageLatencyContext.enabled = enabled;
+    }
+    
+    public static void begin() {
+        if (enabled) {
+            TIMINGS.set(new Timings());
+        }
+    }
+    
+    /**
+     * @return 단계별 누적 시간, begin 하지 않았으면 null
+     */
+    public static long[] end() {
+        Timings timings = TIMINGS.get();
+        TIMINGS.remove();
+        
+        return timings == null ? null : timings.nanos;
+    }
+    
+    /**
+     * @return 측정 시작 시각, 측정하지 않는 경우 0
+     */
+    public static long start() {
+        return enabled && TIMINGS.get() != null ? System.nanoTime() : 0L;
+    }
+    
+    public static void stop(LatencyStage stage, long start) {
+        if (start == 0L) {
+            return;
+        }
+        Timings timings = TIMINGS.get();
+        if (timings != null) {
+            timings.nanos[stage.ordinal()] += System.nanoTime() - start;
+        }
+    }
+    
+    /**
+     * 중첩된 repository 호출(default method 등)은 가장 바깥 호출만 측정한다.
+     */
+    public static long startQuery() {
+        if (!enabled) {
+            return 0L;
+        }
+        Timings timings = TIMINGS.get();
+        if (timings == null || timings.queryDepth++ > 0) {
+            return 0L;
+        }
+        
+        return System.nanoTime();
+    }
+    
+    public static void stopQuery(long start) {
+        if (!enabled) {
+            return;
+        }
+        Timings timings = TIMINGS.get();
+        if (timings == null) {
+            return;
+        }
+        timings.queryDepth--;
+        if (start != 0L) {
+            timings.nanos[LatencyStage.QUERY.ordinal()] +=
+                    System.nanoTime() - start;
+        }
+    }
+    
+    /**
+     * 현재 트랜잭션의 커밋(flush 포함) 시간을 COMMIT 단계로 기록한다.
+     * 트랜잭션 메서드 안에서 호출해야 한다.
+     */
+    public static void timeCommit() {
+        if (start() == 0L ||
+            !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    private long commitStart;
+                    
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        commitStart = start();
+                    }
+                    
+                    @Override
+                    public void afterCompletion(int status) {
+                        stop(LatencyStage.COMMIT, commitStart);
+                    }
+                });
+    }
+    
+    private static class Timings {
+        private final long[] nanos = new long[STAGES];
+        private int queryDepth;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * fast-start 프로파일
+ * embedded Redis 기동과 Redisson 연결을 첫 사용(LockService 호출) 시점으로 미룬다.
+ * 주입 지점은 @Lazy 프록시이므로, bean 정의만 lazy 로 바꾸면 된다.
+ */
+@Slf4j
+@Profile("fast-start")
+@Configuration(proxyBeanMethods = false)
+public class FastStartConfiguration {
+    private static final String[] LAZY_BEANS = {
+            "localRedisConfig", "redissonClient"
+    };
+    
+    @Bean
+    public static BeanFactoryPostProcessor lazyRedisBeanFactoryPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : LAZY_BEANS) {
+                if (beanFactory.containsBeanDefinition(beanName)) {
+                    beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+                    log.info("fast-start : {} is initialized lazily", beanName);
+                }
+            }
+        };
+    }
+}
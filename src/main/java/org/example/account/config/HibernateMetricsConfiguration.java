@@ -0,0 +1,24 @@
+package org.example.account.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+
+/**
+ * region 별 2차 캐시 hit/miss, 쿼리 캐시, 실행한 statement 수를 actuator metrics 로 노출한다.
+ * (hibernate.generate_statistics: true 일 때만 값이 쌓인다.)
+ */
+@Configuration(proxyBeanMethods = false)
+public class HibernateMetricsConfiguration {
+    @Bean
+    public HibernateMetrics hibernateMetrics(
+            EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(
+                entityManagerFactory.unwrap(SessionFactory.class),
+                "entityManagerFactory", Collections.emptyList());
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.account.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.account.aop.StageLatencyContext;
+import org.example.account.type.LatencyStage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * 응답 JSON 직렬화 시간을 SERIALIZATION 단계로 기록하도록 Jackson converter 를 감싼다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "account.latency.enabled",
+                       havingValue = "true", matchIfMissing = true)
+public class LatencyWebConfiguration implements WebMvcConfigurer {
+    @Override
+    public void extendMessageConverters(
+            List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() ==
+                MappingJackson2HttpMessageConverter.class) {
+                converters.set(i, new TimedJacksonMessageConverter(
+                        ((MappingJackson2HttpMessageConverter) converters.get(i))
+                                .getObjectMapper()));
+            }
+        }
+    }
+    
+    private static class TimedJacksonMessageConverter
+            extends MappingJackson2HttpMessageConverter {
+        private TimedJacksonMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+        
+        @Override
+        protected void writeInternal(
+                Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            long start = StageLatencyContext.start();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                StageLatencyContext.stop(LatencyStage.SERIALIZATION, start);
+            }
+        }
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class LocalRedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
@@ -6,8 +6,9 @@ import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
     private String redisHost;
@@ -16,6 +17,7 @@ public class RedisRepositoryConfig {
     private int redisPort;
     
     @Bean
+    @DependsOn("localRedisConfig")
     public RedissonClient redissonClient() {
         Config config = new Config();
         config.useSingleServer().setAddress(
@@ -0,0 +1,69 @@
+package org.example.account.config;
+
+import org.example.account.aop.SqlStatisticsContext;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 요청별 SQL 통계를 SqlStatisticsContext 로 모으는 Hibernate hook 등록
+ * 1. StatementInspector : 실행하는 SQL 수와 SQL 별 반복 횟수
+ * 2. SqlStatisticsSessionEventListener : JDBC 실행 시간, flush 횟수
+ * 3. PostLoad listener : 엔티티 로드 수 (2차 캐시에서 읽은 엔티티 포함)
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "account.sql-statistics.enabled",
+                       havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfiguration {
+    private static final String INTEGRATOR_PROVIDER =
+            "hibernate.integrator_provider";
+    
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatisticsPropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                                    (StatementInspector) sql -> {
+                                        SqlStatisticsContext.onStatement(sql);
+                                        return sql;
+                                    });
+            hibernateProperties.put(
+                    AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    SqlStatisticsSessionEventListener.class.getName());
+            hibernateProperties.put(
+                    INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new EntityLoadIntegrator()));
+        };
+    }
+    
+    private static class EntityLoadIntegrator implements Integrator {
+        @Override
+        public void integrate(Metadata metadata,
+                              BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD,
+                                     (PostLoadEventListener) event ->
+                                             SqlStatisticsContext.onEntityLoad());
+        }
+        
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.account.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.account.aop.SqlStatisticsContext;
+import org.example.account.service.SqlStatisticsRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 요청마다 실행한 SQL 통계를 모아 엔드포인트(메서드 + URL 패턴) 단위로 기록한다.
+ * account.sql-statistics.enabled=false 면 등록되지 않는다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "account.sql-statistics.enabled",
+                       havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+    private final ObjectProvider<SqlStatisticsRecorder> sqlStatisticsRecorder;
+    
+    public SqlStatisticsFilter(
+            ObjectProvider<SqlStatisticsRecorder> sqlStatisticsRecorder) {
+        this.sqlStatisticsRecorder = sqlStatisticsRecorder;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/internal/");
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        SqlStatisticsRecorder recorder = sqlStatisticsRecorder.getIfAvailable();
+        if (recorder == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        SqlStatisticsContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatisticsContext.Counters counters = SqlStatisticsContext.end();
+            if (counters != null) {
+                recorder.record(endpointOf(request), counters);
+            }
+        }
+    }
+    
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        
+        return request.getMethod() + " " +
+               (pattern == null ? "UNMAPPED" : pattern);
+    }
+}
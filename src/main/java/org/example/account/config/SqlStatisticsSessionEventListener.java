@@ -0,0 +1,38 @@
+package org.example.account.config;
+
+import org.example.account.aop.SqlStatisticsContext;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * 세션마다 생성되어 JDBC 실행 시간과 flush 횟수를 현재 요청의 SqlStatisticsContext 에 더한다.
+ * (hibernate.session.events.auto 로 등록, 기본 생성자 필요)
+ */
+public class SqlStatisticsSessionEventListener extends BaseSessionEventListener {
+    private long executionStart;
+    private long batchStart;
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatisticsContext.onJdbcExecution(System.nanoTime() - executionStart);
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatisticsContext.onJdbcExecution(System.nanoTime() - batchStart);
+    }
+    
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        SqlStatisticsContext.onFlush();
+    }
+}
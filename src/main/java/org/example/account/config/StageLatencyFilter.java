@@ -0,0 +1,72 @@
+package org.example.account.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.account.aop.StageLatencyContext;
+import org.example.account.service.StageLatencyRecorder;
+import org.example.account.type.LatencyStage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 요청마다 단계별 시간을 모아 엔드포인트(메서드 + URL 패턴) 단위로 기록한다.
+ * account.latency.enabled=false 면 등록되지 않는다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "account.latency.enabled",
+                       havingValue = "true", matchIfMissing = true)
+public class StageLatencyFilter extends OncePerRequestFilter {
+    private final ObjectProvider<StageLatencyRecorder> stageLatencyRecorder;
+    
+    public StageLatencyFilter(
+            ObjectProvider<StageLatencyRecorder> stageLatencyRecorder) {
+        this.stageLatencyRecorder = stageLatencyRecorder;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/internal/");
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        StageLatencyRecorder recorder = stageLatencyRecorder.getIfAvailable();
+        if (recorder == null || !recorder.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        StageLatencyContext.begin();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long[] stageNanos = StageLatencyContext.end();
+            if (stageNanos != null) {
+                stageNanos[LatencyStage.TOTAL.ordinal()] =
+                        System.nanoTime() - start;
+                recorder.record(endpointOf(request), stageNanos);
+            }
+        }
+    }
+    
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        
+        return request.getMethod() + " " +
+               (pattern == null ? "UNMAPPED" : pattern);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.account.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM 시작부터 ready / 첫 요청 완료까지의 시간을 기록한다.
+ * fast-start 프로파일 적용 전후 비교용 (account.startup.* 메트릭, 로그)
+ */
+@Slf4j
+@Component
+public class StartupTimingFilter extends OncePerRequestFilter {
+    private final Environment environment;
+    private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+    private final AtomicLong readyMillis = new AtomicLong();
+    private final AtomicLong firstRequestMillis = new AtomicLong();
+    
+    public StartupTimingFilter(Environment environment,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.environment = environment;
+        meterRegistry.ifAvailable(registry -> {
+            registry.gauge("account.startup.ready.ms", readyMillis);
+            registry.gauge("account.startup.first-request.ms",
+                           firstRequestMillis);
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        readyMillis.set(uptimeMillis());
+        log.info("Application ready {} ms after JVM start (profiles : {})",
+                 readyMillis.get(),
+                 Arrays.toString(environment.getActiveProfiles()));
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequest.compareAndSet(true, false)) {
+                firstRequestMillis.set(uptimeMillis());
+                log.info("Time to first request : {} ms after JVM start " +
+                         "({} {}, profiles : {})",
+                         firstRequestMillis.get(), request.getMethod(),
+                         request.getRequestURI(),
+                         Arrays.toString(environment.getActiveProfiles()));
+            }
+        }
+    }
+    
+    private long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -6,9 +6,15 @@ import org.example.account.domain.Account;
 import org.example.account.dto.AccountInfo;
 import org.example.account.dto.CreateAccount;
 import org.example.account.dto.DeleteAccount;
+import org.example.account.dto.ReconciliationReport;
+import org.example.account.dto.StatementReport;
+import org.example.account.service.AccountBalanceViewService;
 import org.example.account.service.AccountService;
+import org.example.account.service.BalanceReconciliationService;
+import org.example.account.service.StatementService;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,6 +22,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AccountController {
     private final AccountService accountService;
+    private final AccountBalanceViewService accountBalanceViewService;
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final StatementService statementService;
     
     @PostMapping("/account")
     public CreateAccount.Response createAccount(
@@ -49,4 +58,30 @@ public class AccountController {
                         .build())
                 .collect(Collectors.toList());
     }
+    
+    @PostMapping("/account/balance-view/rebuild")
+    public int rebuildBalanceView() {
+        return accountBalanceViewService.rebuild();
+    }
+    
+    @PostMapping("/account/reconciliation")
+    public ReconciliationReport reconcile() {
+        return balanceReconciliationService.reconcile();
+    }
+    
+    @GetMapping("/account/reconciliation")
+    public ReconciliationReport getLastReconciliationReport() {
+        return balanceReconciliationService.getLastReport().orElse(null);
+    }
+    
+    @PostMapping("/account/statement")
+    public StatementReport generateStatements(
+            @RequestParam("month") YearMonth month) {
+        return statementService.generate(month);
+    }
+    
+    @GetMapping("/account/statement")
+    public StatementReport getLastStatementReport() {
+        return statementService.getLastReport().orElse(null);
+    }
 }
@@ -0,0 +1,53 @@
+package org.example.account.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.account.dto.AuthorizeBalance;
+import org.example.account.dto.CaptureBalance;
+import org.example.account.dto.VoidBalance;
+import org.example.account.service.BalanceHoldService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 2단계 결제 컨트롤러
+ * 1. 잔액 승인 (홀드)
+ * 2. 승인 확정 (여러 건 일괄)
+ * 3. 승인 해제
+ */
+@RequiredArgsConstructor
+@RestController
+public class BalanceHoldController {
+    private final BalanceHoldService balanceHoldService;
+    
+    @PostMapping("/transaction/authorize")
+    public AuthorizeBalance.Response authorize(
+            @Valid @RequestBody AuthorizeBalance.Request request) {
+        return AuthorizeBalance.Response.from(balanceHoldService.authorize(
+                request.getUserId(),
+                request.getAccountNumber(),
+                request.getAmount()
+        ));
+    }
+    
+    @PostMapping("/transaction/capture")
+    public CaptureBalance.Response capture(
+            @Valid @RequestBody CaptureBalance.Request request) {
+        return CaptureBalance.Response.from(
+                request.getAccountNumber(),
+                balanceHoldService.capture(request.getUserId(),
+                                           request.getAccountNumber(),
+                                           request.getHoldIds()));
+    }
+    
+    @PostMapping("/transaction/void")
+    public VoidBalance.Response voidHold(
+            @Valid @RequestBody VoidBalance.Request request) {
+        return VoidBalance.Response.from(balanceHoldService.voidHold(
+                request.getUserId(),
+                request.getAccountNumber(),
+                request.getHoldId()
+        ));
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.account.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.account.dto.LatencyReport;
+import org.example.account.service.StageLatencyRecorder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 내부 진단용 컨트롤러
+ * 1. 엔드포인트 x 단계별 지연 시간 백분위수, 분 단위 처리량
+ * 2. 누적 값 초기화
+ */
+@RestController
+@RequiredArgsConstructor
+public class InternalLatencyController {
+    private final StageLatencyRecorder stageLatencyRecorder;
+    
+    @GetMapping("/internal/latency")
+    public LatencyReport getLatency() {
+        return stageLatencyRecorder.report();
+    }
+    
+    @DeleteMapping("/internal/latency")
+    public void resetLatency() {
+        stageLatencyRecorder.reset();
+    }
+}
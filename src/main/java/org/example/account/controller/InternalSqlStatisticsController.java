@@ -0,0 +1,29 @@
+package org.example.account.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.account.dto.SqlStatisticsReport;
+import org.example.account.service.SqlStatisticsRecorder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 내부 진단용 컨트롤러
+ * 1. 엔드포인트별 요청당 SQL 수, 엔티티 로드, flush, JDBC 시간, budget 초과 / N+1 의심 건수
+ * 2. 누적 값 초기화
+ */
+@RestController
+@RequiredArgsConstructor
+public class InternalSqlStatisticsController {
+    private final SqlStatisticsRecorder sqlStatisticsRecorder;
+    
+    @GetMapping("/internal/sql-statistics")
+    public SqlStatisticsReport getSqlStatistics() {
+        return sqlStatisticsRecorder.report();
+    }
+    
+    @DeleteMapping("/internal/sql-statistics")
+    public void resetSqlStatistics() {
+        sqlStatisticsRecorder.reset();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.account.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.account.dto.CancelBalance;
+import org.example.account.dto.QueryTransactionResponse;
+import org.example.account.dto.UseBalance;
+import org.example.account.service.ReactiveTransactionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * 반응형 잔액 컨트롤러 (account.reactive.enabled=true)
+ * TransactionController 와 같은 요청/응답 형식이며, Mono 를 반환하여
+ * lock 대기와 DB 처리 동안 요청 thread 를 돌려준다. (servlet async)
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/reactive")
+@ConditionalOnProperty(name = "account.reactive.enabled", havingValue = "true")
+public class ReactiveTransactionController {
+    private final ReactiveTransactionService reactiveTransactionService;
+    
+    @PostMapping("/transaction/use")
+    public Mono<UseBalance.Response> useBalance(
+            @Valid @RequestBody UseBalance.Request request) {
+        return reactiveTransactionService.useBalance(
+                        request.getUserId(),
+                        request.getAccountNumber(),
+                        request.getAmount())
+                .map(UseBalance.Response::from);
+    }
+    
+    @PostMapping("/transaction/cancel")
+    public Mono<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request) {
+        return reactiveTransactionService.cancelBalance(
+                        request.getTransactionId(),
+                        request.getAccountNumber(),
+                        request.getAmount())
+                .map(CancelBalance.Response::from);
+    }
+    
+    @GetMapping("/transaction/{transactionId}")
+    public Mono<QueryTransactionResponse> queryTransaction(
+            @PathVariable String transactionId) {
+        return reactiveTransactionService.queryTransaction(transactionId)
+                .map(QueryTransactionResponse::from);
+    }
+}
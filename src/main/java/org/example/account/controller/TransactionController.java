@@ -3,12 +3,16 @@ package org.example.account.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.account.aop.AccountLock;
+import org.example.account.aop.StageLatencyContext;
 import org.example.account.dto.CancelBalance;
+import org.example.account.dto.QueryTransactionBatch;
 import org.example.account.dto.QueryTransactionResponse;
 import org.example.account.dto.UseBalance;
 import org.example.account.exception.AccountException;
+import org.example.account.service.BalanceEngineService;
 import org.example.account.service.TransactionService;
+import org.example.account.type.LatencyStage;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -16,19 +20,30 @@ import org.springframework.web.bind.annotation.*;
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
  * 3. 거래 확인
+ * 4. 거래 일괄 확인
+ * 잔액 엔진 모드(account.engine.enabled)에서는 사용/취소를 엔진이 처리한다.
  */
 @Slf4j
 @RequiredArgsConstructor
 @RestController
 public class TransactionController {
     private final TransactionService transactionService;
+    private final ObjectProvider<BalanceEngineService> balanceEngineService;
     
     @PostMapping("/transaction/cancel")
-    @AccountLock
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request) {
         
         try {
+            BalanceEngineService engine = balanceEngineService.getIfAvailable();
+            if (engine != null) {
+                return CancelBalance.Response.from(engine.cancelBalance(
+                        request.getTransactionId(),
+                        request.getAccountNumber(),
+                        request.getAmount()
+                ));
+            }
+            
             return CancelBalance.Response.from(transactionService.cancelBalance(
                     request.getTransactionId(),
                     request.getAccountNumber(),
@@ -37,8 +52,16 @@ public class TransactionController {
         } catch (AccountException e) {
             log.error(e.getErrorMessage());
             
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(), request.getAmount());
+            if (TransactionService.isTransactionFailure(e)) {
+                long failureStart = StageLatencyContext.start();
+                try {
+                    transactionService.saveFailedCancelTransaction(
+                            request.getAccountNumber(), request.getAmount());
+                } finally {
+                    StageLatencyContext.stop(LatencyStage.FAILURE_RECORD,
+                                             failureStart);
+                }
+            }
             
             throw e;
         }
@@ -51,14 +74,29 @@ public class TransactionController {
                 transactionService.queryTransaction(transactionId));
     }
     
+    @PostMapping("/transaction/query")
+    public QueryTransactionBatch.Response queryTransactions(
+            @Valid @RequestBody QueryTransactionBatch.Request request) {
+        return QueryTransactionBatch.Response.from(
+                request.getTransactionIds(),
+                transactionService.queryTransactions(
+                        request.getTransactionIds()));
+    }
+    
     @PostMapping("/transaction/use")
-    @AccountLock
     public UseBalance.Response useBalance(
-            @Valid @RequestBody UseBalance.Request request)
-            throws InterruptedException {
+            @Valid @RequestBody UseBalance.Request request) {
         
         try {
-            Thread.sleep(3000L);
+            BalanceEngineService engine = balanceEngineService.getIfAvailable();
+            if (engine != null) {
+                return UseBalance.Response.from(engine.useBalance(
+                        request.getUserId(),
+                        request.getAccountNumber(),
+                        request.getAmount()
+                ));
+            }
+            
             return UseBalance.Response.from(transactionService.useBalance(
                     request.getUserId(),
                     request.getAccountNumber(),
@@ -67,8 +105,16 @@ public class TransactionController {
         } catch (AccountException e) {
             log.error(e.getErrorMessage());
             
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(), request.getAmount());
+            if (TransactionService.isTransactionFailure(e)) {
+                long failureStart = StageLatencyContext.start();
+                try {
+                    transactionService.saveFailedUseTransaction(
+                            request.getAccountNumber(), request.getAmount());
+                } finally {
+                    StageLatencyContext.stop(LatencyStage.FAILURE_RECORD,
+                                             failureStart);
+                }
+            }
             
             throw e;
         }
@@ -0,0 +1,282 @@
+package org.example.account.controller;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.account.dto.CancelBalance;
+import org.example.account.dto.ErrorResponse;
+import org.example.account.dto.QueryTransactionResponse;
+import org.example.account.dto.TransactionDto;
+import org.example.account.dto.UseBalance;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.RpcOperation;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 잔액 사용/취소/거래 확인용 바이너리 프레임 (big endian)
+ * <pre>
+ * 요청 : int 길이 | byte 요청 종류 | long requestId | 본문
+ *   USE    : long userId, str accountNumber, long amount
+ *   CANCEL : str transactionId, str accountNumber, long amount
+ *   QUERY  : str transactionId
+ * 응답 : int 길이 | byte 상태(0 성공, 1 실패) | long requestId | 본문
+ *   성공 : str accountNumber, byte transactionType, byte transactionResult,
+ *          str transactionId, long amount, long transactedAt(epoch millis)
+ *   실패 : str errorCode, str errorMessage
+ * str = short 길이 + UTF-8, 길이는 자기 자신(int)을 제외한 byte 수
+ * </pre>
+ * 한 연결에서 응답을 기다리지 않고 여러 요청을 보낼 수 있으며, 응답은 requestId 로 짝을 맞춘다.
+ * 요청 값 검증은 REST 요청 DTO 의 bean validation 과 같다.
+ */
+public final class TransactionRpcCodec {
+    public static final int MAX_FRAME_LENGTH = 4096;
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+    // 요청 종류(1) + requestId(8)
+    private static final int HEADER_LENGTH = 1 + Long.BYTES;
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    
+    private TransactionRpcCodec() {
+    }
+    
+    public static ByteBuffer encodeUse(
+            long requestId, UseBalance.Request request) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+        begin(buffer, RpcOperation.USE.getCode(), requestId);
+        buffer.putLong(request.getUserId());
+        putString(buffer, request.getAccountNumber());
+        buffer.putLong(request.getAmount());
+        
+        return end(buffer);
+    }
+    
+    public static ByteBuffer encodeCancel(
+            long requestId, CancelBalance.Request request) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+        begin(buffer, RpcOperation.CANCEL.getCode(), requestId);
+        putString(buffer, request.getTransactionId());
+        putString(buffer, request.getAccountNumber());
+        buffer.putLong(request.getAmount());
+        
+        return end(buffer);
+    }
+    
+    public static ByteBuffer encodeQuery(long requestId, String transactionId) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+        begin(buffer, RpcOperation.QUERY.getCode(), requestId);
+        putString(buffer, transactionId);
+        
+        return end(buffer);
+    }
+    
+    /**
+     * 길이(int)를 읽고 그만큼의 프레임을 읽는다.
+     * @return 프레임 경계에서 연결이 끊겼으면 null
+     */
+    public static ByteBuffer readFrame(ReadableByteChannel channel)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        if (!readFully(channel, header)) {
+            if (header.position() == 0) {
+                return null;
+            }
+            throw new EOFException("Connection closed inside frame header");
+        }
+        
+        int length = header.getInt(0);
+        if (length < HEADER_LENGTH ||
+            length > MAX_FRAME_LENGTH - Integer.BYTES) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        ByteBuffer frame = ByteBuffer.allocate(length);
+        if (!readFully(channel, frame)) {
+            throw new EOFException("Connection closed inside frame");
+        }
+        frame.flip();
+        
+        return frame;
+    }
+    
+    /**
+     * @param frame 길이(int)를 제외한 요청 프레임
+     */
+    public static Request decodeRequest(ByteBuffer frame) {
+        RpcOperation operation = RpcOperation.of(frame.get());
+        long requestId = frame.getLong();
+        if (operation == null) {
+            return new Request(null, requestId, null);
+        }
+        
+        switch (operation) {
+            case USE:
+                return new Request(operation, requestId, new UseBalance.Request(
+                        frame.getLong(), getString(frame), frame.getLong()));
+            case CANCEL:
+                return new Request(operation, requestId,
+                                   new CancelBalance.Request(
+                                           getString(frame), getString(frame),
+                                           frame.getLong()));
+            default:
+                return new Request(operation, requestId, getString(frame));
+        }
+    }
+    
+    public static void validate(UseBalance.Request request) {
+        if (request.getUserId() < 1 ||
+            !hasLength(request.getAccountNumber(), 10) ||
+            request.getAmount() > 1000_000_000) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+    
+    public static void validate(CancelBalance.Request request) {
+        if (isBlank(request.getTransactionId()) ||
+            !hasLength(request.getAccountNumber(), 10) ||
+            request.getAmount() < 10 || request.getAmount() > 1000_000_000) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+    
+    public static ByteBuffer encodeResult(
+            long requestId, TransactionDto transactionDto) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+        begin(buffer, STATUS_OK, requestId);
+        putString(buffer, transactionDto.getAccountNumber());
+        buffer.put(transactionDto.getTransactionType() == null ? -1 :
+                           (byte) transactionDto.getTransactionType().ordinal());
+        buffer.put((byte) transactionDto.getTransactionResultType().ordinal());
+        putString(buffer, transactionDto.getTransactionId());
+        buffer.putLong(transactionDto.getAmount());
+        buffer.putLong(transactionDto.getTransactedAt()
+                               .atZone(ZoneId.systemDefault())
+                               .toInstant().toEpochMilli());
+        
+        return end(buffer);
+    }
+    
+    public static ByteBuffer encodeError(
+            long requestId, ErrorCode errorCode, String errorMessage) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+        begin(buffer, STATUS_ERROR, requestId);
+        putString(buffer, errorCode.name());
+        putString(buffer, errorMessage == null ? "" :
+                errorMessage.substring(
+                        0, Math.min(errorMessage.length(), MAX_MESSAGE_LENGTH)));
+        
+        return end(buffer);
+    }
+    
+    /**
+     * @param frame 길이(int)를 제외한 응답 프레임
+     */
+    public static Response decodeResponse(ByteBuffer frame) {
+        byte status = frame.get();
+        long requestId = frame.getLong();
+        if (status != STATUS_OK) {
+            return new Response(requestId, null, new ErrorResponse(
+                    ErrorCode.valueOf(getString(frame)), getString(frame)));
+        }
+        
+        return new Response(requestId, QueryTransactionResponse.builder()
+                .accountNumber(getString(frame))
+                .transactionType(transactionTypeOf(frame.get()))
+                .transactionResult(TransactionResultType.values()[frame.get()])
+                .transactionId(getString(frame))
+                .amount(frame.getLong())
+                .transactedAt(LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(frame.getLong()),
+                        ZoneId.systemDefault()))
+                .build(), null);
+    }
+    
+    /**
+     * 잘린 프레임에서도 requestId 는 읽을 수 있다. (readFrame 이 최소 길이를 확인한다)
+     */
+    public static long requestIdOf(ByteBuffer frame) {
+        return frame.getLong(frame.position() + 1);
+    }
+    
+    private static TransactionType transactionTypeOf(byte ordinal) {
+        return ordinal < 0 ? null : TransactionType.values()[ordinal];
+    }
+    
+    private static boolean readFully(ReadableByteChannel channel,
+                                     ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    private static void begin(ByteBuffer buffer, byte head, long requestId) {
+        buffer.putInt(0);
+        buffer.put(head);
+        buffer.putLong(requestId);
+    }
+    
+    private static ByteBuffer end(ByteBuffer buffer) {
+        buffer.putInt(0, buffer.position() - Integer.BYTES);
+        buffer.flip();
+        
+        return buffer;
+    }
+    
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+    
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(),
+                                  buffer.arrayOffset() + buffer.position(),
+                                  length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        
+        return value;
+    }
+    
+    private static boolean hasLength(String value, int length) {
+        return value != null && value.length() == length;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class Request {
+        // 알 수 없는 요청 종류면 null
+        private final RpcOperation operation;
+        private final long requestId;
+        // UseBalance.Request, CancelBalance.Request 혹은 거래 아이디
+        private final Object body;
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class Response {
+        private final long requestId;
+        private final QueryTransactionResponse result;
+        private final ErrorResponse error;
+    }
+}
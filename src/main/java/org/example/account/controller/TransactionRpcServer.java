@@ -0,0 +1,255 @@
+package org.example.account.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.dto.CancelBalance;
+import org.example.account.dto.TransactionDto;
+import org.example.account.dto.UseBalance;
+import org.example.account.exception.AccountException;
+import org.example.account.service.BalanceEngineService;
+import org.example.account.service.TransactionService;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.RpcOperation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 잔액 사용/취소/거래 확인 바이너리 RPC 서버 (account.rpc.enabled=true)
+ * 프레임 형식은 TransactionRpcCodec 참고.
+ * 연결마다 읽기 thread 하나가 프레임을 읽어 worker pool 에 넘기고, 응답은 끝나는 순서대로 쓴다.
+ * worker pool 이 가득 차면 읽기 thread 가 직접 처리하여 더 읽지 않는다.
+ * 처리는 REST 컨트롤러와 같이 TransactionService(계좌 lock 포함) 혹은 잔액 엔진을 사용한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.rpc.enabled", havingValue = "true")
+public class TransactionRpcServer {
+    private final TransactionService transactionService;
+    private final ObjectProvider<BalanceEngineService> balanceEngineService;
+    private final MeterRegistry meterRegistry;
+    private final int port;
+    private final ThreadPoolExecutor workers;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+    
+    public TransactionRpcServer(
+            TransactionService transactionService,
+            ObjectProvider<BalanceEngineService> balanceEngineService,
+            MeterRegistry meterRegistry,
+            @Value("${account.rpc.port:9090}") int port,
+            @Value("${account.rpc.worker-threads:16}") int workerThreads) {
+        this.transactionService = transactionService;
+        this.balanceEngineService = balanceEngineService;
+        this.meterRegistry = meterRegistry;
+        this.port = port;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerThreads * 64),
+                runnable -> daemon(runnable,
+                                   "account-rpc-worker-" +
+                                   workerCount.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        running = true;
+        daemon(this::accept, "account-rpc-acceptor").start();
+        
+        log.info("Transaction RPC server listening on {}", getLocalPort());
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        serverChannel.close();
+        for (SocketChannel connection : connections) {
+            connection.close();
+        }
+        workers.shutdown();
+    }
+    
+    /**
+     * port 0 으로 띄운 경우 실제 port
+     */
+    public int getLocalPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+    
+    ByteBuffer handle(ByteBuffer frame) {
+        long requestId = TransactionRpcCodec.requestIdOf(frame);
+        TransactionRpcCodec.Request request;
+        try {
+            request = TransactionRpcCodec.decodeRequest(frame);
+        } catch (BufferUnderflowException e) {
+            return TransactionRpcCodec.encodeError(
+                    requestId, ErrorCode.INVALID_REQUEST, "Malformed frame");
+        }
+        
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            return TransactionRpcCodec.encodeResult(requestId, execute(request));
+        } catch (AccountException e) {
+            result = "fail";
+            return TransactionRpcCodec.encodeError(
+                    requestId, e.getErrorCode(), e.getErrorMessage());
+        } catch (Exception e) {
+            log.error("Exception is occurred.", e);
+            result = "fail";
+            return TransactionRpcCodec.encodeError(
+                    requestId, ErrorCode.INVALID_REQUEST, e.getMessage());
+        } finally {
+            Timer.builder("account.rpc.requests")
+                    .tag("operation", request.getOperation() == null ?
+                            "unknown" : request.getOperation().name())
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private TransactionDto execute(TransactionRpcCodec.Request request) {
+        RpcOperation operation = request.getOperation();
+        if (operation == null) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        
+        switch (operation) {
+            case USE:
+                return useBalance((UseBalance.Request) request.getBody());
+            case CANCEL:
+                return cancelBalance((CancelBalance.Request) request.getBody());
+            default:
+                return transactionService.queryTransaction(
+                        (String) request.getBody());
+        }
+    }
+    
+    private TransactionDto useBalance(UseBalance.Request request) {
+        TransactionRpcCodec.validate(request);
+        
+        try {
+            BalanceEngineService engine = balanceEngineService.getIfAvailable();
+            if (engine != null) {
+                return engine.useBalance(request.getUserId(),
+                                         request.getAccountNumber(),
+                                         request.getAmount());
+            }
+            
+            return transactionService.useBalance(request.getUserId(),
+                                                 request.getAccountNumber(),
+                                                 request.getAmount());
+        } catch (AccountException e) {
+            log.error(e.getErrorMessage());
+            if (TransactionService.isTransactionFailure(e)) {
+                transactionService.saveFailedUseTransaction(
+                        request.getAccountNumber(), request.getAmount());
+            }
+            
+            throw e;
+        }
+    }
+    
+    private TransactionDto cancelBalance(CancelBalance.Request request) {
+        TransactionRpcCodec.validate(request);
+        
+        try {
+            BalanceEngineService engine = balanceEngineService.getIfAvailable();
+            if (engine != null) {
+                return engine.cancelBalance(request.getTransactionId(),
+                                            request.getAccountNumber(),
+                                            request.getAmount());
+            }
+            
+            return transactionService.cancelBalance(request.getTransactionId(),
+                                                    request.getAccountNumber(),
+                                                    request.getAmount());
+        } catch (AccountException e) {
+            log.error(e.getErrorMessage());
+            if (TransactionService.isTransactionFailure(e)) {
+                transactionService.saveFailedCancelTransaction(
+                        request.getAccountNumber(), request.getAmount());
+            }
+            
+            throw e;
+        }
+    }
+    
+    private void accept() {
+        while (running) {
+            try {
+                SocketChannel connection = serverChannel.accept();
+                connection.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                connections.add(connection);
+                daemon(() -> serve(connection),
+                       "account-rpc-connection-" +
+                       connectionCount.incrementAndGet()).start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Failed to accept RPC connection", e);
+                }
+            }
+        }
+    }
+    
+    private void serve(SocketChannel connection) {
+        try (connection) {
+            ByteBuffer frame;
+            while ((frame = TransactionRpcCodec.readFrame(connection)) != null) {
+                ByteBuffer request = frame;
+                workers.execute(() -> write(connection, handle(request)));
+            }
+        } catch (IOException e) {
+            if (running) {
+                log.debug("RPC connection closed : {}", e.getMessage());
+            }
+        } finally {
+            connections.remove(connection);
+        }
+    }
+    
+    private void write(SocketChannel connection, ByteBuffer response) {
+        try {
+            synchronized (connection) {
+                while (response.hasRemaining()) {
+                    connection.write(response);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to write RPC response : {}", e.getMessage());
+        }
+    }
+    
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        
+        return thread;
+    }
+}
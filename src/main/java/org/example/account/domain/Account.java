@@ -2,6 +2,8 @@ package org.example.account.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.example.account.exception.AccountException;
 import org.example.account.type.AccountStatus;
 import org.example.account.type.ErrorCode;
@@ -13,11 +15,17 @@ import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @Builder
+// 잔액이 바뀌므로 커밋 전 값이 보이지 않도록 READ_WRITE 로 둔다.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @NoArgsConstructor
 @Setter
+@Table(indexes = {
+        @Index(name = "idx_account_account_number",
+               columnList = "accountNumber", unique = true)
+})
 public class Account {
     @Id
     @GeneratedValue
@@ -35,17 +43,52 @@ public class Account {
     @Enumerated(EnumType.STRING)
     private AccountStatus accountStatus;
     private Long balance;
+    // 승인(authorize) 후 아직 확정/해제되지 않은 홀드 금액 합계
+    @Builder.Default
+    private Long heldAmount = 0L;
     
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
     
+    @Version
+    private Long version;
+    
+    // 마지막으로 이 계좌를 변경한 lock 의 fencing token
+    private Long fencingToken;
+    
+    /**
+     * 잔액에서 홀드 금액을 뺀 사용 가능 금액
+     */
+    public long getAvailableBalance() {
+        return balance - heldAmount;
+    }
+    
     public void useBalance(Long amount) {
-        if (amount > balance) {
+        if (amount > getAvailableBalance()) {
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
         balance -= amount;
     }
     
+    public void hold(Long amount) {
+        if (amount > getAvailableBalance()) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        heldAmount += amount;
+    }
+    
+    public void releaseHold(Long amount) {
+        heldAmount -= amount;
+    }
+    
+    /**
+     * 홀드를 해제하면서 같은 금액을 잔액에서 차감한다.
+     */
+    public void captureHold(Long amount) {
+        heldAmount -= amount;
+        balance -= amount;
+    }
+    
     public void cancelBalance(Long amount) {
         if (amount < 0) {
             throw new AccountException(ErrorCode.INVALID_REQUEST);
@@ -5,6 +5,8 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -13,6 +15,9 @@ import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @Builder
+// 이름만 있고 변경 경로가 없어 soft lock 없는 NONSTRICT_READ_WRITE 로 둔다.
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE,
+       region = "accountUser")
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @Getter
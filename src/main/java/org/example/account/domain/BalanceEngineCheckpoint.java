@@ -0,0 +1,26 @@
+package org.example.account.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 엔진 WAL 중 DB(계좌 잔액, 거래, outbox)에 반영된 마지막 순번
+ * 반영과 같은 트랜잭션에서 저장되므로, 재시작 시 이 순번 이후 WAL 만 다시 적용한다.
+ */
+@AllArgsConstructor
+@Builder
+@Entity
+@Getter
+@NoArgsConstructor
+@Setter
+public class BalanceEngineCheckpoint {
+    @Id
+    private String id;
+    
+    private Long lastSequence;
+    
+    private LocalDateTime checkpointedAt;
+}
@@ -0,0 +1,66 @@
+package org.example.account.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.account.type.HoldStatus;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 승인(authorize) 시 계좌 잔액에서 잡아 둔 금액
+ * capture 시 USE 거래로 확정되고, void 혹은 만료 시 해제된다.
+ */
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@NoArgsConstructor
+@Setter
+@Table(indexes = {
+        @Index(name = "idx_balance_hold_hold_id",
+               columnList = "holdId", unique = true),
+        @Index(name = "idx_balance_hold_status_expires_at",
+               columnList = "holdStatus, expiresAt")
+})
+public class BalanceHold {
+    @Id
+    @GeneratedValue
+    private Long id;
+    
+    @CreatedDate
+    private LocalDateTime createdAt;
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+    
+    private String holdId;
+    
+    @ManyToOne
+    private Account account;
+    private Long amount;
+    
+    @Enumerated(EnumType.STRING)
+    private HoldStatus holdStatus;
+    private LocalDateTime expiresAt;
+    private LocalDateTime settledAt;
+    
+    // capture 로 생성된 USE 거래
+    private String transactionId;
+    
+    public boolean isPending() {
+        return holdStatus == HoldStatus.PENDING;
+    }
+    
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+    
+    public void settle(HoldStatus holdStatus, String transactionId) {
+        this.holdStatus = holdStatus;
+        this.transactionId = transactionId;
+        this.settledAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.account.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌별 잔액 대사 진행 위치
+ * 마지막으로 검증된 거래 이후부터 다음 대사를 이어서 진행한다.
+ */
+@AllArgsConstructor
+@Builder
+@Entity
+@Getter
+@NoArgsConstructor
+@Setter
+public class ReconciliationCheckpoint {
+    @Id
+    private Long accountId;
+    
+    private Long lastTransactionId;
+    private Long lastBalanceSnapshot;
+    
+    private LocalDateTime checkedAt;
+}
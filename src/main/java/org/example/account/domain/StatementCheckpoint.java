@@ -0,0 +1,29 @@
+package org.example.account.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 월별 거래 명세서 작성 진행 위치 (worker partition 단위)
+ * id : {yyyyMM}-{part}of{parts}
+ * 마지막으로 파일에 기록(force)된 계좌와 파일 크기까지를 커밋된 것으로 본다.
+ */
+@AllArgsConstructor
+@Builder
+@Entity
+@Getter
+@NoArgsConstructor
+@Setter
+public class StatementCheckpoint {
+    @Id
+    private String id;
+    
+    private Long lastAccountId;
+    private Long committedBytes;
+    private boolean completed;
+    
+    private LocalDateTime updatedAt;
+}
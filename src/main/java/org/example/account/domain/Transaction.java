@@ -17,6 +17,15 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor
 @Setter
+@Table(indexes = {
+        // 파티션을 알 수 없는 이전 형식 id 와 라우팅 실패 시의 조회용
+        @Index(name = "idx_transaction_transaction_id",
+               columnList = "transactionId", unique = true),
+        @Index(name = "idx_transaction_partition_transaction_id",
+               columnList = "partitionKey, transactionId", unique = true),
+        @Index(name = "idx_transaction_partition_transacted_at",
+               columnList = "partitionKey, transactedAt")
+})
 public class Transaction {
     @Id
     @GeneratedValue
@@ -39,4 +48,17 @@ public class Transaction {
     
     private String transactionId;
     private LocalDateTime transactedAt;
+    // 월 단위 파티션 키 (yyyyMM), TransactionPartitionRouter 참고
+    private Integer partitionKey;
+    
+    // 취소 거래와 원거래를 연결, 같은 거래가 여러 번 취소되지 않도록 한다.
+    private boolean canceled;
+    private Long canceledAmount;
+    private String cancelTransactionId;
+    
+    public void cancel(Long amount, String cancelTransactionId) {
+        this.canceled = true;
+        this.canceledAmount = amount;
+        this.cancelTransactionId = cancelTransactionId;
+    }
 }
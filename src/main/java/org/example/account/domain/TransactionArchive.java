@@ -0,0 +1,53 @@
+package org.example.account.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 취소 가능 기간(1년)이 지나 hot 테이블에서 옮겨진 거래
+ * 조회 키만 컬럼으로 두고 나머지 필드는 압축된 payload 로 보관한다.
+ */
+@AllArgsConstructor
+@Builder
+@Entity
+@Getter
+@NoArgsConstructor
+@Setter
+@Table(indexes = {
+        @Index(name = "idx_transaction_archive_transaction_id",
+               columnList = "transactionId", unique = true),
+        @Index(name = "idx_transaction_archive_account_number",
+               columnList = "accountNumber")
+})
+public class TransactionArchive implements Persistable<Long> {
+    // 원거래의 id 를 그대로 사용한다.
+    @Id
+    private Long id;
+    
+    private String transactionId;
+    private String accountNumber;
+    private LocalDateTime transactedAt;
+    private LocalDateTime archivedAt;
+    
+    @Lob
+    private byte[] payload;
+    
+    // id 를 직접 지정하므로 save 시 merge(select) 대신 바로 persist 되도록 한다.
+    @Transient
+    @Builder.Default
+    private boolean newArchive = true;
+    
+    @Override
+    public boolean isNew() {
+        return newArchive;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newArchive = false;
+    }
+}
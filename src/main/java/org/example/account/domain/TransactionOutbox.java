@@ -0,0 +1,54 @@
+package org.example.account.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 이벤트 발행용 outbox
+ * 거래 저장과 같은 트랜잭션에서 기록되고, relay 가 발행 후 삭제한다.
+ */
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@NoArgsConstructor
+@Setter
+public class TransactionOutbox {
+    @Id
+    @GeneratedValue
+    private Long id;
+    
+    @CreatedDate
+    private LocalDateTime createdAt;
+    
+    private String transactionId;
+    private String accountNumber;
+    
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+    
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+    
+    public static TransactionOutbox from(Transaction transaction) {
+        return TransactionOutbox.builder()
+                .transactionId(transaction.getTransactionId())
+                .accountNumber(transaction.getAccount().getAccountNumber())
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package org.example.account.dto;
 
 import lombok.*;
+import org.example.account.aop.AccountLockIdInterface;
 import org.example.account.domain.Account;
+import org.example.account.type.AccountStatus;
 
 import java.time.LocalDateTime;
 
@@ -10,10 +12,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Setter
 @Getter
-public class AccountDto {
+public class AccountDto implements AccountLockIdInterface {
     private Long userId;
     private String accountNumber;
     private Long balance;
+    private AccountStatus accountStatus;
     
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
@@ -23,6 +26,7 @@ public class AccountDto {
                 .userId(account.getAccountUser().getId())
                 .accountNumber(account.getAccountNumber())
                 .balance(account.getBalance())
+                .accountStatus(account.getAccountStatus())
                 .registeredAt(account.getRegisteredAt())
                 .unRegisteredAt(account.getUnRegisteredAt())
                 .build();
@@ -0,0 +1,19 @@
+package org.example.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.account.type.AccountStatus;
+
+/**
+ * 잔액 엔진 테이블에 적재하는 계좌 값 (조회 전용 projection)
+ */
+@Getter
+@AllArgsConstructor
+public class AccountSnapshot {
+    private Long accountId;
+    private String accountNumber;
+    private Long userId;
+    private AccountStatus accountStatus;
+    private Long balance;
+    private Long heldAmount;
+}
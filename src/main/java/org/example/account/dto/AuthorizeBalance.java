@@ -0,0 +1,52 @@
+package org.example.account.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+public class AuthorizeBalance {
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request {
+        @NotNull
+        @Min(1)
+        private Long userId;
+        
+        @NotNull
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+        
+        @NotNull
+        @Min(1)
+        @Max(1000_000_000)
+        private Long amount;
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private String holdId;
+        private Long amount;
+        private Long availableBalance;
+        private LocalDateTime expiresAt;
+        
+        public static Response from(BalanceHoldDto balanceHoldDto) {
+            return Response.builder()
+                    .accountNumber(balanceHoldDto.getAccountNumber())
+                    .holdId(balanceHoldDto.getHoldId())
+                    .amount(balanceHoldDto.getAmount())
+                    .availableBalance(balanceHoldDto.getAvailableBalance())
+                    .expiresAt(balanceHoldDto.getExpiresAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.account.dto;
+
+import lombok.*;
+import org.example.account.domain.BalanceHold;
+import org.example.account.type.HoldStatus;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceHoldDto {
+    private String holdId;
+    private String accountNumber;
+    private Long amount;
+    private HoldStatus holdStatus;
+    private LocalDateTime expiresAt;
+    private LocalDateTime settledAt;
+    private String transactionId;
+    // 처리 직후 계좌의 사용 가능 금액 (잔액 - 홀드 금액)
+    private Long availableBalance;
+    
+    public static BalanceHoldDto fromEntity(BalanceHold balanceHold) {
+        return BalanceHoldDto.builder()
+                .holdId(balanceHold.getHoldId())
+                .accountNumber(balanceHold.getAccount().getAccountNumber())
+                .amount(balanceHold.getAmount())
+                .holdStatus(balanceHold.getHoldStatus())
+                .expiresAt(balanceHold.getExpiresAt())
+                .settledAt(balanceHold.getSettledAt())
+                .transactionId(balanceHold.getTransactionId())
+                .availableBalance(
+                        balanceHold.getAccount().getAvailableBalance())
+                .build();
+    }
+}
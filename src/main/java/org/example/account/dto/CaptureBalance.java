@@ -0,0 +1,76 @@
+package org.example.account.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CaptureBalance {
+    public static final int MAX_HOLD_IDS = 100;
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotNull
+        @Min(1)
+        private Long userId;
+        
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+        
+        // 같은 계좌의 홀드만, 한 번의 계좌 lock 안에서 모두 확정된다.
+        @NotEmpty
+        @Size(max = MAX_HOLD_IDS)
+        private List<@NotBlank String> holdIds;
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private List<Result> captures;
+        
+        public static Response from(String accountNumber,
+                                    List<BalanceHoldDto> balanceHoldDtos) {
+            return Response.builder()
+                    .accountNumber(accountNumber)
+                    .captures(balanceHoldDtos.stream()
+                                      .map(Result::from)
+                                      .collect(Collectors.toList()))
+                    .build();
+        }
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private String holdId;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        
+        public static Result from(BalanceHoldDto balanceHoldDto) {
+            return Result.builder()
+                    .holdId(balanceHoldDto.getHoldId())
+                    .transactionId(balanceHoldDto.getTransactionId())
+                    .amount(balanceHoldDto.getAmount())
+                    .transactedAt(balanceHoldDto.getSettledAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.account.dto;
+
+import lombok.*;
+import org.example.account.type.LatencyStage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LatencyReport {
+    private boolean enabled;
+    // 이 시각 이후(시작 혹은 초기화) 누적된 값
+    private LocalDateTime since;
+    private List<Endpoint> endpoints;
+    
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Endpoint {
+        // ex) POST /transaction/use
+        private String endpoint;
+        // 해당 단계를 거친 요청만 집계한다.
+        private Map<LatencyStage, Stage> stages;
+        // 최근 분 단위 처리량 (오래된 순)
+        private List<Minute> throughput;
+    }
+    
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Stage {
+        private long count;
+        private double meanMs;
+        private double p50Ms;
+        private double p90Ms;
+        private double p99Ms;
+        private double p999Ms;
+        private double maxMs;
+    }
+    
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Minute {
+        private LocalDateTime minute;
+        private long requests;
+        private double tps;
+    }
+}
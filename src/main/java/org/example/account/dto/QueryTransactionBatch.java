@@ -0,0 +1,71 @@
+package org.example.account.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class QueryTransactionBatch {
+    public static final int MAX_TRANSACTION_IDS = 100;
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Size(max = MAX_TRANSACTION_IDS)
+        private List<@NotBlank String> transactionIds;
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<Result> transactions;
+        
+        /**
+         * 요청한 순서대로, 없는 거래는 found = false 로 응답한다.
+         */
+        public static Response from(
+                List<String> transactionIds,
+                Map<String, TransactionDto> transactionDtos) {
+            return Response.builder()
+                    .transactions(transactionIds.stream()
+                                          .map(transactionId -> Result.of(
+                                                  transactionId,
+                                                  transactionDtos.get(
+                                                          transactionId)))
+                                          .collect(Collectors.toList()))
+                    .build();
+        }
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private String transactionId;
+        private boolean found;
+        private QueryTransactionResponse transaction;
+        
+        public static Result of(
+                String transactionId, TransactionDto transactionDto) {
+            return Result.builder()
+                    .transactionId(transactionId)
+                    .found(transactionDto != null)
+                    .transaction(transactionDto == null ? null :
+                                         QueryTransactionResponse.from(
+                                                 transactionDto))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.account.dto;
+
+import lombok.*;
+import org.example.account.type.ReconciliationDiscrepancyType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReconciliationReport {
+    private LocalDateTime startedAt;
+    private long accounts;
+    private long transactions;
+    private long elapsedMillis;
+    private double accountsPerSecond;
+    private List<Discrepancy> discrepancies;
+    
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Discrepancy {
+        private String accountNumber;
+        private ReconciliationDiscrepancyType type;
+        // BALANCE_MISMATCH 인 경우 마지막 거래
+        private String transactionId;
+        private Long expected;
+        private Long actual;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용 한도 window 복원에 필요한 필드만 담는 조회 전용 projection
+ */
+@Getter
+@AllArgsConstructor
+public class SpendingEntry {
+    private String accountNumber;
+    private Long amount;
+    private LocalDateTime spentAt;
+}
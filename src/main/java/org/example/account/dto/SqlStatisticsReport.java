@@ -0,0 +1,41 @@
+package org.example.account.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SqlStatisticsReport {
+    // 이 시각 이후(시작 혹은 초기화) 누적된 값
+    private LocalDateTime since;
+    private int statementBudget;
+    private int repeatedStatementThreshold;
+    private List<Endpoint> endpoints;
+    
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Endpoint {
+        // ex) POST /transaction/use
+        private String endpoint;
+        private long requests;
+        private double avgStatements;
+        private long maxStatements;
+        private double avgEntityLoads;
+        private double avgFlushes;
+        private double avgJdbcMs;
+        // statement-budget 을 넘은 요청 수
+        private long overBudget;
+        // 같은 SQL 이 repeated-statement-threshold 이상 반복된(N+1 의심) 요청 수
+        private long repeatedStatement;
+        // 마지막으로 반복이 감지된 SQL
+        private String lastRepeatedSql;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.account.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StatementReport {
+    // yyyy-MM
+    private String month;
+    private LocalDateTime startedAt;
+    // 이번 실행에서 처리한 계좌 수 (이전 실행에서 끝난 계좌 제외)
+    private long accounts;
+    // 해당 월에 거래가 있어 명세서가 작성된 계좌 수
+    private long statements;
+    private long transactions;
+    private long bytes;
+    private long elapsedMillis;
+    private double accountsPerSecond;
+    private double bytesPerSecond;
+    // 이전 실행의 checkpoint 에서 이어서 처리한 partition 수
+    private int resumedParts;
+    private List<String> files;
+}
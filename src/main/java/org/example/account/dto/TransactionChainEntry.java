@@ -0,0 +1,25 @@
+package org.example.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.account.type.TransactionType;
+
+/**
+ * 잔액 대사에 필요한 거래 필드만 담는 조회 전용 projection
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionChainEntry {
+    private Long id;
+    private String transactionId;
+    private TransactionType transactionType;
+    private Long amount;
+    private Long balanceSnapshot;
+    
+    /**
+     * @return 이 거래로 인한 잔액 변화량
+     */
+    public long balanceDelta() {
+        return transactionType == TransactionType.USE ? -amount : amount;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.account.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.example.account.type.HoldStatus;
+
+public class VoidBalance {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotNull
+        @Min(1)
+        private Long userId;
+        
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+        
+        @NotBlank
+        private String holdId;
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private String holdId;
+        private Long amount;
+        private HoldStatus holdStatus;
+        private Long availableBalance;
+        
+        public static Response from(BalanceHoldDto balanceHoldDto) {
+            return Response.builder()
+                    .accountNumber(balanceHoldDto.getAccountNumber())
+                    .holdId(balanceHoldDto.getHoldId())
+                    .amount(balanceHoldDto.getAmount())
+                    .holdStatus(balanceHoldDto.getHoldStatus())
+                    .availableBalance(balanceHoldDto.getAvailableBalance())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.account.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.account.domain.Account;
+
+/**
+ * 계좌의 잔액 혹은 상태가 변경되었을 때 발행되는 이벤트
+ * 커밋 이후(AFTER_COMMIT)에 읽기 모델 갱신 등에 사용된다.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountChangedEvent {
+    private final Account account;
+}
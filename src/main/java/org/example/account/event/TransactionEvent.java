@@ -0,0 +1,41 @@
+package org.example.account.event;
+
+import lombok.*;
+import org.example.account.domain.TransactionOutbox;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 외부 시스템으로 발행되는 거래 이벤트
+ * outboxId 는 단조 증가하므로 수신 측의 순서/중복 판단에 사용할 수 있다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransactionEvent {
+    private Long outboxId;
+    private String transactionId;
+    private String accountNumber;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+    
+    public static TransactionEvent from(TransactionOutbox outbox) {
+        return TransactionEvent.builder()
+                .outboxId(outbox.getId())
+                .transactionId(outbox.getTransactionId())
+                .accountNumber(outbox.getAccountNumber())
+                .transactionType(outbox.getTransactionType())
+                .transactionResultType(outbox.getTransactionResultType())
+                .amount(outbox.getAmount())
+                .balanceSnapshot(outbox.getBalanceSnapshot())
+                .transactedAt(outbox.getTransactedAt())
+                .build();
+    }
+}
@@ -1,10 +1,20 @@
 package org.example.account.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.example.account.domain.Account;
 import org.example.account.domain.AccountUser;
+import org.example.account.dto.AccountSnapshot;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +24,60 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     
     Integer countByAccountUser(AccountUser accountUser);
     
+    /**
+     * 계좌번호 조회 결과는 쿼리 캐시에 두고, 계좌 자체는 account region 에서 읽는다.
+     * Account 테이블이 변경되면 쿼리 캐시는 무효화된다.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION,
+                       value = "accountByNumber")
+    })
     Optional<Account> findByAccountNumber(String AccountNumber);
     
+    boolean existsByAccountNumber(String accountNumber);
+    
     List<Account> findByAccountUser(AccountUser accountUser);
+    
+    @Query("select a.id from Account a order by a.id")
+    List<Long> findAllIds();
+    
+    @Query("select a from Account a join fetch a.accountUser " +
+           "where a.id in :ids")
+    List<Account> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 잔액 엔진 적재용, 사용자 조인 없이 엔진이 쓰는 값만 읽는다.
+     */
+    @Query("select new org.example.account.dto.AccountSnapshot(" +
+           "a.id, a.accountNumber, a.accountUser.id, a.accountStatus, " +
+           "a.balance, a.heldAmount) from Account a")
+    List<AccountSnapshot> findAllSnapshots();
+    
+    @Query("select new org.example.account.dto.AccountSnapshot(" +
+           "a.id, a.accountNumber, a.accountUser.id, a.accountStatus, " +
+           "a.balance, a.heldAmount) from Account a " +
+           "where a.accountNumber = :accountNumber")
+    Optional<AccountSnapshot> findSnapshotByAccountNumber(
+            @Param("accountNumber") String accountNumber);
+    
+    @Query("select a.version from Account a where a.id = :id")
+    Long findVersionById(@Param("id") Long id);
+    
+    /**
+     * fencing token 확인용, 읽은 row 는 트랜잭션이 끝날 때까지 DB lock 이 유지된다.
+     * bulk update 와 달리 account region 전체를 비우지 않고, 커밋 시 이 계좌의 캐시만 갱신된다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findForUpdateByAccountNumber(
+            @Param("accountNumber") String accountNumber);
+    
+    /**
+     * 잔액 엔진 checkpoint 용, 엔진 밖의 변경(홀드 등)과 겹치지 않도록 절대값이 아닌 변화량을 더한다.
+     */
+    @Modifying
+    @Query("update versioned Account a set a.balance = a.balance + :delta " +
+           "where a.id = :id")
+    int applyBalanceDelta(@Param("id") Long id, @Param("delta") Long delta);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package org.example.account.repository;
+
+import org.example.account.domain.BalanceEngineCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceEngineCheckpointRepository
+        extends JpaRepository<BalanceEngineCheckpoint, String> {
+}
@@ -0,0 +1,48 @@
+package org.example.account.repository;
+
+import org.example.account.domain.BalanceHold;
+import org.example.account.dto.SpendingEntry;
+import org.example.account.type.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold,
+        Long> {
+    Optional<BalanceHold> findByHoldId(String holdId);
+    
+    @Query("select h from BalanceHold h " +
+           "join fetch h.account a join fetch a.accountUser " +
+           "where h.holdId in :holdIds")
+    List<BalanceHold> findWithAccountByHoldIdIn(
+            @Param("holdIds") Collection<String> holdIds);
+    
+    /**
+     * 만료된 PENDING 홀드를 만료 시각 순으로 읽는다. (sweeper)
+     */
+    @Query("select h from BalanceHold h join fetch h.account " +
+           "where h.holdStatus = :holdStatus and h.expiresAt <= :now " +
+           "order by h.expiresAt asc")
+    List<BalanceHold> findExpired(@Param("holdStatus") HoldStatus holdStatus,
+                                  @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+    
+    /**
+     * 사용 한도 window 복원용, 아직 확정/해제되지 않은 홀드의 승인 금액
+     */
+    @Query("select new org.example.account.dto.SpendingEntry(" +
+           "a.accountNumber, h.amount, h.createdAt) " +
+           "from BalanceHold h join h.account a " +
+           "where h.holdStatus = :holdStatus and h.createdAt >= :from")
+    List<SpendingEntry> findSpendingByHoldStatusAndCreatedAtAfter(
+            @Param("holdStatus") HoldStatus holdStatus,
+            @Param("from") LocalDateTime from);
+}
@@ -0,0 +1,10 @@
+package org.example.account.repository;
+
+import org.example.account.domain.ReconciliationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationCheckpointRepository
+        extends JpaRepository<ReconciliationCheckpoint, Long> {
+}
@@ -0,0 +1,33 @@
+package org.example.account.repository;
+
+import jakarta.persistence.QueryHint;
+import org.example.account.domain.TransactionArchive;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface TransactionArchiveRepository
+        extends JpaRepository<TransactionArchive, Long> {
+    Optional<TransactionArchive> findByTransactionId(String transactionId);
+    
+    boolean existsByTransactionId(String transactionId);
+    
+    List<TransactionArchive> findByTransactionIdIn(
+            Collection<String> transactionIds);
+    
+    /**
+     * 기동 시 거래 아이디 Bloom filter 적재용, 호출 측 트랜잭션 안에서 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE,
+                           value = "1000"))
+    @Query("select a.transactionId from TransactionArchive a")
+    Stream<String> streamAllTransactionIds();
+}
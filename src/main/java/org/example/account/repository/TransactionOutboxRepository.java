@@ -0,0 +1,14 @@
+package org.example.account.repository;
+
+import org.example.account.domain.TransactionOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransactionOutboxRepository
+        extends JpaRepository<TransactionOutbox, Long> {
+    List<TransactionOutbox> findAllByOrderByIdAsc(Pageable pageable);
+}
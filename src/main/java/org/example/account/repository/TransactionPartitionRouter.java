@@ -0,0 +1,80 @@
+package org.example.account.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 거래 저장소의 월 단위 파티션 라우팅
+ * partitionKey = yyyyMM (transactedAt 기준)
+ * transactionId = 't' + yyyyMM(6) + epoch millis(hex 11) + random(hex 14) 로 시간 순 정렬되며,
+ * 앞 7자리만 보고 조회할 파티션을 결정할 수 있다.
+ * 이전 형식(UUID hex)에는 나올 수 없는 't' 로 시작하므로, 앞 6자리가 우연히 yyyyMM 인 UUID 와 구분된다.
+ */
+public final class TransactionPartitionRouter {
+    private static final int TRANSACTION_ID_LENGTH = 32;
+    private static final char TRANSACTION_ID_PREFIX = 't';
+    
+    private TransactionPartitionRouter() {
+    }
+    
+    public static int partitionKeyOf(LocalDateTime transactedAt) {
+        return transactedAt.getYear() * 100 + transactedAt.getMonthValue();
+    }
+    
+    /**
+     * 이전 형식(UUID)의 거래 아이디는 파티션을 알 수 없으므로 empty 를 반환한다.
+     */
+    public static Optional<Integer> partitionKeyOf(String transactionId) {
+        if (transactionId == null ||
+            transactionId.length() != TRANSACTION_ID_LENGTH ||
+            transactionId.charAt(0) != TRANSACTION_ID_PREFIX) {
+            return Optional.empty();
+        }
+        
+        for (int i = 1; i <= 6; i++) {
+            if (!Character.isDigit(transactionId.charAt(i))) {
+                return Optional.empty();
+            }
+        }
+        
+        int partitionKey = Integer.parseInt(transactionId.substring(1, 7));
+        int year = partitionKey / 100;
+        int month = partitionKey % 100;
+        if (year < 2000 || month < 1 || month > 12) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(partitionKey);
+    }
+    
+    public static List<Integer> partitionKeysBetween(
+            LocalDateTime from, LocalDateTime to) {
+        List<Integer> partitionKeys = new ArrayList<>();
+        YearMonth last = YearMonth.from(to);
+        for (YearMonth month = YearMonth.from(from);
+             !month.isAfter(last); month = month.plusMonths(1)) {
+            partitionKeys.add(month.getYear() * 100 + month.getMonthValue());
+        }
+        
+        return partitionKeys;
+    }
+    
+    public static String newTransactionId(LocalDateTime transactedAt) {
+        long epochMillis = transactedAt.atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+        
+        return String.format(
+                "%c%06d%011x%014x",
+                TRANSACTION_ID_PREFIX,
+                partitionKeyOf(transactedAt),
+                epochMillis,
+                ThreadLocalRandom.current().nextLong() >>> 8
+        );
+    }
+}
@@ -1,13 +1,198 @@
 package org.example.account.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.account.domain.Transaction;
+import org.example.account.dto.SpendingEntry;
+import org.example.account.dto.StatementLine;
+import org.example.account.dto.TransactionChainEntry;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * 거래 조회는 routed 메서드를 사용한다.
+ * 거래 아이디에서 파티션 키를 알 수 있으면 해당 파티션만 조회한다.
+ */
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction,
         Long> {
     Optional<Transaction> findByTransactionId(String tansactionId);
-}
\ No newline at end of file
+    
+    Optional<Transaction> findByPartitionKeyAndTransactionId(
+            Integer partitionKey, String transactionId);
+    
+    @Query("select t from Transaction t " +
+           "join fetch t.account a join fetch a.accountUser " +
+           "where t.transactionId = :transactionId")
+    Optional<Transaction> findWithAccountByTransactionId(
+            @Param("transactionId") String transactionId);
+    
+    @Query("select t from Transaction t " +
+           "join fetch t.account a join fetch a.accountUser " +
+           "where t.partitionKey = :partitionKey " +
+           "and t.transactionId = :transactionId")
+    Optional<Transaction> findWithAccountByPartitionKeyAndTransactionId(
+            @Param("partitionKey") Integer partitionKey,
+            @Param("transactionId") String transactionId);
+    
+    @Query("select t from Transaction t " +
+           "join fetch t.account a join fetch a.accountUser " +
+           "where t.partitionKey in :partitionKeys " +
+           "and t.transactionId in :transactionIds")
+    List<Transaction> findWithAccountByPartitionKeyInAndTransactionIdIn(
+            @Param("partitionKeys") Collection<Integer> partitionKeys,
+            @Param("transactionIds") Collection<String> transactionIds);
+    
+    @Query("select t from Transaction t " +
+           "join fetch t.account a join fetch a.accountUser " +
+           "where t.transactionId in :transactionIds")
+    List<Transaction> findWithAccountByTransactionIdIn(
+            @Param("transactionIds") Collection<String> transactionIds);
+    
+    /**
+     * 잔액을 바꾼 성공 거래만 시간 순으로 읽는다. 호출 측 트랜잭션 안에서 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE,
+                           value = "500"))
+    @Query("select new org.example.account.dto.TransactionChainEntry(" +
+           "t.id, t.transactionId, t.transactionType, t.amount, " +
+           "t.balanceSnapshot) " +
+           "from Transaction t " +
+           "where t.account.id = :accountId and t.id > :afterId " +
+           "and t.transactionResultType = " +
+           "org.example.account.type.TransactionResultType.S " +
+           "order by t.transactedAt asc, t.id asc")
+    Stream<TransactionChainEntry> streamChainByAccountId(
+            @Param("accountId") Long accountId,
+            @Param("afterId") Long afterId);
+    
+    /**
+     * 기동 시 거래 아이디 Bloom filter 적재용, 호출 측 트랜잭션 안에서 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE,
+                           value = "1000"))
+    @Query("select t.transactionId from Transaction t")
+    Stream<String> streamAllTransactionIds();
+    
+    /**
+     * 월별 명세서용, 한 파티션(월)에서 계좌 묶음의 성공 거래를 계좌별 시간 순으로 읽는다.
+     * 호출 측 트랜잭션 안에서 닫아야 한다.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE,
+                           value = "500"))
+    @Query("select new org.example.account.dto.StatementLine(" +
+           "t.account.id, t.transactionId, t.transactionType, t.amount, " +
+           "t.balanceSnapshot, t.transactedAt) " +
+           "from Transaction t " +
+           "where t.partitionKey = :partitionKey " +
+           "and t.account.id in :accountIds " +
+           "and t.transactionResultType = " +
+           "org.example.account.type.TransactionResultType.S " +
+           "order by t.account.id asc, t.transactedAt asc, t.id asc")
+    Stream<StatementLine> streamStatementLines(
+            @Param("partitionKey") Integer partitionKey,
+            @Param("accountIds") Collection<Long> accountIds);
+    
+    /**
+     * 사용 한도 window 복원용, 성공한 USE 거래의 계좌번호/금액/거래일시만 읽는다.
+     */
+    @Query("select new org.example.account.dto.SpendingEntry(" +
+           "a.accountNumber, t.amount, t.transactedAt) " +
+           "from Transaction t join t.account a " +
+           "where t.partitionKey in :partitionKeys " +
+           "and t.transactedAt >= :from " +
+           "and t.transactionType = " +
+           "org.example.account.type.TransactionType.USE " +
+           "and t.transactionResultType = " +
+           "org.example.account.type.TransactionResultType.S")
+    List<SpendingEntry> findSpendingByPartitionKeyInAndTransactedAtAfter(
+            @Param("partitionKeys") Collection<Integer> partitionKeys,
+            @Param("from") LocalDateTime from);
+    
+    List<Transaction> findByPartitionKeyInAndTransactedAtBetweenOrderByIdAsc(
+            List<Integer> partitionKeys, LocalDateTime from, LocalDateTime to);
+    
+    List<Transaction> findByPartitionKeyLessThanEqualAndTransactedAtBeforeOrderByIdAsc(
+            Integer partitionKey, LocalDateTime transactedAt, Pageable pageable);
+    
+    /**
+     * 라우팅된 파티션에 없으면 파티션 조건 없이 다시 찾는다.
+     */
+    default Optional<Transaction> findRoutedByTransactionId(
+            String transactionId) {
+        return TransactionPartitionRouter.partitionKeyOf(transactionId)
+                .flatMap(partitionKey -> findByPartitionKeyAndTransactionId(
+                        partitionKey, transactionId))
+                .or(() -> findByTransactionId(transactionId));
+    }
+    
+    default Optional<Transaction> findRoutedWithAccountByTransactionId(
+            String transactionId) {
+        return TransactionPartitionRouter.partitionKeyOf(transactionId)
+                .flatMap(partitionKey ->
+                                 findWithAccountByPartitionKeyAndTransactionId(
+                                         partitionKey, transactionId))
+                .or(() -> findWithAccountByTransactionId(transactionId));
+    }
+    
+    /**
+     * 파티션 키를 알 수 있는 id 는 파티션 IN 조건과 함께 한 번에 조회하고,
+     * 이전 형식(UUID) id 와 라우팅된 파티션에 없던 id 만 따로 한 번 더 조회한다.
+     */
+    default List<Transaction> findRoutedWithAccountByTransactionIdIn(
+            Collection<String> transactionIds) {
+        Set<Integer> partitionKeys = new HashSet<>();
+        List<String> routedIds = new ArrayList<>();
+        List<String> unroutedIds = new ArrayList<>();
+        for (String transactionId : transactionIds) {
+            Optional<Integer> partitionKey =
+                    TransactionPartitionRouter.partitionKeyOf(transactionId);
+            if (partitionKey.isPresent()) {
+                partitionKeys.add(partitionKey.get());
+                routedIds.add(transactionId);
+            } else {
+                unroutedIds.add(transactionId);
+            }
+        }
+        
+        List<Transaction> transactions = new ArrayList<>();
+        if (!routedIds.isEmpty()) {
+            transactions.addAll(findWithAccountByPartitionKeyInAndTransactionIdIn(
+                    partitionKeys, routedIds));
+            Set<String> found = transactions.stream()
+                    .map(Transaction::getTransactionId)
+                    .collect(Collectors.toSet());
+            routedIds.stream()
+                    .filter(transactionId -> !found.contains(transactionId))
+                    .forEach(unroutedIds::add);
+        }
+        if (!unroutedIds.isEmpty()) {
+            transactions.addAll(findWithAccountByTransactionIdIn(unroutedIds));
+        }
+        
+        return transactions;
+    }
+    
+    default List<Transaction> findRoutedByTransactedAtBetween(
+            LocalDateTime from, LocalDateTime to) {
+        return findByPartitionKeyInAndTransactedAtBetweenOrderByIdAsc(
+                TransactionPartitionRouter.partitionKeysBetween(from, to),
+                from, to);
+    }
+    
+    default List<SpendingEntry> findRoutedSpendingSince(LocalDateTime from) {
+        return findSpendingByPartitionKeyInAndTransactedAtAfter(
+                TransactionPartitionRouter.partitionKeysBetween(
+                        from, LocalDateTime.now()),
+                from);
+    }
+}
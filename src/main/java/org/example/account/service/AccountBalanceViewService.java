@@ -0,0 +1,209 @@
+package org.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.domain.Account;
+import org.example.account.dto.AccountDto;
+import org.example.account.event.AccountChangedEvent;
+import org.example.account.repository.AccountRepository;
+import org.example.account.type.AccountStatus;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자별 잔액 조회용 읽기 모델 (Redis hash)
+ * key : ACBV:{userId}, field : 계좌번호, value : {version}:{status}:{balance}
+ * 커밋 이후에만 갱신되며, version 이 더 낮은 갱신은 버린다.
+ * 커밋 이후 갱신만으로는 그 전에 만든 계좌가 빠져 있을 수 있으므로,
+ * DB 기준으로 사용자의 계좌를 모두 채운 뒤에만 완료 표시(#complete)를 두고, 표시가 있는 hash 만 조회에 쓴다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountBalanceViewService {
+    private static final String UPDATE_SCRIPT =
+            "local current = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if current then " +
+            "  local currentVersion = tonumber(string.sub(current, 1, " +
+            "string.find(current, ':') - 1)) " +
+            "  if currentVersion >= tonumber(ARGV[2]) then return 0 end " +
+            "end " +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[3]) " +
+            "return 1";
+    private static final String COMPLETE_FIELD = "#complete";
+    
+    @Lazy
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    
+    @Value("${account.balance-view.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${account.balance-view.rebuild-chunk-size:500}")
+    private int chunkSize;
+    
+    private String getViewKey(Long userId) {
+        return "ACBV:" + userId;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            apply(event.getAccount());
+        } catch (Exception e) {
+            // 읽기 모델 갱신 실패가 이미 커밋된 거래를 실패시키면 안 된다.
+            log.error("Balance view update failed for accountNumber : {}",
+                      event.getAccount().getAccountNumber(), e);
+            // 빠진 갱신이 있으므로 다음 조회는 DB 에서 다시 채운다.
+            invalidate(event.getAccount().getAccountUser().getId());
+        }
+    }
+    
+    /**
+     * version 비교 후 더 최신인 경우에만 반영한다.
+     * @return 반영 여부
+     */
+    public boolean apply(Account account) {
+        Long applied = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                UPDATE_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Collections.<Object>singletonList(
+                        getViewKey(account.getAccountUser().getId())),
+                account.getAccountNumber(),
+                String.valueOf(getVersion(account)),
+                encode(account)
+        );
+        
+        return applied != null && applied == 1L;
+    }
+    
+    public Optional<List<AccountDto>> findAccountsByUserId(Long userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        
+        Map<String, String> view;
+        try {
+            view = redissonClient.<String, String>getMap(
+                    getViewKey(userId), StringCodec.INSTANCE).readAllMap();
+        } catch (Exception e) {
+            log.error("Balance view read failed for userId : {}", userId, e);
+            return Optional.empty();
+        }
+        
+        if (!view.containsKey(COMPLETE_FIELD)) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(view.entrySet().stream()
+                                   .filter(entry -> !COMPLETE_FIELD.equals(
+                                           entry.getKey()))
+                                   .map(entry -> decode(
+                                           userId, entry.getKey(),
+                                           entry.getValue()))
+                                   .sorted(Comparator.comparing(
+                                           AccountDto::getAccountNumber))
+                                   .collect(Collectors.toList()));
+    }
+    
+    /**
+     * DB 에서 읽은 사용자의 전체 계좌로 읽기 모델을 채우고 완료 표시를 둔다.
+     * 실패해도 조회는 DB 결과로 응답하므로 예외를 던지지 않는다.
+     */
+    public void backfill(Long userId, List<Account> accounts) {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            accounts.forEach(this::apply);
+            markComplete(userId);
+        } catch (Exception e) {
+            log.error("Balance view backfill failed for userId : {}",
+                      userId, e);
+        }
+    }
+    
+    /**
+     * DB 기준으로 읽기 모델 전체를 다시 만든다.
+     * 계좌를 id 순으로 chunk-size 개씩 읽어, 전체 계좌를 한 트랜잭션/영속성 컨텍스트에 올리지 않는다.
+     * 사용자의 계좌가 여러 chunk 에 걸칠 수 있으므로 완료 표시는 모든 chunk 를 반영한 뒤에 둔다.
+     * @return 반영된 계좌 수
+     */
+    public int rebuild() {
+        int applied = 0;
+        Set<Long> userIds = new HashSet<>();
+        List<Long> accountIds = accountRepository.findAllIds();
+        for (int from = 0; from < accountIds.size(); from += chunkSize) {
+            List<Long> chunk = accountIds.subList(
+                    from, Math.min(from + chunkSize, accountIds.size()));
+            for (Account account : accountRepository.findWithUserByIdIn(chunk)) {
+                if (apply(account)) {
+                    applied++;
+                }
+                userIds.add(account.getAccountUser().getId());
+            }
+        }
+        userIds.forEach(this::markComplete);
+        log.info("Balance view rebuilt : {} accounts applied", applied);
+        
+        return applied;
+    }
+    
+    private void markComplete(Long userId) {
+        redissonClient.<String, String>getMap(
+                getViewKey(userId), StringCodec.INSTANCE)
+                .fastPut(COMPLETE_FIELD, "1");
+    }
+    
+    private void invalidate(Long userId) {
+        try {
+            redissonClient.<String, String>getMap(
+                    getViewKey(userId), StringCodec.INSTANCE)
+                    .fastRemove(COMPLETE_FIELD);
+        } catch (Exception e) {
+            log.error("Balance view invalidate failed for userId : {}",
+                      userId, e);
+        }
+    }
+    
+    private long getVersion(Account account) {
+        return account.getVersion() == null ? 0L : account.getVersion();
+    }
+    
+    private String encode(Account account) {
+        return getVersion(account) + ":" + account.getAccountStatus() + ":" +
+               account.getBalance();
+    }
+    
+    private AccountDto decode(Long userId, String accountNumber, String value) {
+        String[] parts = value.split(":");
+        
+        return AccountDto.builder()
+                .userId(userId)
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.valueOf(parts[1]))
+                .balance(Long.parseLong(parts[2]))
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.account.domain.Account;
+import org.example.account.dto.AccountSnapshot;
+import org.example.account.event.AccountChangedEvent;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 계좌 번호 → 계좌 id / 소유주 / 상태 메모리 index
+ * 기동 시 AccountNumberIndexLoader 가 채우고, 계좌 생성/해지/변경은 커밋 후 이벤트로 반영한다.
+ * 다른 인스턴스에서 만든 계좌는 없을 수 있으므로, index 에 없으면 DB 에서 계좌 번호로 찾는다.
+ */
+@Component
+public class AccountNumberIndex {
+    private static final int INITIAL_SIZE = 1024;
+    
+    private final AccountNumberTable table =
+            new AccountNumberTable(INITIAL_SIZE);
+    
+    public AccountNumberIndex(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("account.number.index.size", table,
+                            AccountNumberTable::size);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAccountChanged(AccountChangedEvent event) {
+        put(event.getAccount());
+    }
+    
+    public void put(Account account) {
+        long accountNumber = AccountNumberTable.parse(
+                account.getAccountNumber());
+        if (accountNumber == AccountNumberTable.NOT_FOUND) {
+            return;
+        }
+        // 잔액만 바뀐 경우가 대부분이므로 값이 같으면 write lock 을 잡지 않는다.
+        if (table.accountIdOf(accountNumber) == account.getId() &&
+            table.statusOf(accountNumber) == account.getAccountStatus()) {
+            return;
+        }
+        
+        table.put(accountNumber, account.getId(),
+                  account.getAccountUser().getId(),
+                  account.getAccountStatus());
+    }
+    
+    /**
+     * 기동 시 적재, 그 사이 이벤트로 들어온 더 최신 값은 덮어쓰지 않는다.
+     */
+    public int load(List<AccountSnapshot> accounts) {
+        int loaded = 0;
+        for (AccountSnapshot account : accounts) {
+            long accountNumber = AccountNumberTable.parse(
+                    account.getAccountNumber());
+            if (accountNumber != AccountNumberTable.NOT_FOUND &&
+                table.putIfAbsent(accountNumber, account.getAccountId(),
+                                  account.getUserId(),
+                                  account.getAccountStatus())) {
+                loaded++;
+            }
+        }
+        
+        return loaded;
+    }
+    
+    /**
+     * @return 없으면 AccountNumberTable.NOT_FOUND
+     */
+    public long accountIdOf(String accountNumber) {
+        return table.accountIdOf(AccountNumberTable.parse(accountNumber));
+    }
+    
+    public long userIdOf(String accountNumber) {
+        return table.userIdOf(AccountNumberTable.parse(accountNumber));
+    }
+    
+    public AccountStatus statusOf(String accountNumber) {
+        return table.statusOf(AccountNumberTable.parse(accountNumber));
+    }
+    
+    /**
+     * index 에 있는 계좌는 계좌를 읽기 전에 소유주와 해지 여부로 거절한다.
+     * 소유주는 바뀌지 않고 해지는 커밋 후에만 반영되므로, 여기서 거절된 요청은 DB 로 확인해도 거절된다.
+     * index 에 없으면 확인하지 않고 DB 에서 읽은 계좌로 검증한다.
+     */
+    public void checkOwnerAndStatus(String accountNumber, Long userId) {
+        long key = AccountNumberTable.parse(accountNumber);
+        if (table.accountIdOf(key) == AccountNumberTable.NOT_FOUND) {
+            return;
+        }
+        
+        if (table.userIdOf(key) != userId) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (table.statusOf(key) == AccountStatus.UNREGISTERED) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+    
+    public boolean contains(String accountNumber) {
+        return accountIdOf(accountNumber) != AccountNumberTable.NOT_FOUND;
+    }
+    
+    /**
+     * index 에 있으면 id 로(2차 캐시 적중 가능), 없으면 계좌 번호로 조회한다.
+     */
+    public Optional<Account> findAccount(
+            String accountNumber, AccountRepository accountRepository) {
+        long accountId = accountIdOf(accountNumber);
+        if (accountId == AccountNumberTable.NOT_FOUND) {
+            return accountRepository.findByAccountNumber(accountNumber);
+        }
+        
+        return accountRepository.findById(accountId);
+    }
+    
+    /**
+     * index 에 없을 때만 DB 에 존재 여부를 확인한다.
+     */
+    public boolean exists(
+            String accountNumber, AccountRepository accountRepository) {
+        return contains(accountNumber) ||
+               accountRepository.existsByAccountNumber(accountNumber);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.repository.AccountRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기동 시 전체 계좌로 계좌 번호 index 를 채운다.
+ * 채우기 전까지의 조회는 DB 로 넘어가므로 기동을 기다리게 하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountNumberIndexLoader {
+    private final AccountNumberIndex accountNumberIndex;
+    private final AccountRepository accountRepository;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        int loaded = accountNumberIndex.load(
+                accountRepository.findAllSnapshots());
+        
+        log.info("Account number index loaded {} accounts in {} ms",
+                 loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+}
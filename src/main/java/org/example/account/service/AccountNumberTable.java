@@ -0,0 +1,238 @@
+package org.example.account.service;
+
+import org.example.account.type.AccountStatus;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 10자리 숫자 계좌 번호(long) → 계좌 id / 소유주 id / 상태 open addressing 표
+ * key, 계좌 id, 소유주 id, 상태를 각각 primitive 배열에 linear probing 으로 저장하여
+ * 조회에 boxing, String hash, entry 객체가 없다.
+ * 계좌는 해지 상태로 남고 지워지지 않으므로 삭제는 없다.
+ * 쓰기는 write lock, 읽기는 StampedLock 의 낙관적 읽기로 처리한다.
+ */
+public class AccountNumberTable {
+    public static final long NOT_FOUND = -1L;
+    
+    private static final double MAX_LOAD = 0.6;
+    private static final int MIN_CAPACITY = 16;
+    private static final long MAX_ACCOUNT_NUMBER = 9_999_999_999L;
+    private static final int ACCOUNT_ID = 0;
+    private static final int USER_ID = 1;
+    private static final int STATUS = 2;
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+    
+    private final StampedLock lock = new StampedLock();
+    
+    // 크기가 다른 배열을 섞어 읽지 않도록 resize 시 통째로 바꾼다.
+    private Slots slots;
+    private int size;
+    
+    public AccountNumberTable(int expectedSize) {
+        this.slots = new Slots(capacityFor(expectedSize));
+    }
+    
+    /**
+     * @return 10자리 숫자가 아니면 NOT_FOUND
+     */
+    public static long parse(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != 10) {
+            return NOT_FOUND;
+        }
+        
+        long value = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_FOUND;
+            }
+            value = value * 10 + (c - '0');
+        }
+        
+        return value;
+    }
+    
+    public void put(long accountNumber, long accountId, long userId,
+                    AccountStatus accountStatus) {
+        write(accountNumber, accountId, userId, accountStatus, true);
+    }
+    
+    /**
+     * @return 이미 있으면 바꾸지 않고 false
+     */
+    public boolean putIfAbsent(long accountNumber, long accountId, long userId,
+                               AccountStatus accountStatus) {
+        return write(accountNumber, accountId, userId, accountStatus, false);
+    }
+    
+    public long accountIdOf(long accountNumber) {
+        return lookup(accountNumber, ACCOUNT_ID);
+    }
+    
+    public long userIdOf(long accountNumber) {
+        return lookup(accountNumber, USER_ID);
+    }
+    
+    /**
+     * @return 없으면 null
+     */
+    public AccountStatus statusOf(long accountNumber) {
+        long ordinal = lookup(accountNumber, STATUS);
+        return ordinal == NOT_FOUND ? null : STATUSES[(int) ordinal];
+    }
+    
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * 배열이 차지하는 byte 수 (배열 header 제외)
+     */
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) slots.keys.length *
+                   (Long.BYTES * 3 + Byte.BYTES);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    private long lookup(long accountNumber, int field) {
+        if (accountNumber < 0 || accountNumber > MAX_ACCOUNT_NUMBER) {
+            return NOT_FOUND;
+        }
+        
+        long key = accountNumber + 1;
+        long stamp = lock.tryOptimisticRead();
+        long value = read(slots, key, field);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = read(slots, key, field);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        
+        return value;
+    }
+    
+    private boolean write(long accountNumber, long accountId, long userId,
+                          AccountStatus accountStatus, boolean overwrite) {
+        if (accountNumber < 0 || accountNumber > MAX_ACCOUNT_NUMBER) {
+            throw new IllegalArgumentException(
+                    "Not a 10 digit account number : " + accountNumber);
+        }
+        
+        long key = accountNumber + 1;
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(slots, key);
+            if (index >= 0 && !overwrite) {
+                return false;
+            }
+            if (index < 0) {
+                if (size + 1 > slots.keys.length * MAX_LOAD) {
+                    resize();
+                    index = indexOf(slots, key);
+                }
+                index = -index - 1;
+                slots.keys[index] = key;
+                size++;
+            }
+            slots.accountIds[index] = accountId;
+            slots.userIds[index] = userId;
+            slots.statuses[index] = (byte) accountStatus.ordinal();
+            
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    private void resize() {
+        Slots old = slots;
+        Slots resized = new Slots(old.keys.length * 2);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.keys[i] != 0) {
+                int index = -indexOf(resized, old.keys[i]) - 1;
+                resized.keys[index] = old.keys[i];
+                resized.accountIds[index] = old.accountIds[i];
+                resized.userIds[index] = old.userIds[i];
+                resized.statuses[index] = old.statuses[i];
+            }
+        }
+        slots = resized;
+    }
+    
+    private static long read(Slots slots, long key, int field) {
+        int index = indexOf(slots, key);
+        if (index < 0) {
+            return NOT_FOUND;
+        }
+        
+        switch (field) {
+            case ACCOUNT_ID:
+                return slots.accountIds[index];
+            case USER_ID:
+                return slots.userIds[index];
+            default:
+                return slots.statuses[index];
+        }
+    }
+    
+    /**
+     * @return key 가 있는 칸, 없으면 -(넣을 빈 칸) - 1
+     */
+    private static int indexOf(Slots slots, long key) {
+        int mask = slots.keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            long current = slots.keys[index];
+            if (current == key) {
+                return index;
+            }
+            if (current == 0) {
+                return -index - 1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    // 연속된 계좌 번호가 인접한 칸에 몰리지 않도록 섞는다.
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(1, expectedSize) / MAX_LOAD);
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        
+        return capacity;
+    }
+    
+    private static class Slots {
+        // 계좌 번호 + 1, 0 은 빈 칸
+        private final long[] keys;
+        private final long[] accountIds;
+        private final long[] userIds;
+        private final byte[] statuses;
+        
+        Slots(int capacity) {
+            keys = new long[capacity];
+            accountIds = new long[capacity];
+            userIds = new long[capacity];
+            statuses = new byte[capacity];
+        }
+    }
+}
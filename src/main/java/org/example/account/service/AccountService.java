@@ -5,16 +5,20 @@ import lombok.RequiredArgsConstructor;
 import org.example.account.domain.Account;
 import org.example.account.domain.AccountUser;
 import org.example.account.dto.AccountDto;
+import org.example.account.event.AccountChangedEvent;
 import org.example.account.exception.AccountException;
 import org.example.account.repository.AccountRepository;
 import org.example.account.repository.AccountUserRepository;
 import org.example.account.type.AccountStatus;
 import org.example.account.type.ErrorCode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.example.account.type.AccountStatus.IN_USE;
@@ -24,6 +28,11 @@ import static org.example.account.type.AccountStatus.IN_USE;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountBalanceViewService accountBalanceViewService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SingleFlight singleFlight;
+    private final AccountNumberIndex accountNumberIndex;
+    private final ObjectProvider<BalanceEngineService> balanceEngineService;
     
     /**
      * 사용자가 있는지 조회
@@ -41,7 +50,7 @@ public class AccountService {
                         account.getAccountNumber())) + 1 + "")
                 .orElse("1000000000");
         
-        return AccountDto.fromEntity(accountRepository.save(
+        Account account = accountRepository.save(
                 Account.builder()
                         .accountUser(accountUser)
                         .accountStatus(IN_USE)
@@ -49,22 +58,35 @@ public class AccountService {
                         .balance(initialBalance)
                         .registeredAt(LocalDateTime.now())
                         .build()
-        ));
+        );
+        applicationEventPublisher.publishEvent(
+                new AccountChangedEvent(account));
+        
+        return AccountDto.fromEntity(account);
     }
     
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
         AccountUser accountUser = getAccountUser(userId);
         
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        accountNumberIndex.checkOwnerAndStatus(accountNumber, userId);
+        Account account = accountNumberIndex.findAccount(
+                        accountNumber, accountRepository)
                 .orElseThrow(
                         () -> new AccountException(
                                 ErrorCode.ACCOUNT_NOT_FOUND));
         
-        validateDeleteAccount(accountUser, account);
+        BalanceEngineService engine = balanceEngineService.getIfAvailable();
+        validateDeleteAccount(accountUser, account, engine == null);
+        if (engine != null) {
+            // 잔액 엔진 모드에서는 DB 잔액이 늦을 수 있으므로 엔진의 잔액으로 확인한다.
+            engine.unregisterAccount(userId, accountNumber);
+        }
         
         account.setAccountStatus(AccountStatus.UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
+        applicationEventPublisher.publishEvent(
+                new AccountChangedEvent(account));
         
         return AccountDto.fromEntity(account);
     }
@@ -81,11 +103,28 @@ public class AccountService {
         return accountRepository.findById(id).get();
     }
     
-    @Transactional
+    /**
+     * 읽기 모델(Redis)이 사용자의 전체 계좌로 채워져 있으면 JPA 를 거치지 않고 바로 반환하고,
+     * 아니면 DB 에서 읽은 뒤 읽기 모델을 채운다.
+     * 같은 사용자에 대한 동시 조회는 하나로 합쳐 한 번만 조회한다.
+     * 합쳐진 요청이 기다리는 동안 커넥션을 잡지 않도록 트랜잭션은 열지 않는다.
+     */
     public List<AccountDto> getAccountsByUserId(Long userId) {
+        return singleFlight.execute(
+                "accountsByUser", userId, () -> loadAccountsByUserId(userId));
+    }
+    
+    private List<AccountDto> loadAccountsByUserId(Long userId) {
+        Optional<List<AccountDto>> view =
+                accountBalanceViewService.findAccountsByUserId(userId);
+        if (view.isPresent()) {
+            return view.get();
+        }
+        
         AccountUser user = getAccountUser(userId);
         
         List<Account> accounts = accountRepository.findByAccountUser(user);
+        accountBalanceViewService.backfill(userId, accounts);
         
         return accounts.stream()
                 .map(AccountDto::fromEntity)
@@ -99,7 +138,7 @@ public class AccountService {
     }
     
     private void validateDeleteAccount(
-            AccountUser accountUser, Account account) {
+            AccountUser accountUser, Account account, boolean checkBalance) {
         if (!Objects.equals(
                 accountUser.getId(),
                 account.getAccountUser().getId()
@@ -111,7 +150,7 @@ public class AccountService {
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
         
-        if (account.getBalance() > 0) {
+        if (checkBalance && account.getBalance() > 0) {
             throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
         }
     }
@@ -0,0 +1,124 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @AccountLock 구간 앞단의 적응형 동시 처리 제한 (gradient 방식)
+ * 장기 평균 처리 시간 대비 최근 처리 시간이 늘어나면 limit 을 줄이고,
+ * 그대로면 sqrt(limit) 만큼 여유를 두고 늘린다.
+ * limit 을 넘는 요청은 대기시키지 않고 바로 거절한다.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+    
+    private final Counter rejectedCounter;
+    
+    public AdaptiveConcurrencyLimiter(
+            @Value("${account.concurrency-limit.initial-limit:20}")
+            int initialLimit,
+            @Value("${account.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${account.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${account.concurrency-limit.smoothing:0.2}")
+            double smoothing,
+            @Value("${account.concurrency-limit.rtt-tolerance:1.5}")
+            double rttTolerance,
+            @Value("${account.concurrency-limit.long-window:600}")
+            int longWindow,
+            MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindow = longWindow;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+        
+        this.rejectedCounter = meterRegistry.counter(
+                "account.concurrency.rejected");
+        meterRegistry.gauge("account.concurrency.limit", this,
+                            AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("account.concurrency.in.flight", inFlight);
+    }
+    
+    /**
+     * @return 처리해도 되는지 여부, true 면 끝난 뒤 release 를 호출해야 한다.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedCounter.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    public void release(long rttNanos) {
+        int inFlightAtSample = inFlight.getAndDecrement();
+        onSample(Math.max(1L, rttNanos), inFlightAtSample);
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    private synchronized void onSample(long rttNanos, int inFlightAtSample) {
+        samples++;
+        if (samples == 1) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) /
+                            Math.min(samples, longWindow);
+        }
+        // 과부하가 길어져 부풀어 오른 장기 평균은 회복 시 빠르게 내린다.
+        if (longRttNanos > rttNanos * 2) {
+            longRttNanos *= 0.95;
+        }
+        
+        // limit 의 절반도 쓰지 않는 동안의 처리 시간은 limit 과 무관하므로 조정하지 않는다.
+        if (inFlightAtSample < estimatedLimit / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(
+                1.0, rttTolerance * longRttNanos / rttNanos));
+        double newLimit = estimatedLimit * gradient +
+                          Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        
+        int next = (int) estimatedLimit;
+        if (next != limit) {
+            log.debug("Concurrency limit {} -> {} (rtt {} us, long rtt {} us)",
+                      limit, next, rttNanos / 1000,
+                      Math.round(longRttNanos / 1000));
+            limit = next;
+        }
+    }
+}
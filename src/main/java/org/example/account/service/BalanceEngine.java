@@ -0,0 +1,534 @@
+package org.example.account.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.dto.AccountSnapshot;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.TransactionPartitionRouter;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.TransactionType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 단일 writer 잔액 엔진 (disruptor 방식)
+ * 요청 thread 들은 미리 할당된 ring buffer 의 slot 을 순번으로 할당받아 명령을 채우고 publish 하며,
+ * consumer thread 하나만 primitive 잔액 테이블을 읽고 바꾼다. 따라서 계좌 lock 이 필요 없다.
+ * consumer 는 publish 된 명령을 배치로 적용하고 WAL 에 append 한 뒤 배치당 한 번 fsync 하고 나서야 응답한다.
+ * fsync 된 변경은 durable queue 로 넘어가고, checkpoint 가 DB 에 반영한 순번까지 WAL 을 정리한다.
+ */
+@Slf4j
+public class BalanceEngine {
+    private static final long IDLE_PARK_NANOS = 50_000L;
+    
+    private final BalanceEngineWal wal;
+    private final int batchSize;
+    
+    // ring buffer
+    private final Command[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLongArray published;
+    private volatile long consumed = -1;
+    
+    // 잔액 테이블 (index 는 consumer 만 할당하고, 배열은 consumer 만 읽고 쓴다)
+    private final Map<String, Integer> indexByAccountNumber =
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> indexByAccountId = new HashMap<>();
+    private long[] accountIds = new long[1024];
+    private long[] userIds = new long[1024];
+    private long[] balances = new long[1024];
+    private long[] heldAmounts = new long[1024];
+    private boolean[] inUse = new boolean[1024];
+    private int size;
+    
+    // checkpoint 전까지 취소 검증에 쓰는 최근 거래 (DB 에 아직 없을 수 있다)
+    private final Map<String, BalanceEngineEntry> recentUses =
+            new ConcurrentHashMap<>();
+    private final Map<String, Long> canceledIds = new HashMap<>();
+    
+    private final Queue<BalanceEngineEntry> durable =
+            new ConcurrentLinkedQueue<>();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong entries = new AtomicLong();
+    private volatile long checkpointRequest;
+    private long lastCheckpoint;
+    private long previousCheckpoint;
+    private long sequence;
+    
+    private volatile boolean running;
+    private volatile boolean failed;
+    private Thread consumer;
+    
+    public BalanceEngine(BalanceEngineWal wal, int ringSize, int batchSize) {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException(
+                    "ring size must be a power of two : " + ringSize);
+        }
+        this.wal = wal;
+        this.batchSize = batchSize;
+        this.slots = new Command[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            slots[i] = new Command();
+        }
+        this.mask = ringSize - 1;
+        this.published = new AtomicLongArray(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            published.set(i, -1);
+        }
+    }
+    
+    /**
+     * DB 의 계좌 상태(= checkpoint 시점)를 적재하고 checkpoint 이후 WAL 을 다시 적용한 뒤 consumer 를 시작한다.
+     * 다시 적용한 변경은 아직 DB 에 없으므로 durable queue 에 넣어 다음 checkpoint 가 반영하게 한다.
+     * WAL 의 잔액(balanceAfter)으로 덮어쓰지 않고 증감만 더해, DB 에 있는 값을 잃지 않는다.
+     *
+     * @return 다시 적용한 WAL 레코드 수
+     */
+    public synchronized int start(List<AccountSnapshot> accounts,
+                                  long checkpointSequence) throws IOException {
+        accounts.forEach(this::addAccount);
+        
+        List<BalanceEngineEntry> replay = wal.recover(checkpointSequence);
+        for (BalanceEngineEntry entry : replay) {
+            Integer index = indexByAccountId.get(entry.getAccountId());
+            if (index == null) {
+                log.warn("Skip WAL record {} of unknown account {}",
+                         entry.getSequence(), entry.getAccountId());
+                continue;
+            }
+            balances[index] += entry.balanceDelta();
+            remember(entry);
+            durable.add(entry);
+        }
+        sequence = wal.getLastSequence();
+        lastCheckpoint = checkpointSequence;
+        previousCheckpoint = checkpointSequence;
+        
+        running = true;
+        consumer = new Thread(this::consume, "balance-engine");
+        consumer.setDaemon(true);
+        consumer.start();
+        
+        return replay.size();
+    }
+    
+    /**
+     * 새 명령은 받지 않고, 이미 publish 된 명령을 모두 처리한 뒤 WAL 을 닫는다.
+     */
+    public synchronized void stop() throws InterruptedException, IOException {
+        running = false;
+        if (consumer != null) {
+            consumer.join();
+        }
+        wal.close();
+    }
+    
+    public boolean isRegistered(String accountNumber) {
+        return indexByAccountNumber.containsKey(accountNumber);
+    }
+    
+    /**
+     * 엔진 시작 후 생성된 계좌는 첫 요청 때 consumer 를 통해 테이블에 추가한다.
+     */
+    public CompletableFuture<BalanceEngineEntry> registerAccount(
+            AccountSnapshot account) {
+        return publish(command -> {
+            command.type = CommandType.REGISTER;
+            command.account = account;
+        });
+    }
+    
+    /**
+     * 소유주/상태/잔액(엔진 기준)을 확인하고 해지 상태로 바꾼다. 이후의 사용은 거절된다.
+     * 해지 상태는 WAL 에 남기지 않으며, DB 에 해지가 커밋되지 않으면 reopenAccount 로 되돌린다.
+     */
+    public CompletableFuture<BalanceEngineEntry> unregisterAccount(
+            String accountNumber, long userId) {
+        return publish(command -> {
+            command.type = CommandType.UNREGISTER;
+            command.accountNumber = accountNumber;
+            command.userId = userId;
+        });
+    }
+    
+    public CompletableFuture<BalanceEngineEntry> reopenAccount(
+            String accountNumber) {
+        return publish(command -> {
+            command.type = CommandType.REOPEN;
+            command.accountNumber = accountNumber;
+        });
+    }
+    
+    public CompletableFuture<BalanceEngineEntry> use(
+            String accountNumber, long userId, long amount) {
+        return publish(command -> {
+            command.type = CommandType.USE;
+            command.accountNumber = accountNumber;
+            command.userId = userId;
+            command.amount = amount;
+        });
+    }
+    
+    /**
+     * 최근(아직 DB 에 반영되지 않았을 수 있는) 거래는 엔진이 직접 검증하고,
+     * 그 밖의 거래는 호출한 쪽이 DB 에서 읽은 원거래 정보로 검증한다.
+     *
+     * @param original DB 에서 찾은 원거래, 엔진의 최근 거래라면 null
+     */
+    public CompletableFuture<BalanceEngineEntry> cancel(
+            String accountNumber, String transactionId, long amount,
+            OriginalTransaction original) {
+        return publish(command -> {
+            command.type = CommandType.CANCEL;
+            command.accountNumber = accountNumber;
+            command.originalTransactionId = transactionId;
+            command.amount = amount;
+            command.original = original;
+        });
+    }
+    
+    public boolean isRecentTransaction(String transactionId) {
+        return recentUses.containsKey(transactionId);
+    }
+    
+    /**
+     * fsync 된 변경 중 아직 가져가지 않은 것을 순번 순으로 옮겨 담는다.
+     */
+    public void drainDurable(List<BalanceEngineEntry> target) {
+        BalanceEngineEntry entry;
+        while ((entry = durable.poll()) != null) {
+            target.add(entry);
+        }
+    }
+    
+    /**
+     * checkpointSequence 까지 DB 에 반영되었음을 알린다.
+     * WAL 정리와 최근 거래 정리는 consumer thread 가 수행한다.
+     */
+    public void checkpointed(long checkpointSequence) {
+        checkpointRequest = checkpointSequence;
+    }
+    
+    public long getBacklog() {
+        return claimed.get() - consumed;
+    }
+    
+    public long getSyncs() {
+        return syncs.get();
+    }
+    
+    public long getEntries() {
+        return entries.get();
+    }
+    
+    private CompletableFuture<BalanceEngineEntry> publish(
+            Consumer<Command> writer) {
+        if (!running || failed) {
+            return CompletableFuture.failedFuture(
+                    new AccountException(ErrorCode.BALANCE_ENGINE_UNAVAILABLE));
+        }
+        
+        long next = claimed.incrementAndGet();
+        // ring 이 한 바퀴 돌아 아직 처리되지 않은 slot 을 덮어쓰지 않도록 기다린다.
+        while (next - consumed > slots.length) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        
+        Command command = slots[(int) next & mask];
+        CompletableFuture<BalanceEngineEntry> future = new CompletableFuture<>();
+        command.future = future;
+        writer.accept(command);
+        published.set((int) next & mask, next);
+        
+        return future;
+    }
+    
+    private void consume() {
+        List<Command> batch = new ArrayList<>(batchSize);
+        List<BalanceEngineEntry> applied = new ArrayList<>(batchSize);
+        long next = consumed + 1;
+        
+        while (running || next <= claimed.get()) {
+            while (batch.size() < batchSize &&
+                   published.get((int) next & mask) == next) {
+                batch.add(slots[(int) next & mask]);
+                next++;
+            }
+            if (batch.isEmpty()) {
+                applyCheckpoint();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            
+            try {
+                for (Command command : batch) {
+                    if (!failed) {
+                        apply(command, applied);
+                    }
+                }
+                if (!applied.isEmpty()) {
+                    wal.sync();
+                    syncs.incrementAndGet();
+                    entries.addAndGet(applied.size());
+                    durable.addAll(applied);
+                }
+            } catch (IOException e) {
+                // fsync 되지 않은 변경은 응답하지 않는다. 재시작 시 DB + WAL 로 복구한다.
+                log.error("Balance engine WAL write failed, stop accepting " +
+                          "commands", e);
+                failed = true;
+            }
+            
+            for (Command command : batch) {
+                if (failed) {
+                    command.future.completeExceptionally(new AccountException(
+                            ErrorCode.BALANCE_ENGINE_UNAVAILABLE));
+                } else if (command.error != null) {
+                    command.future.completeExceptionally(
+                            new AccountException(command.error));
+                } else {
+                    command.future.complete(command.result);
+                }
+                command.clear();
+            }
+            consumed = next - 1;
+            batch.clear();
+            applied.clear();
+            
+            applyCheckpoint();
+        }
+    }
+    
+    private void apply(Command command, List<BalanceEngineEntry> applied)
+            throws IOException {
+        if (command.type == CommandType.REGISTER) {
+            if (!indexByAccountNumber.containsKey(
+                    command.account.getAccountNumber())) {
+                addAccount(command.account);
+            }
+            return;
+        }
+        
+        Integer index = indexByAccountNumber.get(command.accountNumber);
+        if (index == null) {
+            command.error = ErrorCode.ACCOUNT_NOT_FOUND;
+            return;
+        }
+        if (command.type == CommandType.UNREGISTER) {
+            command.error = validateUnregister(command, index);
+            if (command.error == null) {
+                inUse[index] = false;
+            }
+            return;
+        }
+        if (command.type == CommandType.REOPEN) {
+            inUse[index] = true;
+            return;
+        }
+        
+        command.error = command.type == CommandType.USE ?
+                validateUse(command, index) : validateCancel(command, index);
+        if (command.error != null) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        BalanceEngineEntry entry;
+        if (command.type == CommandType.USE) {
+            balances[index] -= command.amount;
+            entry = entryOf(TransactionType.USE, index, command.amount, now,
+                            null);
+        } else {
+            balances[index] += command.amount;
+            entry = entryOf(TransactionType.CANCEL, index, command.amount, now,
+                            command.originalTransactionId);
+        }
+        
+        wal.append(entry);
+        remember(entry);
+        applied.add(entry);
+        command.result = entry;
+    }
+    
+    private ErrorCode validateUse(Command command, int index) {
+        if (userIds[index] != command.userId) {
+            return ErrorCode.USER_ACCOUNT_UN_MATCH;
+        }
+        if (!inUse[index]) {
+            return ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
+        }
+        if (balances[index] - heldAmounts[index] < command.amount) {
+            return ErrorCode.AMOUNT_EXCEED_BALANCE;
+        }
+        
+        return null;
+    }
+    
+    private ErrorCode validateUnregister(Command command, int index) {
+        if (userIds[index] != command.userId) {
+            return ErrorCode.USER_ACCOUNT_UN_MATCH;
+        }
+        if (!inUse[index]) {
+            return ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
+        }
+        if (balances[index] > 0) {
+            return ErrorCode.BALANCE_NOT_EMPTY;
+        }
+        
+        return null;
+    }
+    
+    private ErrorCode validateCancel(Command command, int index) {
+        String transactionId = command.originalTransactionId;
+        if (canceledIds.containsKey(transactionId)) {
+            return ErrorCode.TRANSACTION_ALREADY_CANCELED;
+        }
+        
+        BalanceEngineEntry recent = recentUses.get(transactionId);
+        if (recent != null) {
+            if (recent.getAccountId() != accountIds[index]) {
+                return ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH;
+            }
+            return recent.getAmount() == command.amount ? null :
+                    ErrorCode.CANCEL_MUST_FULLY;
+        }
+        
+        OriginalTransaction original = command.original;
+        if (original == null) {
+            return ErrorCode.TRANSACTION_NOT_FOUND;
+        }
+        if (original.isCanceled()) {
+            return ErrorCode.TRANSACTION_ALREADY_CANCELED;
+        }
+        if (original.getAccountId() != accountIds[index]) {
+            return ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH;
+        }
+        
+        return original.getAmount() == command.amount ? null :
+                ErrorCode.CANCEL_MUST_FULLY;
+    }
+    
+    private BalanceEngineEntry entryOf(
+            TransactionType transactionType, int index, long amount,
+            LocalDateTime now, String originalTransactionId) {
+        return new BalanceEngineEntry(
+                ++sequence, transactionType, accountIds[index], amount,
+                balances[index],
+                now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                TransactionPartitionRouter.newTransactionId(now),
+                originalTransactionId);
+    }
+    
+    private void remember(BalanceEngineEntry entry) {
+        if (entry.getTransactionType() == TransactionType.USE) {
+            recentUses.put(entry.getTransactionId(), entry);
+        } else {
+            canceledIds.put(entry.getOriginalTransactionId(),
+                            entry.getSequence());
+        }
+    }
+    
+    /**
+     * checkpoint 된 segment 를 정리하고, 직전 checkpoint 까지의 최근 거래를 잊는다.
+     * 한 세대 늦게 잊는 것은 DB 를 읽은 직후 publish 하는 요청이 반영 직전의 DB 를 보았을 수 있기 때문이다.
+     */
+    private void applyCheckpoint() {
+        long request = checkpointRequest;
+        if (request <= lastCheckpoint || failed) {
+            return;
+        }
+        
+        try {
+            wal.checkpoint(request);
+        } catch (IOException e) {
+            log.warn("Failed to truncate balance engine WAL at {}", request, e);
+            return;
+        }
+        
+        long forget = previousCheckpoint;
+        recentUses.values().removeIf(entry -> entry.getSequence() <= forget);
+        canceledIds.values().removeIf(canceled -> canceled <= forget);
+        previousCheckpoint = lastCheckpoint;
+        lastCheckpoint = request;
+    }
+    
+    private void addAccount(AccountSnapshot account) {
+        if (size == accountIds.length) {
+            int capacity = size * 2;
+            accountIds = Arrays.copyOf(accountIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+            heldAmounts = Arrays.copyOf(heldAmounts, capacity);
+            inUse = Arrays.copyOf(inUse, capacity);
+        }
+        
+        int index = size++;
+        accountIds[index] = account.getAccountId();
+        userIds[index] = account.getUserId();
+        balances[index] = account.getBalance();
+        heldAmounts[index] = account.getHeldAmount() == null ? 0L :
+                account.getHeldAmount();
+        inUse[index] = account.getAccountStatus() == AccountStatus.IN_USE;
+        indexByAccountId.put(account.getAccountId(), index);
+        indexByAccountNumber.put(account.getAccountNumber(), index);
+    }
+    
+    private enum CommandType {
+        REGISTER,
+        UNREGISTER,
+        REOPEN,
+        USE,
+        CANCEL
+    }
+    
+    /**
+     * ring buffer slot, 재사용되므로 consumer 가 응답 후 비운다.
+     */
+    private static class Command {
+        private CommandType type;
+        private AccountSnapshot account;
+        private String accountNumber;
+        private long userId;
+        private long amount;
+        private String originalTransactionId;
+        private OriginalTransaction original;
+        private CompletableFuture<BalanceEngineEntry> future;
+        private ErrorCode error;
+        private BalanceEngineEntry result;
+        
+        private void clear() {
+            type = null;
+            account = null;
+            accountNumber = null;
+            originalTransactionId = null;
+            original = null;
+            future = null;
+            error = null;
+            result = null;
+        }
+    }
+    
+    /**
+     * DB 에서 읽은 원거래 중 취소 검증에 필요한 값
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class OriginalTransaction {
+        private final long accountId;
+        private final long amount;
+        private final boolean canceled;
+    }
+}
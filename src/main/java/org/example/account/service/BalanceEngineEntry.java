@@ -0,0 +1,110 @@
+package org.example.account.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.account.type.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32;
+
+/**
+ * 잔액 엔진이 적용한 변경 한 건 (WAL 레코드이자 DB checkpoint 대상)
+ * 고정 길이로 인코딩되며, 마지막 4 byte 는 앞부분의 CRC32 이다.
+ */
+@Getter
+@AllArgsConstructor
+public class BalanceEngineEntry {
+    private static final int TRANSACTION_ID_BYTES = 36;
+    static final int RECORD_SIZE =
+            8 + 1 + 8 + 8 + 8 + 8 + TRANSACTION_ID_BYTES * 2 + 4;
+    
+    // WAL 순번, checkpoint 는 이 값까지 DB 에 반영되었음을 뜻한다.
+    private final long sequence;
+    private final TransactionType transactionType;
+    private final long accountId;
+    private final long amount;
+    private final long balanceAfter;
+    private final long transactedAtMillis;
+    private final String transactionId;
+    // 취소 거래의 원거래 아이디, 사용 거래는 null
+    private final String originalTransactionId;
+    
+    public long balanceDelta() {
+        return transactionType == TransactionType.USE ? -amount : amount;
+    }
+    
+    public LocalDateTime getTransactedAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(transactedAtMillis),
+                                       ZoneId.systemDefault());
+    }
+    
+    void encode(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(sequence);
+        buffer.put((byte) transactionType.ordinal());
+        buffer.putLong(accountId);
+        buffer.putLong(amount);
+        buffer.putLong(balanceAfter);
+        buffer.putLong(transactedAtMillis);
+        putTransactionId(buffer, transactionId);
+        putTransactionId(buffer, originalTransactionId);
+        
+        CRC32 crc = new CRC32();
+        ByteBuffer written = buffer.duplicate();
+        written.position(start).limit(buffer.position());
+        crc.update(written);
+        buffer.putInt((int) crc.getValue());
+    }
+    
+    /**
+     * @return CRC 가 맞지 않으면(쓰다 만 레코드) null
+     */
+    static BalanceEngineEntry decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.position(start).limit(start + RECORD_SIZE - 4);
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(start + RECORD_SIZE - 4)) {
+            return null;
+        }
+        
+        BalanceEngineEntry entry = new BalanceEngineEntry(
+                buffer.getLong(),
+                TransactionType.values()[buffer.get()],
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong(),
+                getTransactionId(buffer),
+                getTransactionId(buffer));
+        buffer.getInt();
+        
+        return entry;
+    }
+    
+    private static void putTransactionId(ByteBuffer buffer, String value) {
+        byte[] bytes = value == null ? new byte[0] :
+                value.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(bytes, 0, Math.min(bytes.length, TRANSACTION_ID_BYTES));
+        for (int i = bytes.length; i < TRANSACTION_ID_BYTES; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+    
+    private static String getTransactionId(ByteBuffer buffer) {
+        byte[] bytes = new byte[TRANSACTION_ID_BYTES];
+        buffer.get(bytes);
+        int length = 0;
+        while (length < bytes.length && bytes[length] != 0) {
+            length++;
+        }
+        
+        return length == 0 ? null :
+                new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,355 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.domain.Account;
+import org.example.account.domain.BalanceEngineCheckpoint;
+import org.example.account.domain.Transaction;
+import org.example.account.domain.TransactionOutbox;
+import org.example.account.dto.AccountSnapshot;
+import org.example.account.dto.TransactionDto;
+import org.example.account.event.AccountChangedEvent;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.BalanceEngineCheckpointRepository;
+import org.example.account.repository.TransactionArchiveRepository;
+import org.example.account.repository.TransactionOutboxRepository;
+import org.example.account.repository.TransactionPartitionRouter;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 잔액 엔진 모드 (account.engine.enabled=true)
+ * 잔액 사용/취소를 Redis lock, 계좌 row lock 없이 BalanceEngine 의 ring buffer 로 처리하고,
+ * WAL fsync 후 응답한다. 계좌 잔액/거래/outbox 는 checkpoint 주기마다 한 트랜잭션으로 DB 에 반영한다.
+ * 이 모드에서는 엔진이 잔액의 기준이며, DB 잔액은 checkpoint 주기만큼 늦을 수 있다.
+ * 엔진만 잔액을 바꾸도록 계좌 해지와 반응형 API 도 엔진을 거치고, 홀드(2단계 결제)는 거절한다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.engine.enabled", havingValue = "true")
+public class BalanceEngineService {
+    static final String CHECKPOINT_ID = "balance-engine";
+    
+    private final AccountRepository accountRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final BalanceEngineCheckpointRepository checkpointRepository;
+    private final SpendingLimiter spendingLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final KnownIdFilter knownIdFilter;
+    private final BalanceEngine balanceEngine;
+    private final long timeoutMillis;
+    
+    // DB 반영에 실패한 변경은 다음 checkpoint 에서 다시 시도한다.
+    private final List<BalanceEngineEntry> unpersisted = new ArrayList<>();
+    
+    public BalanceEngineService(
+            AccountRepository accountRepository,
+            AccountUserRepository accountUserRepository,
+            TransactionRepository transactionRepository,
+            TransactionArchiveRepository transactionArchiveRepository,
+            TransactionOutboxRepository transactionOutboxRepository,
+            BalanceEngineCheckpointRepository checkpointRepository,
+            SpendingLimiter spendingLimiter,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher applicationEventPublisher,
+            KnownIdFilter knownIdFilter,
+            MeterRegistry meterRegistry,
+            @Value("${account.engine.wal-dir:build/engine}") String walDir,
+            @Value("${account.engine.ring-size:4096}") int ringSize,
+            @Value("${account.engine.batch-size:256}") int batchSize,
+            @Value("${account.engine.timeout-ms:1000}") long timeoutMillis)
+            throws IOException {
+        this.accountRepository = accountRepository;
+        this.accountUserRepository = accountUserRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.transactionOutboxRepository = transactionOutboxRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.spendingLimiter = spendingLimiter;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.knownIdFilter = knownIdFilter;
+        this.balanceEngine = new BalanceEngine(
+                new BalanceEngineWal(Paths.get(walDir), batchSize),
+                ringSize, batchSize);
+        this.timeoutMillis = timeoutMillis;
+        
+        meterRegistry.gauge("account.engine.backlog", balanceEngine,
+                            BalanceEngine::getBacklog);
+        FunctionCounter.builder("account.engine.wal.syncs", balanceEngine,
+                                BalanceEngine::getSyncs)
+                .register(meterRegistry);
+        FunctionCounter.builder("account.engine.entries", balanceEngine,
+                                BalanceEngine::getEntries)
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        long checkpointSequence = checkpointRepository.findById(CHECKPOINT_ID)
+                .map(BalanceEngineCheckpoint::getLastSequence)
+                .orElse(0L);
+        List<AccountSnapshot> accounts = accountRepository.findAllSnapshots();
+        int replayed = balanceEngine.start(accounts, checkpointSequence);
+        
+        log.info("Balance engine started with {} accounts, replayed {} WAL " +
+                 "records after checkpoint {}", accounts.size(), replayed,
+                 checkpointSequence);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        try {
+            balanceEngine.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpoint();
+    }
+    
+    /**
+     * 소유주/상태/잔액 검증은 엔진이 메모리에서 수행한다.
+     * 소유주가 다를 때만 사용자 존재 여부를 DB 에서 확인한다.
+     */
+    public TransactionDto useBalance(
+            Long userId, String accountNumber, Long amount) {
+        ensureRegistered(accountNumber);
+        
+        long spentAt = spendingLimiter.acquire(accountNumber, amount);
+        try {
+            return toDto(await(balanceEngine.use(
+                    accountNumber, userId, amount)), accountNumber);
+        } catch (AccountException e) {
+            // 응답을 받지 못한 경우는 적용되었을 수 있으므로 한도를 되돌리지 않는다.
+            if (e.getErrorCode() != ErrorCode.BALANCE_ENGINE_UNAVAILABLE) {
+                spendingLimiter.release(accountNumber, amount, spentAt);
+            }
+            if (e.getErrorCode() == ErrorCode.USER_ACCOUNT_UN_MATCH &&
+                !accountUserRepository.existsById(userId)) {
+                throw new AccountException(ErrorCode.USER_NOT_FOUND);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * 엔진이 최근 처리한 거래는 DB 를 읽지 않고, 그 밖의 거래만 원거래를 조회해 함께 넘긴다.
+     * 엔진에도 Bloom filter 에도 없는 거래는 조회 없이 거절한다.
+     * (엔진 거래는 최근 거래에서 지워지기 전에 filter 에 들어간다.)
+     */
+    public TransactionDto cancelBalance(
+            String transactionId, String accountNumber, Long amount) {
+        ensureRegistered(accountNumber);
+        
+        BalanceEngine.OriginalTransaction original = null;
+        if (!balanceEngine.isRecentTransaction(transactionId)) {
+            knownIdFilter.checkTransactionId(transactionId);
+            Transaction transaction = transactionRepository
+                    .findRoutedWithAccountByTransactionId(transactionId)
+                    .orElse(null);
+            // 조회 사이에 엔진에 들어온 거래일 수 있으므로 한 번 더 확인한다.
+            if (transaction == null &&
+                !balanceEngine.isRecentTransaction(transactionId)) {
+                throw new AccountException(
+                        transactionArchiveRepository
+                                .existsByTransactionId(transactionId) ?
+                                ErrorCode.TOO_OLD_ORDER_TO_CANCEL :
+                                ErrorCode.TRANSACTION_NOT_FOUND);
+            }
+            if (transaction != null) {
+                if (transaction.getTransactedAt()
+                        .isBefore(LocalDateTime.now().minusYears(1))) {
+                    throw new AccountException(
+                            ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+                }
+                original = new BalanceEngine.OriginalTransaction(
+                        transaction.getAccount().getId(),
+                        transaction.getAmount(), transaction.isCanceled());
+            }
+        }
+        
+        return toDto(await(balanceEngine.cancel(
+                accountNumber, transactionId, amount, original)),
+                     accountNumber);
+    }
+    
+    /**
+     * 계좌 해지 전에 엔진의 잔액으로 확인하고 이후의 사용을 막는다. (DB 잔액은 checkpoint 만큼 늦을 수 있다.)
+     * 호출한 쪽의 트랜잭션이 커밋되지 않으면 해지 상태를 되돌린다.
+     */
+    public void unregisterAccount(Long userId, String accountNumber) {
+        ensureRegistered(accountNumber);
+        await(balanceEngine.unregisterAccount(accountNumber, userId));
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                balanceEngine.reopenAccount(accountNumber);
+                            }
+                        }
+                    });
+        }
+    }
+    
+    /**
+     * fsync 된 변경을 한 트랜잭션으로 DB 에 반영하고, 반영한 순번을 같은 트랜잭션에 기록한다.
+     * 커밋된 뒤에 엔진이 그 순번까지 WAL 을 정리한다.
+     */
+    @Scheduled(fixedDelayString = "${account.engine.checkpoint-interval-ms:200}")
+    public synchronized void checkpoint() {
+        balanceEngine.drainDurable(unpersisted);
+        if (unpersisted.isEmpty()) {
+            return;
+        }
+        
+        long lastSequence = unpersisted.get(unpersisted.size() - 1)
+                .getSequence();
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> persist(unpersisted, lastSequence));
+        } catch (Exception e) {
+            log.error("Balance engine checkpoint failed at {}, {} entries " +
+                      "will be retried", lastSequence, unpersisted.size(), e);
+            return;
+        }
+        
+        // 엔진이 최근 거래에서 지우기 전에 filter 에 넣는다.
+        unpersisted.forEach(entry -> knownIdFilter.putTransactionId(
+                entry.getTransactionId()));
+        unpersisted.clear();
+        balanceEngine.checkpointed(lastSequence);
+    }
+    
+    private void persist(List<BalanceEngineEntry> entries, long lastSequence) {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        entries.forEach(entry -> deltas.merge(
+                entry.getAccountId(), entry.balanceDelta(), Long::sum));
+        deltas.forEach(accountRepository::applyBalanceDelta);
+        
+        Map<Long, Account> accounts = accountRepository
+                .findAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(Account::getId,
+                                          Function.identity()));
+        
+        Map<String, Transaction> transactions = new LinkedHashMap<>();
+        for (BalanceEngineEntry entry : entries) {
+            LocalDateTime transactedAt = entry.getTransactedAt();
+            transactions.put(entry.getTransactionId(), Transaction.builder()
+                    .transactionType(entry.getTransactionType())
+                    .transactionResultType(TransactionResultType.S)
+                    .account(accounts.get(entry.getAccountId()))
+                    .amount(entry.getAmount())
+                    .balanceSnapshot(entry.getBalanceAfter())
+                    .transactionId(entry.getTransactionId())
+                    .transactedAt(transactedAt)
+                    .partitionKey(TransactionPartitionRouter.partitionKeyOf(
+                            transactedAt))
+                    .build());
+        }
+        transactionRepository.saveAll(transactions.values());
+        transactionOutboxRepository.saveAll(transactions.values().stream()
+                                                    .map(TransactionOutbox::from)
+                                                    .collect(Collectors.toList()));
+        
+        for (BalanceEngineEntry entry : entries) {
+            if (entry.getTransactionType() != TransactionType.CANCEL) {
+                continue;
+            }
+            Transaction original = transactions.get(
+                    entry.getOriginalTransactionId());
+            if (original == null) {
+                original = transactionRepository.findRoutedByTransactionId(
+                        entry.getOriginalTransactionId()).orElse(null);
+            }
+            if (original != null) {
+                original.cancel(entry.getAmount(), entry.getTransactionId());
+            }
+        }
+        
+        checkpointRepository.save(BalanceEngineCheckpoint.builder()
+                                          .id(CHECKPOINT_ID)
+                                          .lastSequence(lastSequence)
+                                          .checkpointedAt(LocalDateTime.now())
+                                          .build());
+        accounts.values().forEach(account -> applicationEventPublisher
+                .publishEvent(new AccountChangedEvent(account)));
+    }
+    
+    /**
+     * 엔진 시작 후 생성된 계좌는 DB 에서 읽어 엔진 테이블에 추가한다.
+     */
+    private void ensureRegistered(String accountNumber) {
+        if (!balanceEngine.isRegistered(accountNumber)) {
+            knownIdFilter.checkAccountNumber(accountNumber);
+            AccountSnapshot account = accountRepository
+                    .findSnapshotByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountException(
+                            ErrorCode.ACCOUNT_NOT_FOUND));
+            await(balanceEngine.registerAccount(account));
+        }
+    }
+    
+    private BalanceEngineEntry await(
+            CompletableFuture<BalanceEngineEntry> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AccountException) {
+                throw (AccountException) e.getCause();
+            }
+            throw new AccountException(ErrorCode.BALANCE_ENGINE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.BALANCE_ENGINE_UNAVAILABLE);
+        } catch (TimeoutException e) {
+            // 이미 적용되었을 수 있으므로 결과는 거래 조회로 확인해야 한다.
+            throw new AccountException(ErrorCode.BALANCE_ENGINE_UNAVAILABLE);
+        }
+    }
+    
+    private static TransactionDto toDto(
+            BalanceEngineEntry entry, String accountNumber) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(entry.getTransactionType())
+                .transactionResultType(TransactionResultType.S)
+                .amount(entry.getAmount())
+                .balanceSnapshot(entry.getBalanceAfter())
+                .transactionId(entry.getTransactionId())
+                .transactedAt(entry.getTransactedAt())
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.account.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 잔액 엔진의 write-ahead log
+ * 레코드를 순서대로 append 하고, 배치마다 한 번만 force(fsync) 한다.
+ * checkpoint 이후에는 새 segment 로 넘어가고, checkpoint 이전 레코드만 담은 segment 는 삭제한다.
+ * 엔진의 consumer thread 한 곳에서만 사용한다.
+ */
+public class BalanceEngineWal implements Closeable {
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    
+    private final Path directory;
+    private final ByteBuffer buffer;
+    // 닫힌 segment 와 그 안의 마지막 순번
+    private final Map<Path, Long> closedSegments = new LinkedHashMap<>();
+    
+    private Path segment;
+    private FileChannel channel;
+    private long lastSequence;
+    
+    public BalanceEngineWal(Path directory, int batchSize) throws IOException {
+        this.directory = directory;
+        this.buffer = ByteBuffer.allocateDirect(
+                BalanceEngineEntry.RECORD_SIZE * Math.max(1, batchSize));
+        Files.createDirectories(directory);
+    }
+    
+    /**
+     * 기존 segment 를 순서대로 읽어 afterSequence 이후 레코드를 돌려주고 새 segment 를 연다.
+     * 각 segment 의 끝에 쓰다 만 레코드가 있으면 거기서 멈춘다. (fsync 전이라 응답되지 않은 레코드)
+     */
+    public List<BalanceEngineEntry> recover(long afterSequence)
+            throws IOException {
+        List<BalanceEngineEntry> entries = new ArrayList<>();
+        lastSequence = afterSequence;
+        
+        for (Path path : segments()) {
+            long segmentLast = afterSequence;
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+            while (content.remaining() >= BalanceEngineEntry.RECORD_SIZE) {
+                BalanceEngineEntry entry = BalanceEngineEntry.decode(content);
+                if (entry == null) {
+                    break;
+                }
+                segmentLast = Math.max(segmentLast, entry.getSequence());
+                if (entry.getSequence() > afterSequence) {
+                    entries.add(entry);
+                }
+            }
+            closedSegments.put(path, segmentLast);
+            lastSequence = Math.max(lastSequence, segmentLast);
+        }
+        
+        openSegment(lastSequence + 1);
+        return entries;
+    }
+    
+    public long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public void append(BalanceEngineEntry entry) throws IOException {
+        if (buffer.remaining() < BalanceEngineEntry.RECORD_SIZE) {
+            write();
+        }
+        entry.encode(buffer);
+        lastSequence = entry.getSequence();
+    }
+    
+    /**
+     * 버퍼를 쓰고 fsync 한다. 반환된 뒤에야 배치의 요청에 응답한다.
+     */
+    public void sync() throws IOException {
+        write();
+        channel.force(false);
+    }
+    
+    /**
+     * checkpointSequence 까지 DB 에 반영되었으므로 새 segment 로 넘어가고,
+     * 그 이전 레코드만 담은 segment 를 삭제한다.
+     */
+    public void checkpoint(long checkpointSequence) throws IOException {
+        sync();
+        if (channel.size() > 0) {
+            channel.close();
+            closedSegments.put(segment, lastSequence);
+            openSegment(lastSequence + 1);
+        }
+        
+        Iterator<Map.Entry<Path, Long>> iterator =
+                closedSegments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> closed = iterator.next();
+            if (closed.getValue() <= checkpointSequence) {
+                Files.deleteIfExists(closed.getKey());
+                iterator.remove();
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+    
+    private void openSegment(long firstSequence) throws IOException {
+        segment = directory.resolve(
+                String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        // 같은 이름의 segment 는 온전한 레코드가 없던 것이므로 비우고 다시 쓴다.
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE,
+                                   StandardOpenOption.WRITE);
+        channel.truncate(0);
+        closedSegments.remove(segment);
+    }
+    
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    private List<Path> segments() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(
+                directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(paths::add);
+        }
+        // 파일 이름이 시작 순번(0 padding) 이므로 이름 순이 곧 순번 순이다.
+        paths.sort(Comparator.comparing(path -> path.getFileName().toString()));
+        
+        return paths;
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.account.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.example.account.aop.AccountLock;
+import org.example.account.aop.StageLatencyContext;
+import org.example.account.domain.Account;
+import org.example.account.domain.BalanceHold;
+import org.example.account.domain.Transaction;
+import org.example.account.dto.AccountDto;
+import org.example.account.dto.BalanceHoldDto;
+import org.example.account.event.AccountChangedEvent;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.BalanceHoldRepository;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.HoldStatus;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌 lock 안에서 실행되는 홀드 변경 (승인 - 확정 / 해제 / 만료)
+ * 승인은 사용 가능 금액 확인과 홀드 기록만 하므로 lock 을 짧게 잡고,
+ * 확정은 같은 계좌의 여러 홀드를 한 번의 lock 안에서 처리한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceHoldMutationService {
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final AccountRepository accountRepository;
+    private final BalanceMutationService balanceMutationService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SpendingLimiter spendingLimiter;
+    
+    @AccountLock(tryLockTime = 1000L, leaseTime = 1000L)
+    @Transactional
+    public BalanceHoldDto authorize(
+            AccountDto accountDto, Long amount, LocalDateTime expiresAt) {
+        StageLatencyContext.timeCommit();
+        balanceMutationService.checkFencingToken(accountDto.getAccountNumber());
+        
+        Account account = getAccount(accountDto.getAccountNumber());
+        if (!Objects.equals(account.getAccountUser().getId(),
+                            accountDto.getUserId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        
+        // 사용 한도는 승인 시점에 차감하고, 확정 시 다시 차감하지 않는다.
+        spendingLimiter.acquire(account.getAccountNumber(), amount);
+        account.hold(amount);
+        
+        return BalanceHoldDto.fromEntity(balanceHoldRepository.save(
+                BalanceHold.builder()
+                        .holdId(UUID.randomUUID().toString().replace("-", ""))
+                        .account(account)
+                        .amount(amount)
+                        .holdStatus(HoldStatus.PENDING)
+                        .expiresAt(expiresAt)
+                        .build()));
+    }
+    
+    /**
+     * 요청한 홀드를 모두 USE 거래로 확정한다. 하나라도 확정할 수 없으면 전체가 거절된다.
+     */
+    @AccountLock(tryLockTime = 1000L, leaseTime = 3000L, adaptiveLease = true)
+    @Transactional
+    public List<BalanceHoldDto> capture(
+            AccountDto accountDto, List<String> holdIds) {
+        StageLatencyContext.timeCommit();
+        balanceMutationService.checkFencingToken(accountDto.getAccountNumber());
+        
+        Account account = getAccount(accountDto.getAccountNumber());
+        List<BalanceHold> balanceHolds = pendingHoldsOf(
+                balanceHoldRepository.findWithAccountByHoldIdIn(holdIds),
+                account.getAccountNumber(), holdIds, LocalDateTime.now());
+        
+        List<BalanceHoldDto> result = new ArrayList<>();
+        for (BalanceHold balanceHold : balanceHolds) {
+            account.captureHold(balanceHold.getAmount());
+            Transaction transaction = balanceMutationService.saveTransaction(
+                    TransactionType.USE, TransactionResultType.S, account,
+                    balanceHold.getAmount());
+            balanceHold.settle(HoldStatus.CAPTURED,
+                               transaction.getTransactionId());
+            result.add(BalanceHoldDto.fromEntity(balanceHold));
+        }
+        applicationEventPublisher.publishEvent(
+                new AccountChangedEvent(account));
+        
+        return result;
+    }
+    
+    @AccountLock(tryLockTime = 1000L, leaseTime = 1000L)
+    @Transactional
+    public BalanceHoldDto voidHold(AccountDto accountDto, String holdId) {
+        StageLatencyContext.timeCommit();
+        balanceMutationService.checkFencingToken(accountDto.getAccountNumber());
+        
+        // 만료 시각이 지났어도 아직 sweeper 가 처리하지 않았다면 해제할 수 있다.
+        BalanceHold balanceHold = pendingHoldsOf(
+                balanceHoldRepository.findWithAccountByHoldIdIn(
+                        List.of(holdId)),
+                accountDto.getAccountNumber(), List.of(holdId), null).get(0);
+        balanceHold.getAccount().releaseHold(balanceHold.getAmount());
+        releaseSpending(balanceHold);
+        balanceHold.settle(HoldStatus.VOIDED, null);
+        
+        return BalanceHoldDto.fromEntity(balanceHold);
+    }
+    
+    /**
+     * sweeper 용, 이미 확정/해제되었거나 만료 전인 홀드는 건너뛴다.
+     * @return 만료 처리된 홀드 수
+     */
+    @AccountLock(tryLockTime = 1000L, leaseTime = 3000L)
+    @Transactional
+    public int expire(AccountDto accountDto, List<String> holdIds) {
+        balanceMutationService.checkFencingToken(accountDto.getAccountNumber());
+        
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (BalanceHold balanceHold :
+                balanceHoldRepository.findWithAccountByHoldIdIn(holdIds)) {
+            if (!balanceHold.isPending() || !balanceHold.isExpired(now) ||
+                !Objects.equals(balanceHold.getAccount().getAccountNumber(),
+                                accountDto.getAccountNumber())) {
+                continue;
+            }
+            balanceHold.getAccount().releaseHold(balanceHold.getAmount());
+            releaseSpending(balanceHold);
+            balanceHold.settle(HoldStatus.EXPIRED, null);
+            expired++;
+        }
+        
+        return expired;
+    }
+    
+    /**
+     * 조회한 홀드 중 요청 순서대로(중복 제외) 해당 계좌의 PENDING 홀드를 돌려준다.
+     * lock 밖의 사전 검증(BalanceHoldService)과 lock 안의 재검증이 같이 쓴다.
+     * @param now null 이면 만료 여부는 확인하지 않는다.
+     */
+    static List<BalanceHold> pendingHoldsOf(
+            List<BalanceHold> found, String accountNumber,
+            List<String> holdIds, LocalDateTime now) {
+        Map<String, BalanceHold> balanceHolds = found.stream()
+                .collect(Collectors.toMap(BalanceHold::getHoldId,
+                                          Function.identity()));
+        
+        List<BalanceHold> result = new ArrayList<>();
+        for (String holdId : new LinkedHashSet<>(holdIds)) {
+            BalanceHold balanceHold = balanceHolds.get(holdId);
+            if (balanceHold == null) {
+                throw new AccountException(ErrorCode.HOLD_NOT_FOUND);
+            }
+            if (!Objects.equals(balanceHold.getAccount().getAccountNumber(),
+                                accountNumber)) {
+                throw new AccountException(ErrorCode.HOLD_ACCOUNT_UN_MATCH);
+            }
+            if (!balanceHold.isPending()) {
+                throw new AccountException(ErrorCode.HOLD_ALREADY_SETTLED);
+            }
+            if (now != null && balanceHold.isExpired(now)) {
+                throw new AccountException(ErrorCode.HOLD_EXPIRED);
+            }
+            result.add(balanceHold);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * 확정되지 않은 홀드는 사용한 금액이 아니므로 승인 때 누적한 사용 한도를 되돌린다.
+     */
+    private void releaseSpending(BalanceHold balanceHold) {
+        if (balanceHold.getCreatedAt() != null) {
+            spendingLimiter.releaseOnCommit(
+                    balanceHold.getAccount().getAccountNumber(),
+                    balanceHold.getAmount(),
+                    balanceHold.getCreatedAt().atZone(ZoneId.systemDefault())
+                            .toInstant().toEpochMilli());
+        }
+    }
+    
+    private Account getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(
+                        ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+}
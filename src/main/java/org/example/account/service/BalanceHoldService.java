@@ -0,0 +1,211 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.domain.BalanceHold;
+import org.example.account.dto.AccountDto;
+import org.example.account.dto.BalanceHoldDto;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.BalanceHoldRepository;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.HoldStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 2단계 결제 (승인 후 확정)
+ * 1. 승인 : 사용 가능 금액만큼 홀드를 잡는다. (짧은 계좌 lock)
+ * 2. 확정 : 같은 계좌의 홀드 여러 건을 한 번의 lock 안에서 USE 거래로 확정
+ * 3. 해제 : 홀드를 풀어 사용 가능 금액으로 되돌린다.
+ * 4. 만료 : 유효 시간이 지난 홀드는 sweeper 가 해제한다.
+ * 검증은 lock 밖에서 먼저 수행하고, lock 안에서는 바뀌었을 수 있는 값만 다시 확인한다.
+ * 확정/해제도 승인과 같이 요청한 사용자가 계좌 소유자인지 먼저 확인한다.
+ * 잔액 엔진 모드(account.engine.enabled)에서는 엔진만 잔액을 바꾸므로 홀드를 거절하고 만료도 처리하지 않는다.
+ * (엔진 기동 전에 잡힌 홀드는 엔진이 읽은 홀드 금액에 남아 있다.)
+ */
+@Slf4j
+@Service
+public class BalanceHoldService {
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final BalanceHoldMutationService balanceHoldMutationService;
+    private final Duration holdTtl;
+    private final int sweepBatchSize;
+    private final boolean engineEnabled;
+    
+    private final Counter authorizedCounter;
+    private final Counter capturedCounter;
+    private final Counter voidedCounter;
+    private final Counter expiredCounter;
+    
+    public BalanceHoldService(
+            AccountUserRepository accountUserRepository,
+            AccountRepository accountRepository,
+            BalanceHoldRepository balanceHoldRepository,
+            BalanceHoldMutationService balanceHoldMutationService,
+            MeterRegistry meterRegistry,
+            @Value("${account.hold.ttl-seconds:600}") long holdTtlSeconds,
+            @Value("${account.hold.sweep-batch-size:500}") int sweepBatchSize,
+            @Value("${account.engine.enabled:false}") boolean engineEnabled) {
+        this.accountUserRepository = accountUserRepository;
+        this.accountRepository = accountRepository;
+        this.balanceHoldRepository = balanceHoldRepository;
+        this.balanceHoldMutationService = balanceHoldMutationService;
+        this.holdTtl = Duration.ofSeconds(holdTtlSeconds);
+        this.sweepBatchSize = sweepBatchSize;
+        this.engineEnabled = engineEnabled;
+        
+        this.authorizedCounter = meterRegistry.counter("account.hold.authorized");
+        this.capturedCounter = meterRegistry.counter("account.hold.captured");
+        this.voidedCounter = meterRegistry.counter("account.hold.voided");
+        this.expiredCounter = meterRegistry.counter("account.hold.expired");
+    }
+    
+    public BalanceHoldDto authorize(
+            Long userId, String accountNumber, Long amount) {
+        checkEngineDisabled();
+        Account account = getOwnedAccount(userId, accountNumber);
+        
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (account.getAvailableBalance() < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        
+        BalanceHoldDto balanceHoldDto = balanceHoldMutationService.authorize(
+                AccountDto.fromEntity(account), amount,
+                LocalDateTime.now().plus(holdTtl));
+        authorizedCounter.increment();
+        
+        return balanceHoldDto;
+    }
+    
+    public List<BalanceHoldDto> capture(
+            Long userId, String accountNumber, List<String> holdIds) {
+        checkEngineDisabled();
+        Account account = getOwnedAccount(userId, accountNumber);
+        BalanceHoldMutationService.pendingHoldsOf(
+                balanceHoldRepository.findWithAccountByHoldIdIn(holdIds),
+                accountNumber, holdIds, LocalDateTime.now());
+        
+        List<BalanceHoldDto> balanceHoldDtos = balanceHoldMutationService
+                .capture(AccountDto.fromEntity(account), holdIds);
+        capturedCounter.increment(balanceHoldDtos.size());
+        
+        return balanceHoldDtos;
+    }
+    
+    public BalanceHoldDto voidHold(
+            Long userId, String accountNumber, String holdId) {
+        checkEngineDisabled();
+        Account account = getOwnedAccount(userId, accountNumber);
+        BalanceHoldMutationService.pendingHoldsOf(
+                balanceHoldRepository.findWithAccountByHoldIdIn(
+                        List.of(holdId)),
+                accountNumber, List.of(holdId), null);
+        
+        BalanceHoldDto balanceHoldDto = balanceHoldMutationService.voidHold(
+                AccountDto.fromEntity(account), holdId);
+        voidedCounter.increment();
+        
+        return balanceHoldDto;
+    }
+    
+    /**
+     * 만료된 홀드를 계좌별로 묶어 계좌 lock 한 번에 해제한다.
+     * lock 을 얻지 못한 계좌는 다음 실행에서 다시 처리된다.
+     */
+    @Scheduled(fixedDelayString = "${account.hold.sweep-interval-ms:30000}")
+    public void releaseExpired() {
+        if (engineEnabled) {
+            return;
+        }
+        
+        long released = 0;
+        int read;
+        int expired;
+        do {
+            List<BalanceHold> balanceHolds = balanceHoldRepository.findExpired(
+                    HoldStatus.PENDING, LocalDateTime.now(),
+                    PageRequest.of(0, sweepBatchSize));
+            read = balanceHolds.size();
+            expired = releaseExpired(balanceHolds);
+            released += expired;
+        } while (read == sweepBatchSize && expired > 0);
+        
+        if (released > 0) {
+            log.info("Released {} expired balance holds", released);
+        }
+    }
+    
+    private int releaseExpired(List<BalanceHold> balanceHolds) {
+        Map<String, List<BalanceHold>> byAccount = balanceHolds.stream()
+                .collect(Collectors.groupingBy(
+                        balanceHold -> balanceHold.getAccount()
+                                .getAccountNumber(),
+                        LinkedHashMap::new, Collectors.toList()));
+        
+        int expired = 0;
+        for (List<BalanceHold> accountHolds : byAccount.values()) {
+            try {
+                expired += balanceHoldMutationService.expire(
+                        AccountDto.fromEntity(accountHolds.get(0).getAccount()),
+                        accountHolds.stream()
+                                .map(BalanceHold::getHoldId)
+                                .collect(Collectors.toList()));
+            } catch (AccountException e) {
+                log.warn("Failed to release expired holds of {} : {}",
+                         accountHolds.get(0).getAccount().getAccountNumber(),
+                         e.getErrorMessage());
+            }
+        }
+        expiredCounter.increment(expired);
+        
+        return expired;
+    }
+    
+    private void checkEngineDisabled() {
+        if (engineEnabled) {
+            throw new AccountException(
+                    ErrorCode.BALANCE_ENGINE_MODE_UNSUPPORTED);
+        }
+    }
+    
+    /**
+     * 승인/확정/해제 모두 lock 전에 요청한 사용자의 계좌인지 확인한다.
+     * (홀드가 그 계좌의 것인지는 pendingHoldsOf 가 확인한다.)
+     */
+    private Account getOwnedAccount(Long userId, String accountNumber) {
+        AccountUser accountUser = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(
+                        ErrorCode.USER_NOT_FOUND));
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(
+                        ErrorCode.ACCOUNT_NOT_FOUND));
+        
+        if (!Objects.equals(accountUser.getId(),
+                            account.getAccountUser().getId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        
+        return account;
+    }
+}
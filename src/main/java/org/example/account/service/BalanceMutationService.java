@@ -0,0 +1,185 @@
+package org.example.account.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.example.account.aop.AccountLock;
+import org.example.account.aop.AccountLockContext;
+import org.example.account.aop.StageLatencyContext;
+import org.example.account.domain.Account;
+import org.example.account.domain.Transaction;
+import org.example.account.domain.TransactionOutbox;
+import org.example.account.dto.AccountDto;
+import org.example.account.dto.TransactionDto;
+import org.example.account.event.AccountChangedEvent;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.TransactionOutboxRepository;
+import org.example.account.repository.TransactionPartitionRouter;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 계좌 lock 안에서 실행되는 잔액 변경 (조회 - 검증 - 변경 - 거래 저장)
+ * LockAopAspect 가 트랜잭션보다 바깥에서 실행되므로 lock 은 커밋 후에 해제된다.
+ * 사용자/소유주/상태 검증은 TransactionService 에서 lock 밖에서 끝내고,
+ * 여기서는 lock 이후 바뀌었을 수 있는 값만 다시 확인한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceMutationService {
+    private final TransactionRepository transactionRepository;
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SpendingLimiter spendingLimiter;
+    private final AccountNumberIndex accountNumberIndex;
+    private final KnownIdFilter knownIdFilter;
+    
+    @AccountLock(tryLockTime = 1000L, leaseTime = 3000L, adaptiveLease = true)
+    @Transactional
+    public TransactionDto useBalance(AccountDto accountDto, Long amount) {
+        StageLatencyContext.timeCommit();
+        
+        return applyUseBalance(accountDto, amount);
+    }
+    
+    @AccountLock(tryLockTime = 1000L, leaseTime = 3000L, adaptiveLease = true)
+    @Transactional
+    public TransactionDto cancelBalance(
+            AccountDto accountDto, String transactionId, Long amount) {
+        StageLatencyContext.timeCommit();
+        
+        return applyCancelBalance(accountDto, transactionId, amount);
+    }
+    
+    /**
+     * 계좌 lock 을 잡은 호출한 쪽의 트랜잭션 안에서 잔액을 사용한다.
+     * (fencing token 은 AccountLockContext 에 있어야 한다.)
+     */
+    public TransactionDto applyUseBalance(AccountDto accountDto, Long amount) {
+        checkFencingToken(accountDto.getAccountNumber());
+        
+        Account account = accountNumberIndex.findAccount(
+                        accountDto.getAccountNumber(), accountRepository)
+                .orElseThrow(() -> new AccountException(
+                        ErrorCode.ACCOUNT_NOT_FOUND));
+        
+        if (!Objects.equals(account.getAccountUser().getId(),
+                            accountDto.getUserId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        
+        spendingLimiter.acquire(account.getAccountNumber(), amount);
+        account.useBalance(amount);
+        applicationEventPublisher.publishEvent(
+                new AccountChangedEvent(account));
+        
+        return TransactionDto.fromEntity(
+                saveTransaction(TransactionType.USE,
+                                TransactionResultType.S, account, amount
+                ));
+    }
+    
+    /**
+     * 계좌 lock 을 잡은 호출한 쪽의 트랜잭션 안에서 사용 거래를 취소한다.
+     */
+    public TransactionDto applyCancelBalance(
+            AccountDto accountDto, String transactionId, Long amount) {
+        checkFencingToken(accountDto.getAccountNumber());
+        
+        Transaction transaction =
+                transactionRepository.findRoutedWithAccountByTransactionId(
+                                transactionId)
+                        .orElseThrow(() -> new AccountException(
+                                ErrorCode.TRANSACTION_NOT_FOUND));
+        
+        // 동시에 들어온 같은 거래의 취소 요청은 여기서 한 건만 통과한다.
+        if (transaction.isCanceled()) {
+            throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+        }
+        
+        Account account = transaction.getAccount();
+        if (!Objects.equals(account.getAccountNumber(),
+                            accountDto.getAccountNumber())) {
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        
+        account.cancelBalance(amount);
+        applicationEventPublisher.publishEvent(
+                new AccountChangedEvent(account));
+        
+        Transaction cancelTransaction = saveTransaction(
+                TransactionType.CANCEL, TransactionResultType.S, account,
+                amount
+        );
+        transaction.cancel(amount, cancelTransaction.getTransactionId());
+        
+        return TransactionDto.fromEntity(cancelTransaction);
+    }
+    
+    /**
+     * lease 가 만료된 뒤 다른 요청이 이미 더 큰 token 으로 계좌를 변경했다면 거절한다.
+     * 계좌 row 를 먼저 잠그고 읽으므로, 이후 조회/변경은 커밋까지 DB lock 아래에서 일어난다.
+     * token 은 영속 상태의 계좌에 기록되어 이 계좌의 2차 캐시만 갱신된다.
+     * (호출한 쪽의 트랜잭션 안에서 실행된다.)
+     */
+    public void checkFencingToken(String accountNumber) {
+        AccountLockContext.getFencingToken(accountNumber)
+                .ifPresent(token -> {
+                    Account account = accountRepository
+                            .findForUpdateByAccountNumber(accountNumber)
+                            .orElseThrow(() -> new AccountException(
+                                    ErrorCode.ACCOUNT_NOT_FOUND));
+                    if (account.getFencingToken() != null &&
+                        account.getFencingToken() > token) {
+                        throw new AccountException(ErrorCode.STALE_LOCK_TOKEN);
+                    }
+                    account.setFencingToken(token);
+                });
+    }
+    
+    /**
+     * 호출한 쪽의 트랜잭션 안에서 거래와 outbox 를 함께 저장한다.
+     * 거래 아이디는 커밋 전에 Bloom filter 에 넣어, 커밋 직후의 조회가 거절되지 않게 한다.
+     */
+    public Transaction saveTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType, Account account,
+            Long amount) {
+        LocalDateTime transactedAt = LocalDateTime.now();
+        Transaction transaction = transactionRepository.save(
+                Transaction.builder()
+                        .transactionType(
+                                transactionType)
+                        .transactionResultType(
+                                transactionResultType)
+                        .account(account)
+                        .amount(amount)
+                        .balanceSnapshot(
+                                account.getBalance())
+                        .transactionId(
+                                TransactionPartitionRouter.newTransactionId(
+                                        transactedAt))
+                        .transactedAt(transactedAt)
+                        .partitionKey(
+                                TransactionPartitionRouter.partitionKeyOf(
+                                        transactedAt))
+                        .build());
+        // 거래와 같은 트랜잭션에서 outbox 를 기록해야 이벤트 유실이 없다.
+        transactionOutboxRepository.save(TransactionOutbox.from(transaction));
+        knownIdFilter.putTransactionId(transaction.getTransactionId());
+        
+        return transaction;
+    }
+}
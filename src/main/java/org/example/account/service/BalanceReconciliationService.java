@@ -0,0 +1,247 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.domain.Account;
+import org.example.account.domain.ReconciliationCheckpoint;
+import org.example.account.dto.ReconciliationReport;
+import org.example.account.dto.TransactionChainEntry;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.ReconciliationCheckpointRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.ReconciliationDiscrepancyType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 계좌 잔액 대사
+ * 계좌별로 성공 거래를 시간 순으로 읽으며 직전 잔액 스냅샷 +- 거래 금액이
+ * 다음 스냅샷과 이어지는지, 마지막 스냅샷이 현재 잔액과 같은지 확인한다.
+ * 계좌 목록을 fork/join pool 로 나눠 병렬로 검증하고, 계좌별 checkpoint 이후 거래만 읽는다.
+ */
+@Slf4j
+@Service
+public class BalanceReconciliationService {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+    
+    private final Counter discrepancyCounter;
+    private final AtomicLong accountsPerSecond = new AtomicLong();
+    private final AtomicReference<ReconciliationReport> lastReport =
+            new AtomicReference<>();
+    
+    public BalanceReconciliationService(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            ReconciliationCheckpointRepository checkpointRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${account.reconciliation.parallelism:4}") int parallelism,
+            @Value("${account.reconciliation.chunk-size:64}") int chunkSize) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        
+        this.discrepancyCounter = meterRegistry.counter(
+                "account.reconciliation.discrepancies");
+        meterRegistry.gauge("account.reconciliation.accounts.per.second",
+                            accountsPerSecond);
+    }
+    
+    @Scheduled(cron = "${account.reconciliation.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Balance reconciliation failed", e);
+        }
+    }
+    
+    public ReconciliationReport reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        List<Long> accountIds = accountRepository.findAllIds();
+        Run run = new Run();
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ReconcileTask(accountIds, run));
+        } finally {
+            pool.shutdown();
+        }
+        
+        long elapsedNanos = Math.max(1L, System.nanoTime() - start);
+        double perSecond = accountIds.size() * 1e9 / elapsedNanos;
+        accountsPerSecond.set(Math.round(perSecond));
+        discrepancyCounter.increment(run.discrepancies.size());
+        
+        ReconciliationReport report = ReconciliationReport.builder()
+                .startedAt(startedAt)
+                .accounts(accountIds.size())
+                .transactions(run.transactions.sum())
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .accountsPerSecond(perSecond)
+                .discrepancies(new ArrayList<>(run.discrepancies))
+                .build();
+        lastReport.set(report);
+        
+        log.info("Reconciled {} accounts / {} transactions in {} ms " +
+                 "({} accounts/s), {} discrepancies",
+                 report.getAccounts(), report.getTransactions(),
+                 report.getElapsedMillis(), Math.round(perSecond),
+                 report.getDiscrepancies().size());
+        report.getDiscrepancies().forEach(discrepancy -> log.warn(
+                "Reconciliation {} account {} transaction {} expected {} " +
+                "actual {}", discrepancy.getType(),
+                discrepancy.getAccountNumber(),
+                discrepancy.getTransactionId(), discrepancy.getExpected(),
+                discrepancy.getActual()));
+        
+        return report;
+    }
+    
+    public Optional<ReconciliationReport> getLastReport() {
+        return Optional.ofNullable(lastReport.get());
+    }
+    
+    private void reconcileChunk(List<Long> accountIds, Run run) {
+        Map<Long, ReconciliationCheckpoint> checkpoints =
+                checkpointRepository.findAllById(accountIds).stream()
+                        .collect(Collectors.toMap(
+                                ReconciliationCheckpoint::getAccountId,
+                                Function.identity()));
+        
+        for (Long accountId : accountIds) {
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> reconcileAccount(
+                                accountId, checkpoints.get(accountId), run));
+            } catch (Exception e) {
+                log.error("Reconciliation failed for account {}",
+                          accountId, e);
+            }
+        }
+    }
+    
+    private void reconcileAccount(
+            Long accountId, ReconciliationCheckpoint checkpoint, Run run) {
+        Account account = accountRepository.findById(accountId).orElse(null);
+        if (account == null) {
+            return;
+        }
+        
+        long afterId = checkpoint == null ? 0L :
+                checkpoint.getLastTransactionId();
+        Long previous = checkpoint == null ? null :
+                checkpoint.getLastBalanceSnapshot();
+        long lastId = afterId;
+        boolean broken = false;
+        
+        try (Stream<TransactionChainEntry> chain =
+                     transactionRepository.streamChainByAccountId(
+                             accountId, afterId)) {
+            Iterator<TransactionChainEntry> entries = chain.iterator();
+            while (entries.hasNext()) {
+                TransactionChainEntry entry = entries.next();
+                run.transactions.increment();
+                
+                // 보관/첫 대사로 앞선 거래가 없으면 첫 거래의 스냅샷부터 시작한다.
+                if (previous != null &&
+                    previous + entry.balanceDelta() !=
+                    entry.getBalanceSnapshot()) {
+                    run.discrepancies.add(
+                            ReconciliationReport.Discrepancy.builder()
+                                    .accountNumber(account.getAccountNumber())
+                                    .type(ReconciliationDiscrepancyType
+                                                  .SNAPSHOT_MISMATCH)
+                                    .transactionId(entry.getTransactionId())
+                                    .expected(previous + entry.balanceDelta())
+                                    .actual(entry.getBalanceSnapshot())
+                                    .build());
+                    broken = true;
+                    break;
+                }
+                
+                previous = entry.getBalanceSnapshot();
+                lastId = entry.getId();
+            }
+        }
+        
+        if (!broken && previous != null &&
+            !previous.equals(account.getBalance()) &&
+            // 대사 중 변경된 계좌는 다음 실행에서 다시 확인한다.
+            Objects.equals(account.getVersion(),
+                           accountRepository.findVersionById(accountId))) {
+            run.discrepancies.add(ReconciliationReport.Discrepancy.builder()
+                                          .accountNumber(
+                                                  account.getAccountNumber())
+                                          .type(ReconciliationDiscrepancyType
+                                                        .BALANCE_MISMATCH)
+                                          .expected(previous)
+                                          .actual(account.getBalance())
+                                          .build());
+        }
+        
+        // 불일치 이전까지만 전진시켜 해결될 때까지 계속 보고되도록 한다.
+        if (lastId > afterId) {
+            checkpointRepository.save(ReconciliationCheckpoint.builder()
+                                              .accountId(accountId)
+                                              .lastTransactionId(lastId)
+                                              .lastBalanceSnapshot(previous)
+                                              .checkedAt(LocalDateTime.now())
+                                              .build());
+        }
+    }
+    
+    private static class Run {
+        private final LongAdder transactions = new LongAdder();
+        private final Queue<ReconciliationReport.Discrepancy> discrepancies =
+                new ConcurrentLinkedQueue<>();
+    }
+    
+    private class ReconcileTask extends RecursiveAction {
+        private final List<Long> accountIds;
+        private final Run run;
+        
+        private ReconcileTask(List<Long> accountIds, Run run) {
+            this.accountIds = accountIds;
+            this.run = run;
+        }
+        
+        @Override
+        protected void compute() {
+            if (accountIds.size() <= chunkSize) {
+                reconcileChunk(accountIds, run);
+                return;
+            }
+            
+            int middle = accountIds.size() / 2;
+            invokeAll(new ReconcileTask(accountIds.subList(0, middle), run),
+                      new ReconcileTask(
+                              accountIds.subList(middle, accountIds.size()),
+                              run));
+        }
+    }
+}
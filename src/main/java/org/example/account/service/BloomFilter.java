@@ -0,0 +1,95 @@
+package org.example.account.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 key Bloom filter (삭제 없음)
+ * mightContain 이 false 면 넣은 적이 없는 key 이고, true 는 오탐일 수 있다.
+ * bit 배열은 AtomicLongArray 에 OR 로만 쓰므로 lock 없이 여러 thread 가 넣고 읽을 수 있다.
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong bitCount = new AtomicLong();
+    
+    /**
+     * @param expectedInsertions 이 개수까지 넣었을 때 오탐률이 falsePositiveRate 가 되도록 크기를 정한다.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(
+                    "False positive rate must be in (0, 1) : " +
+                    falsePositiveRate);
+        }
+        
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(
+                -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8,
+                                       Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round(
+                (double) bitSize / n * Math.log(2)));
+    }
+    
+    public void put(String key) {
+        long h1 = hash(key);
+        long h2 = Long.rotateLeft(h1, 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.getAndAccumulate(word, mask, (a, b) -> a | b) &
+                 mask) == 0) {
+                bitCount.incrementAndGet();
+            }
+        }
+    }
+    
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = Long.rotateLeft(h1, 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * 지금까지 켜진 bit 비율로 추정한 오탐률
+     */
+    public double estimatedFalsePositiveRate() {
+        return Math.pow((double) bitCount.get() / bitSize, hashCount);
+    }
+    
+    public long getBitSize() {
+        return bitSize;
+    }
+    
+    public int getHashCount() {
+        return hashCount;
+    }
+    
+    // String.hashCode 는 32bit 라 분포가 좁으므로 문자마다 64bit 로 섞는다.
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        
+        return h;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * lock 대기 전에 동시 처리 수를 제한해 lock 서버/DB 가 느려질 때 요청이 쌓이지 않게 한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ConcurrencyLimitAspect {
+    private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+    
+    @Around("@annotation(org.example.account.aop.AccountLock)")
+    public Object aroundMethod(ProceedingJoinPoint proceedingJoinPoint)
+            throws Throwable {
+        if (!adaptiveConcurrencyLimiter.tryAcquire()) {
+            throw new AccountException(ErrorCode.TOO_MANY_CONCURRENT_REQUESTS);
+        }
+        
+        long start = System.nanoTime();
+        try {
+            return proceedingJoinPoint.proceed();
+        } finally {
+            adaptiveConcurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+}
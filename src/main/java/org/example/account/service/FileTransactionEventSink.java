@@ -0,0 +1,58 @@
+package org.example.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.account.event.TransactionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 로컬 테스트용 sink, 이벤트를 JSON line 으로 파일에 append 한다.
+ * 배치 단위로 한 번만 write/force 한다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.outbox.sink", havingValue = "file")
+public class FileTransactionEventSink implements TransactionEventSink {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    
+    public FileTransactionEventSink(
+            ObjectMapper objectMapper,
+            @Value("${account.outbox.file-path}") String filePath) {
+        this.objectMapper = objectMapper;
+        this.path = Paths.get(filePath);
+    }
+    
+    @Override
+    public synchronized void publish(List<TransactionEvent> events)
+            throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (TransactionEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(
+                    lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.account.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 단일 인스턴스용 sliding window, 계좌마다 분 bucket 60개와 시간 bucket 24개를 둔다.
+ * 확인은 bucket 84개 합산이라 수십 ns 수준이고, 계좌 lock 안에서 호출되므로 경합이 없다.
+ * 누적은 map 의 compute 안에서 하여 evictIdle 이 같은 window 를 동시에 지우지 못하게 한다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.spending-limit.store",
+                       havingValue = "memory", matchIfMissing = true)
+public class InMemorySpendingLimitStore implements SpendingLimitStore {
+    private final ConcurrentMap<String, SpendingWindow> windows =
+            new ConcurrentHashMap<>();
+    
+    @Override
+    public boolean tryAdd(String accountNumber, long amount, long epochMillis,
+                          long hourlyLimit, long dailyLimit) {
+        boolean[] added = new boolean[1];
+        windows.compute(accountNumber, (key, window) -> {
+            SpendingWindow current = window == null ?
+                    new SpendingWindow() : window;
+            added[0] = current.tryAdd(
+                    amount, epochMillis / 60_000, hourlyLimit, dailyLimit);
+            
+            return current;
+        });
+        
+        return added[0];
+    }
+    
+    @Override
+    public void subtract(String accountNumber, long amount, long epochMillis) {
+        SpendingWindow window = windows.get(accountNumber);
+        if (window != null) {
+            window.subtract(amount, epochMillis / 60_000);
+        }
+    }
+    
+    @Override
+    public void seed(String accountNumber, long amount, long epochMillis) {
+        windows.compute(accountNumber, (key, window) -> {
+            SpendingWindow current = window == null ?
+                    new SpendingWindow() : window;
+            current.add(amount, epochMillis / 60_000);
+            
+            return current;
+        });
+    }
+    
+    /**
+     * 마지막 누적 시간 bucket 이 24시간 window 밖으로 밀려난 계좌를 지운다.
+     * 이미 지워진 window 에 대한 subtract 는 만료된 bucket 이라 무시되므로 영향이 없다.
+     */
+    @Override
+    public void evictIdle(long epochMillis) {
+        long epochHour = epochMillis / 3_600_000;
+        for (String accountNumber : windows.keySet()) {
+            windows.computeIfPresent(accountNumber, (key, window) ->
+                    window.isIdle(epochHour) ? null : window);
+        }
+    }
+    
+    /**
+     * 현재 분 기준 최근 1시간 / 24시간 사용 금액
+     */
+    public long[] spent(String accountNumber, long epochMillis) {
+        SpendingWindow window = windows.get(accountNumber);
+        long epochMinute = epochMillis / 60_000;
+        
+        return window == null ? new long[2] :
+                window.spent(epochMinute);
+    }
+    
+    private static class SpendingWindow {
+        private static final int MINUTES = 60;
+        private static final int HOURS = 24;
+        
+        // bucket 이 담고 있는 분/시간, 다르면 지난 주기의 값이므로 0 으로 본다.
+        private final long[] minuteStamps = new long[MINUTES];
+        private final long[] minuteAmounts = new long[MINUTES];
+        private final long[] hourStamps = new long[HOURS];
+        private final long[] hourAmounts = new long[HOURS];
+        private long lastEpochHour;
+        
+        private synchronized boolean tryAdd(long amount, long epochMinute,
+                                            long hourlyLimit, long dailyLimit) {
+            if (hourlyLimit > 0 &&
+                sumMinutes(epochMinute) + amount > hourlyLimit) {
+                return false;
+            }
+            if (dailyLimit > 0 &&
+                sumHours(epochMinute / 60) + amount > dailyLimit) {
+                return false;
+            }
+            add(amount, epochMinute);
+            
+            return true;
+        }
+        
+        private synchronized void add(long amount, long epochMinute) {
+            int minuteSlot = (int) (epochMinute % MINUTES);
+            if (minuteStamps[minuteSlot] != epochMinute) {
+                minuteStamps[minuteSlot] = epochMinute;
+                minuteAmounts[minuteSlot] = 0;
+            }
+            minuteAmounts[minuteSlot] += amount;
+            
+            long epochHour = epochMinute / 60;
+            int hourSlot = (int) (epochHour % HOURS);
+            if (hourStamps[hourSlot] != epochHour) {
+                hourStamps[hourSlot] = epochHour;
+                hourAmounts[hourSlot] = 0;
+            }
+            hourAmounts[hourSlot] += amount;
+            lastEpochHour = Math.max(lastEpochHour, epochHour);
+        }
+        
+        private synchronized boolean isIdle(long epochHour) {
+            return lastEpochHour <= epochHour - HOURS;
+        }
+        
+        /**
+         * 이미 window 밖으로 밀려난 bucket 은 건드리지 않는다.
+         */
+        private synchronized void subtract(long amount, long epochMinute) {
+            int minuteSlot = (int) (epochMinute % MINUTES);
+            if (minuteStamps[minuteSlot] == epochMinute) {
+                minuteAmounts[minuteSlot] -= amount;
+            }
+            long epochHour = epochMinute / 60;
+            int hourSlot = (int) (epochHour % HOURS);
+            if (hourStamps[hourSlot] == epochHour) {
+                hourAmounts[hourSlot] -= amount;
+            }
+        }
+        
+        private synchronized long[] spent(long epochMinute) {
+            return new long[]{sumMinutes(epochMinute),
+                    sumHours(epochMinute / 60)};
+        }
+        
+        private long sumMinutes(long epochMinute) {
+            long sum = 0;
+            for (int i = 0; i < MINUTES; i++) {
+                if (minuteStamps[i] > epochMinute - MINUTES &&
+                    minuteStamps[i] <= epochMinute) {
+                    sum += minuteAmounts[i];
+                }
+            }
+            
+            return sum;
+        }
+        
+        private long sumHours(long epochHour) {
+            long sum = 0;
+            for (int i = 0; i < HOURS; i++) {
+                if (hourStamps[i] > epochHour - HOURS &&
+                    hourStamps[i] <= epochHour) {
+                    sum += hourAmounts[i];
+                }
+            }
+            
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.account.service;
+
+import org.example.account.event.TransactionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 로컬 테스트용 sink, 최근 capacity 개의 이벤트만 보관한다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.outbox.sink", havingValue = "memory",
+                       matchIfMissing = true)
+public class InMemoryTransactionEventSink implements TransactionEventSink {
+    private final Deque<TransactionEvent> events = new ArrayDeque<>();
+    private final int capacity;
+    
+    public InMemoryTransactionEventSink(
+            @Value("${account.outbox.memory-capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+    
+    @Override
+    public synchronized void publish(List<TransactionEvent> published) {
+        for (TransactionEvent event : published) {
+            if (events.size() == capacity) {
+                events.pollFirst();
+            }
+            events.addLast(event);
+        }
+    }
+    
+    public synchronized List<TransactionEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
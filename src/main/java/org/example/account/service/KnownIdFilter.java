@@ -0,0 +1,123 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.example.account.event.AccountChangedEvent;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 있는 계좌 번호 / 거래 아이디 Bloom filter
+ * 없는 계좌나 거래를 DB 조회, 계좌 lock, 실패 거래 기록 전에 ACCOUNT_NOT_FOUND / TRANSACTION_NOT_FOUND 로 거절한다.
+ * 거래 아이디는 저장할 때(커밋 전) 넣으므로 롤백된 아이디는 오탐으로만 남는다.
+ * 기동 시 KnownIdFilterLoader 가 채우기 전까지와 꺼져 있을 때(account.bloom-filter.enabled)는 거절하지 않는다.
+ * 다른 인스턴스에서 만든 계좌/거래는 들어오지 않으므로 단일 인스턴스 운영에서만 켠다.
+ */
+@Component
+public class KnownIdFilter {
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final BloomFilter accountNumbers;
+    private final BloomFilter transactionIds;
+    
+    private final Counter accountRejectedCounter;
+    private final Counter transactionRejectedCounter;
+    
+    private volatile boolean ready;
+    
+    public KnownIdFilter(
+            MeterRegistry meterRegistry,
+            @Value("${account.bloom-filter.enabled:false}") boolean enabled,
+            @Value("${account.bloom-filter.false-positive-rate:0.01}")
+            double falsePositiveRate,
+            @Value("${account.bloom-filter.expected-accounts:1000000}")
+            long expectedAccounts,
+            @Value("${account.bloom-filter.expected-transactions:10000000}")
+            long expectedTransactions) {
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        // 꺼져 있으면 bit 배열을 만들지 않는다.
+        this.accountNumbers = new BloomFilter(
+                enabled ? expectedAccounts : 1, falsePositiveRate);
+        this.transactionIds = new BloomFilter(
+                enabled ? expectedTransactions : 1, falsePositiveRate);
+        
+        register(meterRegistry, "account", accountNumbers);
+        register(meterRegistry, "transaction", transactionIds);
+        this.accountRejectedCounter = meterRegistry.counter(
+                "account.bloom.filter.rejected", "filter", "account");
+        this.transactionRejectedCounter = meterRegistry.counter(
+                "account.bloom.filter.rejected", "filter", "transaction");
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAccountChanged(AccountChangedEvent event) {
+        putAccountNumber(event.getAccount().getAccountNumber());
+    }
+    
+    public void putAccountNumber(String accountNumber) {
+        if (enabled) {
+            accountNumbers.put(accountNumber);
+        }
+    }
+    
+    public void putTransactionId(String transactionId) {
+        if (enabled) {
+            transactionIds.put(transactionId);
+        }
+    }
+    
+    /**
+     * 기동 시 적재가 끝나면 호출되어, 이후부터 거절한다.
+     */
+    public void markReady() {
+        ready = true;
+    }
+    
+    /**
+     * @throws AccountException 없는 계좌 번호가 확실하면 ACCOUNT_NOT_FOUND
+     */
+    public void checkAccountNumber(String accountNumber) {
+        if (!mightContainAccountNumber(accountNumber)) {
+            accountRejectedCounter.increment();
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+    }
+    
+    /**
+     * @throws AccountException 없는 거래 아이디가 확실하면 TRANSACTION_NOT_FOUND
+     */
+    public void checkTransactionId(String transactionId) {
+        if (!mightContainTransactionId(transactionId)) {
+            transactionRejectedCounter.increment();
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+    }
+    
+    public boolean mightContainAccountNumber(String accountNumber) {
+        return !enabled || !ready || accountNumbers.mightContain(accountNumber);
+    }
+    
+    public boolean mightContainTransactionId(String transactionId) {
+        return !enabled || !ready || transactionIds.mightContain(transactionId);
+    }
+    
+    private void register(MeterRegistry meterRegistry, String filter,
+                          BloomFilter bloomFilter) {
+        meterRegistry.gauge("account.bloom.filter.false.positive.rate",
+                            Tags.of("filter", filter), bloomFilter,
+                            BloomFilter::estimatedFalsePositiveRate);
+        meterRegistry.gauge("account.bloom.filter.false.positive.rate.target",
+                            Tags.of("filter", filter), this,
+                            knownIdFilter -> knownIdFilter.falsePositiveRate);
+    }
+}
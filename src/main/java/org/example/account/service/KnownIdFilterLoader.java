@@ -0,0 +1,67 @@
+package org.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.dto.AccountSnapshot;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.TransactionArchiveRepository;
+import org.example.account.repository.TransactionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 기동 시 전체 계좌 번호와 거래 아이디(hot + 보관 테이블)로 Bloom filter 를 채운다.
+ * 적재 중에 저장된 계좌/거래도 filter 에 들어가므로, 다 채운 뒤에 거절을 시작한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KnownIdFilterLoader {
+    private final KnownIdFilter knownIdFilter;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!knownIdFilter.isEnabled()) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        int accounts = 0;
+        for (AccountSnapshot account : accountRepository.findAllSnapshots()) {
+            knownIdFilter.putAccountNumber(account.getAccountNumber());
+            accounts++;
+        }
+        
+        AtomicLong transactions = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> ids =
+                         transactionRepository.streamAllTransactionIds()) {
+                ids.forEach(id -> {
+                    knownIdFilter.putTransactionId(id);
+                    transactions.incrementAndGet();
+                });
+            }
+            try (Stream<String> ids = transactionArchiveRepository
+                    .streamAllTransactionIds()) {
+                ids.forEach(id -> {
+                    knownIdFilter.putTransactionId(id);
+                    transactions.incrementAndGet();
+                });
+            }
+        });
+        knownIdFilter.markReady();
+        
+        log.info("Known id filter loaded {} accounts and {} transactions " +
+                 "in {} ms", accounts, transactions.get(),
+                 (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -5,27 +5,55 @@ import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.example.account.aop.AccountLock;
 import org.example.account.aop.AccountLockIdInterface;
+import org.example.account.aop.StageLatencyContext;
+import org.example.account.type.LatencyStage;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 @Aspect
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final LockHoldTimeTracker lockHoldTimeTracker;
     
-    @Around("@annotation(org.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request, ..)")
     public Object aroundMethod(
             ProceedingJoinPoint proceedingJoinPoint,
+            AccountLock accountLock,
             AccountLockIdInterface request) throws Throwable {
+        String endpoint = proceedingJoinPoint.getSignature().toShortString();
+        long leaseTime = accountLock.adaptiveLease() ?
+                lockHoldTimeTracker.leaseMillis(
+                        endpoint, accountLock.leaseTime()) :
+                accountLock.leaseTime();
         
         // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
+        long lockStart = StageLatencyContext.start();
+        try {
+            lockService.lock(request.getAccountNumber(),
+                             accountLock.tryLockTime(),
+                             leaseTime,
+                             accountLock.leaseTime());
+        } finally {
+            StageLatencyContext.stop(LatencyStage.LOCK_ACQUIRE, lockStart);
+        }
         
+        long start = System.nanoTime();
         try {
             return proceedingJoinPoint.proceed();
         } finally {
+            lockHoldTimeTracker.record(
+                    endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            
             // lock 해제
             lockService.unlock(request.getAccountNumber());
         }
@@ -0,0 +1,183 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis lock 백엔드용 circuit breaker
+ * 최근 windowSize 번의 호출 중 실패율 혹은 느린 호출 비율이 임계치를 넘으면 OPEN 되어
+ * Redisson timeout 을 기다리지 않고 바로 거절한다.
+ * openDuration 이 지나면 HALF_OPEN 에서 halfOpenPermits 번 시험 호출 후 닫힌다.
+ */
+@Slf4j
+@Component
+public class LockCircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenPermits;
+    
+    // 최근 호출 결과 ring buffer
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int position;
+    private int recordedCalls;
+    private int failureCount;
+    private int slowCallCount;
+    
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+    
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger stateGauge = new AtomicInteger();
+    private final Counter rejectedCounter;
+    
+    public LockCircuitBreaker(
+            @Value("${account.lock.breaker.window-size:20}") int windowSize,
+            @Value("${account.lock.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${account.lock.breaker.failure-rate-threshold:50}")
+            int failureRateThreshold,
+            @Value("${account.lock.breaker.slow-call-rate-threshold:50}")
+            int slowCallRateThreshold,
+            @Value("${account.lock.breaker.open-duration-ms:5000}")
+            long openDurationMillis,
+            @Value("${account.lock.breaker.half-open-permits:3}")
+            int halfOpenPermits,
+            MeterRegistry meterRegistry) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationNanos =
+                TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.halfOpenPermits = halfOpenPermits;
+        this.failures = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+        
+        this.meterRegistry = meterRegistry;
+        this.rejectedCounter = meterRegistry.counter(
+                "account.lock.breaker.rejected");
+        meterRegistry.gauge("account.lock.breaker.state", stateGauge);
+    }
+    
+    /**
+     * @return Redis 를 호출해도 되는지 여부
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                rejectedCounter.increment();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        
+        if (state == State.HALF_OPEN) {
+            if (halfOpenIssued >= halfOpenPermits) {
+                rejectedCounter.increment();
+                return false;
+            }
+            halfOpenIssued++;
+        }
+        
+        return true;
+    }
+    
+    public synchronized void onSuccess(boolean slow) {
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSucceeded >= halfOpenPermits) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        
+        record(false, slow);
+    }
+    
+    public synchronized void onError() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        
+        record(true, false);
+    }
+    
+    /**
+     * 결과 없이 끝난 호출(interrupt, 구독 취소)의 허가를 돌려준다.
+     * Redis 의 성공/실패가 아니므로 기록하지 않고, HALF_OPEN 시험 호출 자리만 다시 연다.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenIssued > halfOpenSucceeded) {
+            halfOpenIssued--;
+        }
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    private void record(boolean failure, boolean slow) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        
+        if (recordedCalls == windowSize) {
+            failureCount -= failures[position] ? 1 : 0;
+            slowCallCount -= slowCalls[position] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+        failures[position] = failure;
+        slowCalls[position] = slow;
+        failureCount += failure ? 1 : 0;
+        slowCallCount += slow ? 1 : 0;
+        position = (position + 1) % windowSize;
+        
+        if (recordedCalls >= minimumCalls &&
+            (failureCount * 100 >= failureRateThreshold * recordedCalls ||
+             slowCallCount * 100 >= slowCallRateThreshold * recordedCalls)) {
+            transitionTo(State.OPEN);
+        }
+    }
+    
+    private void transitionTo(State next) {
+        log.warn("Lock circuit breaker {} -> {} (failures {}, slow {}, calls {})",
+                 state, next, failureCount, slowCallCount, recordedCalls);
+        meterRegistry.counter("account.lock.breaker.transitions",
+                              "from", state.name(), "to", next.name())
+                .increment();
+        
+        state = next;
+        stateGauge.set(next.ordinal());
+        if (next == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (next == State.HALF_OPEN) {
+            halfOpenIssued = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (next == State.CLOSED) {
+            position = 0;
+            recordedCalls = 0;
+            failureCount = 0;
+            slowCallCount = 0;
+        }
+    }
+}
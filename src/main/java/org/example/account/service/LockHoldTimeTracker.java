@@ -0,0 +1,100 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 엔드포인트별 계좌 lock 보유 시간 기록
+ * 최근 windowSize 개 표본의 p99 에 leaseMultiplier 를 곱해 adaptive lease 를 정한다.
+ * 표본이 minSamples 보다 적으면 annotation 의 leaseTime 을 그대로 쓴다.
+ */
+@Component
+public class LockHoldTimeTracker {
+    private final int windowSize;
+    private final int minSamples;
+    private final double leaseMultiplier;
+    private final long minLeaseMillis;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, HoldTimes> holdTimes = new ConcurrentHashMap<>();
+    
+    public LockHoldTimeTracker(
+            @Value("${account.lock.adaptive.window-size:512}") int windowSize,
+            @Value("${account.lock.adaptive.min-samples:50}") int minSamples,
+            @Value("${account.lock.adaptive.lease-multiplier:3.0}")
+            double leaseMultiplier,
+            @Value("${account.lock.adaptive.min-lease-ms:1000}")
+            long minLeaseMillis,
+            MeterRegistry meterRegistry) {
+        this.windowSize = windowSize;
+        this.minSamples = minSamples;
+        this.leaseMultiplier = leaseMultiplier;
+        this.minLeaseMillis = minLeaseMillis;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public void record(String endpoint, long holdMillis) {
+        meterRegistry.timer("account.lock.hold", "endpoint", endpoint)
+                .record(holdMillis, TimeUnit.MILLISECONDS);
+        holdTimes(endpoint).add(holdMillis);
+    }
+    
+    /**
+     * @param maxLeaseMillis annotation 에 지정된 leaseTime
+     * @return 이번 lock 에 사용할 lease(ms)
+     */
+    public long leaseMillis(String endpoint, long maxLeaseMillis) {
+        long p99 = holdTimes(endpoint).p99();
+        if (p99 < 0) {
+            return maxLeaseMillis;
+        }
+        
+        long lease = Math.max(minLeaseMillis, (long) (p99 * leaseMultiplier));
+        return Math.min(lease, maxLeaseMillis);
+    }
+    
+    private HoldTimes holdTimes(String endpoint) {
+        return holdTimes.computeIfAbsent(endpoint, key -> {
+            HoldTimes created = new HoldTimes();
+            meterRegistry.gauge("account.lock.hold.p99.ms",
+                                Tags.of("endpoint", key), created.cachedP99);
+            return created;
+        });
+    }
+    
+    private class HoldTimes {
+        private final long[] samples = new long[windowSize];
+        private final AtomicLong cachedP99 = new AtomicLong(-1);
+        private int position;
+        private int count;
+        private int sinceRecompute;
+        
+        synchronized void add(long holdMillis) {
+            samples[position] = holdMillis;
+            position = (position + 1) % windowSize;
+            count = Math.min(count + 1, windowSize);
+            
+            // 매 요청마다 정렬하지 않도록 일정 간격으로만 p99 를 다시 계산한다.
+            if (count >= minSamples &&
+                (++sinceRecompute >= Math.max(1, windowSize / 16) ||
+                 cachedP99.get() < 0)) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                cachedP99.set(sorted[(int) Math.ceil(count * 0.99) - 1]);
+            }
+        }
+        
+        long p99() {
+            return cachedP99.get();
+        }
+    }
+}
@@ -1,44 +1,329 @@
 package org.example.account.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.account.aop.AccountLockContext;
 import org.example.account.exception.AccountException;
 import org.example.account.type.ErrorCode;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 계좌 단위 lock
+ * Redis(Redisson) lock 을 기본으로 사용하고, circuit breaker 가 열려 있으면
+ * Redis 를 호출하지 않고 바로 실패하거나(기본) JVM 내부 lock 으로 대체한다.
+ * Redis lock 을 취득하면 계좌별 fencing token 을 발급해 AccountLockContext 에 둔다.
+ */
 @RequiredArgsConstructor
 @Slf4j
 @Service
 public class LockService {
+    private static final long DEFAULT_WAIT_TIME_MILLIS = 1000L;
+    private static final long DEFAULT_LEASE_TIME_MILLIS = 15000L;
+    private static final int LOCAL_LOCK_STRIPES = 1024;
+    
+    // fast-start 프로파일에서는 첫 사용 시점에 Redis 가 기동/연결된다.
+    @Lazy
     private final RedissonClient redissonClient;
+    private final LockCircuitBreaker lockCircuitBreaker;
+    
+    // 같은 계좌는 항상 같은 stripe 에 매핑된다.
+    private final ReentrantLock[] localLocks = createLocalLocks();
+    
+    // 반응형 lock 소유자 id, 음수라서 thread id 와 겹치지 않는다.
+    private final AtomicLong reactiveLockIds = new AtomicLong(Long.MIN_VALUE);
+    
+    // key : 계좌번호 + lock 보유 thread, lease 를 넘긴 이전 보유자가 다음 보유자의 watchdog 을 지우지 않게 한다.
+    private final Map<String, ScheduledFuture<?>> watchdogs =
+            new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdogExecutor =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "account-lock-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+    
+    @Value("${account.lock.local-fallback:false}")
+    private boolean localFallback;
+    
+    @Value("${account.lock.breaker.slow-call-margin-ms:500}")
+    private long slowCallMarginMillis;
     
     private String getLockKey(String accountNumber) {
         return "ACLK:" + accountNumber;
     }
     
+    // lock 을 취득할 때마다 1씩 증가하는 계좌별 fencing token
+    private String getFencingKey(String accountNumber) {
+        return "ACFT:" + accountNumber;
+    }
+    
+    private String getWatchdogKey(String accountNumber, long threadId) {
+        return accountNumber + ":" + threadId;
+    }
+    
     public void lock(String accountNumber) {
+        lock(accountNumber, DEFAULT_WAIT_TIME_MILLIS, DEFAULT_LEASE_TIME_MILLIS,
+             DEFAULT_LEASE_TIME_MILLIS);
+    }
+    
+    /**
+     * @param maxLeaseMillis leaseMillis 보다 크면 처리 중인 동안 watchdog 이
+     *                       최대 maxLeaseMillis 까지 lease 를 연장한다.
+     */
+    public void lock(String accountNumber, long waitMillis, long leaseMillis,
+                     long maxLeaseMillis) {
+        if (!lockCircuitBreaker.tryAcquirePermission()) {
+            lockWithoutRedis(accountNumber, waitMillis);
+            return;
+        }
+        
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
         
+        long start = System.nanoTime();
+        boolean isLock;
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
-            if (!isLock) {
-                log.error("====Lock acquisition failed====");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
-            }
-        } catch (AccountException e) {
-            throw e;
+            isLock = lock.tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lockCircuitBreaker.releasePermission();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         } catch (Exception e) {
             log.error("Redis lock failed", e);
+            lockCircuitBreaker.onError();
+            lockWithoutRedis(accountNumber, waitMillis);
+            return;
+        }
+        
+        // 다른 요청이 lock 을 잡고 있어서 기다린 시간은 Redis 지연이 아니다.
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(
+                System.nanoTime() - start);
+        lockCircuitBreaker.onSuccess(
+                elapsedMillis > waitMillis + slowCallMarginMillis);
+        
+        if (!isLock) {
+            log.error("====Lock acquisition failed====");
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        
+        try {
+            AccountLockContext.setFencingToken(
+                    accountNumber,
+                    redissonClient.getAtomicLong(getFencingKey(accountNumber))
+                            .incrementAndGet());
+        } catch (Exception e) {
+            log.error("Fencing token issue failed", e);
+            releaseQuietly(lock);
+            lockCircuitBreaker.onError();
+            lockWithoutRedis(accountNumber, waitMillis);
+            return;
+        }
+        
+        if (maxLeaseMillis > leaseMillis) {
+            startWatchdog(accountNumber, lock, leaseMillis, maxLeaseMillis);
         }
     }
     
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {} ", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        
+        AccountLockContext.clear(accountNumber);
+        ScheduledFuture<?> watchdog = watchdogs.remove(getWatchdogKey(
+                accountNumber, Thread.currentThread().getId()));
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+        
+        ReentrantLock localLock = getLocalLock(accountNumber);
+        if (localLock.isHeldByCurrentThread()) {
+            localLock.unlock();
+            return;
+        }
+        
+        try {
+            redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        } catch (Exception e) {
+            // 해제 실패 시에도 lease 가 지나면 lock 은 풀린다.
+            log.error("Redis unlock failed for accountNumber : {}",
+                      accountNumber, e);
+        }
+    }
+    
+    public long newReactiveLockId() {
+        return reactiveLockIds.incrementAndGet();
+    }
+    
+    /**
+     * 반응형 경로의 계좌 lock, thread 대신 lockId 를 lock 소유자로 사용하여
+     * 기다리는 동안 thread 를 점유하지 않는다.
+     * thread 에 묶인 local fallback 과 watchdog 은 사용하지 않으므로
+     * Redis 를 쓸 수 없으면 바로 실패하고, lease 는 연장되지 않는다.
+     * tryLock 결과 전에 구독이 취소되면 circuit breaker 허가를 돌려준다.
+     *
+     * @return 발급된 fencing token
+     */
+    public Mono<Long> lockReactive(String accountNumber, long lockId,
+                                   long waitMillis, long leaseMillis) {
+        return Mono.defer(() -> {
+            if (!lockCircuitBreaker.tryAcquirePermission()) {
+                return Mono.error(new AccountException(
+                        ErrorCode.LOCK_SERVICE_UNAVAILABLE));
+            }
+            
+            RedissonReactiveClient reactiveClient = redissonClient.reactive();
+            AtomicBoolean recorded = new AtomicBoolean();
+            long start = System.nanoTime();
+            return reactiveClient.getLock(getLockKey(accountNumber))
+                    .tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS,
+                             lockId)
+                    .onErrorMap(e -> {
+                        recorded.set(true);
+                        return redisUnavailable("Redis lock failed", e);
+                    })
+                    .doFinally(signalType -> {
+                        if (!recorded.get()) {
+                            lockCircuitBreaker.releasePermission();
+                        }
+                    })
+                    .flatMap(isLock -> {
+                        recorded.set(true);
+                        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(
+                                System.nanoTime() - start);
+                        lockCircuitBreaker.onSuccess(
+                                elapsedMillis > waitMillis + slowCallMarginMillis);
+                        
+                        if (!isLock) {
+                            log.error("====Lock acquisition failed====");
+                            return Mono.error(new AccountException(
+                                    ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+                        }
+                        
+                        return reactiveClient
+                                .getAtomicLong(getFencingKey(accountNumber))
+                                .incrementAndGet()
+                                .onErrorResume(e -> unlockReactive(
+                                        accountNumber, lockId)
+                                        .then(Mono.error(redisUnavailable(
+                                                "Fencing token issue failed",
+                                                e))));
+                    });
+        });
+    }
+    
+    public Mono<Void> unlockReactive(String accountNumber, long lockId) {
+        return redissonClient.reactive().getLock(getLockKey(accountNumber))
+                .unlock(lockId)
+                .onErrorResume(e -> {
+                    // 해제 실패 시에도 lease 가 지나면 lock 은 풀린다.
+                    log.error("Redis unlock failed for accountNumber : {}",
+                              accountNumber, e);
+                    return Mono.empty();
+                });
+    }
+    
+    private AccountException redisUnavailable(String message, Throwable e) {
+        log.error(message, e);
+        lockCircuitBreaker.onError();
+        
+        return new AccountException(ErrorCode.LOCK_SERVICE_UNAVAILABLE);
+    }
+    
+    /**
+     * lease 의 절반이 지날 때마다 lock 을 아직 이 thread 가 들고 있으면 lease 만큼 연장한다.
+     * 노드가 죽으면 watchdog 도 멈추므로 lock 은 짧은 lease 안에 풀린다.
+     */
+    private void startWatchdog(String accountNumber, RLock lock,
+                               long leaseMillis, long maxLeaseMillis) {
+        long ownerThreadId = Thread.currentThread().getId();
+        String watchdogKey = getWatchdogKey(accountNumber, ownerThreadId);
+        long deadline = System.nanoTime() +
+                        TimeUnit.MILLISECONDS.toNanos(maxLeaseMillis);
+        long period = Math.max(1L, leaseMillis / 2);
+        CompletableFuture<ScheduledFuture<?>> self = new CompletableFuture<>();
+        
+        ScheduledFuture<?> watchdog = watchdogExecutor.scheduleAtFixedRate(() -> {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(
+                    deadline - System.nanoTime());
+            try {
+                if (remainingMillis > 0 && lock.isHeldByThread(ownerThreadId)) {
+                    lock.expire(Math.min(leaseMillis, remainingMillis),
+                                TimeUnit.MILLISECONDS);
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("Lock lease extension failed for accountNumber : {}",
+                          accountNumber, e);
+                return;
+            }
+            
+            if (remainingMillis <= 0) {
+                log.warn("Lock lease limit reached for accountNumber : {}",
+                         accountNumber);
+            }
+            self.thenAccept(future -> {
+                future.cancel(false);
+                watchdogs.remove(watchdogKey, future);
+            });
+        }, period, period, TimeUnit.MILLISECONDS);
+        watchdogs.put(watchdogKey, watchdog);
+        self.complete(watchdog);
+    }
+    
+    private void releaseQuietly(RLock lock) {
+        try {
+            lock.unlock();
+        } catch (Exception e) {
+            log.error("Redis unlock failed", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        watchdogExecutor.shutdownNow();
+    }
+    
+    private void lockWithoutRedis(String accountNumber, long waitMillis) {
+        if (!localFallback) {
+            throw new AccountException(ErrorCode.LOCK_SERVICE_UNAVAILABLE);
+        }
+        
+        log.warn("Redis lock unavailable, using local lock for " +
+                 "accountNumber : {}", accountNumber);
+        try {
+            if (!getLocalLock(accountNumber).tryLock(
+                    waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+    
+    private ReentrantLock getLocalLock(String accountNumber) {
+        return localLocks[(accountNumber.hashCode() & 0x7fffffff) %
+                          LOCAL_LOCK_STRIPES];
+    }
+    
+    private static ReentrantLock[] createLocalLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCAL_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        
+        return locks;
     }
 }
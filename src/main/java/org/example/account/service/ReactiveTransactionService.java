@@ -0,0 +1,183 @@
+package org.example.account.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.aop.AccountLockContext;
+import org.example.account.dto.TransactionDto;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 반응형 잔액 사용/취소/거래 확인 (account.reactive.enabled=true)
+ * 검증과 잔액 변경은 TransactionService / BalanceMutationService 의 것을 그대로 사용하고,
+ * JPA 호출은 DB connection 수만큼의 jdbc scheduler 에서만 실행하고,
+ * 계좌 lock 은 잔액 변경을 실행하는 jdbc worker 에서 잡아 lease 가 처리 시간만 덮게 한다.
+ * 실패 거래 기록도 여기서 한다. (동기 경로에서는 컨트롤러가 한다.)
+ * 잔액 엔진 모드에서는 사용/취소를 엔진이 처리한다. (엔진만 잔액을 바꾼다.)
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.reactive.enabled", havingValue = "true")
+public class ReactiveTransactionService {
+    private static final long TRY_LOCK_MILLIS = 1000L;
+    private static final long LEASE_MILLIS = 3000L;
+    
+    private final TransactionService transactionService;
+    private final BalanceMutationService balanceMutationService;
+    private final LockService lockService;
+    private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<BalanceEngineService> balanceEngineService;
+    private final Scheduler jdbcScheduler;
+    
+    public ReactiveTransactionService(
+            TransactionService transactionService,
+            BalanceMutationService balanceMutationService,
+            LockService lockService,
+            AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<BalanceEngineService> balanceEngineService,
+            @Value("${account.reactive.jdbc-threads:10}") int jdbcThreads,
+            @Value("${account.reactive.jdbc-queue-size:1000}")
+            int jdbcQueueSize) {
+        this.transactionService = transactionService;
+        this.balanceMutationService = balanceMutationService;
+        this.lockService = lockService;
+        this.adaptiveConcurrencyLimiter = adaptiveConcurrencyLimiter;
+        this.transactionTemplate = transactionTemplate;
+        this.balanceEngineService = balanceEngineService;
+        this.jdbcScheduler = Schedulers.newBoundedElastic(
+                jdbcThreads, jdbcQueueSize, "account-reactive-jdbc");
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        jdbcScheduler.dispose();
+    }
+    
+    public Mono<TransactionDto> useBalance(
+            Long userId, String accountNumber, Long amount) {
+        BalanceEngineService engine = balanceEngineService.getIfAvailable();
+        Mono<TransactionDto> result = engine != null ?
+                jdbc(() -> engine.useBalance(userId, accountNumber, amount)) :
+                lockedUseBalance(userId, accountNumber, amount);
+        
+        return result.onErrorResume(
+                AccountException.class, e -> recordFailure(
+                        e, () -> transactionService.saveFailedUseTransaction(
+                                accountNumber, amount)));
+    }
+    
+    public Mono<TransactionDto> cancelBalance(
+            String transactionId, String accountNumber, Long amount) {
+        BalanceEngineService engine = balanceEngineService.getIfAvailable();
+        Mono<TransactionDto> result = engine != null ?
+                jdbc(() -> engine.cancelBalance(
+                        transactionId, accountNumber, amount)) :
+                lockedCancelBalance(transactionId, accountNumber, amount);
+        
+        return result.onErrorResume(
+                AccountException.class, e -> recordFailure(
+                        e, () -> transactionService.saveFailedCancelTransaction(
+                                accountNumber, amount)));
+    }
+    
+    public Mono<TransactionDto> queryTransaction(String transactionId) {
+        return jdbc(() -> transactionService.queryTransaction(transactionId));
+    }
+    
+    private Mono<TransactionDto> lockedUseBalance(
+            Long userId, String accountNumber, Long amount) {
+        return jdbc(() -> transactionService.validateUse(
+                        userId, accountNumber, amount))
+                .flatMap(accountDto -> withAccountLock(
+                        accountNumber,
+                        () -> balanceMutationService.applyUseBalance(
+                                accountDto, amount)));
+    }
+    
+    private Mono<TransactionDto> lockedCancelBalance(
+            String transactionId, String accountNumber, Long amount) {
+        return jdbc(() -> transactionService.validateCancel(
+                        transactionId, accountNumber, amount))
+                .flatMap(accountDto -> withAccountLock(
+                        accountNumber,
+                        () -> balanceMutationService.applyCancelBalance(
+                                accountDto, transactionId, amount)));
+    }
+    
+    /**
+     * 동기 경로의 @AccountLock 과 같은 순서로 동시 처리 제한 - lock - 트랜잭션 을 적용한다.
+     * lock 은 jdbc worker 가 작업을 시작한 뒤에 잡으므로
+     * worker 대기열에서 기다리는 동안 lease 가 흘러가지 않는다.
+     * lock 은 커밋 후 같은 worker 에서 해제된다.
+     */
+    private Mono<TransactionDto> withAccountLock(
+            String accountNumber, Supplier<TransactionDto> mutation) {
+        return Mono.defer(() -> {
+            if (!adaptiveConcurrencyLimiter.tryAcquire()) {
+                return Mono.error(new AccountException(
+                        ErrorCode.TOO_MANY_CONCURRENT_REQUESTS));
+            }
+            
+            long start = System.nanoTime();
+            return jdbc(() -> mutateInsideLock(accountNumber, mutation))
+                    .doFinally(signal -> adaptiveConcurrencyLimiter.release(
+                            System.nanoTime() - start));
+        });
+    }
+    
+    private TransactionDto mutateInsideLock(
+            String accountNumber, Supplier<TransactionDto> mutation) {
+        long lockId = lockService.newReactiveLockId();
+        Long fencingToken = lockService.lockReactive(
+                accountNumber, lockId, TRY_LOCK_MILLIS, LEASE_MILLIS).block();
+        try {
+            return transactionTemplate.execute(status -> {
+                AccountLockContext.setFencingToken(accountNumber, fencingToken);
+                try {
+                    return mutation.get();
+                } finally {
+                    AccountLockContext.clear(accountNumber);
+                }
+            });
+        } finally {
+            lockService.unlockReactive(accountNumber, lockId).block();
+        }
+    }
+    
+    private Mono<TransactionDto> recordFailure(
+            AccountException e, Runnable saveFailedTransaction) {
+        log.error(e.getErrorMessage());
+        if (!TransactionService.isTransactionFailure(e)) {
+            return Mono.error(e);
+        }
+        
+        return jdbc(() -> {
+            saveFailedTransaction.run();
+            return null;
+        }).then(Mono.error(e));
+    }
+    
+    /**
+     * jdbc worker 대기열이 가득 차면 동시 처리 제한과 같이 거절한다.
+     */
+    private <T> Mono<T> jdbc(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(jdbcScheduler)
+                .onErrorMap(RejectedExecutionException.class,
+                            e -> new AccountException(
+                                    ErrorCode.TOO_MANY_CONCURRENT_REQUESTS));
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+
+/**
+ * 다중 인스턴스용 sliding window
+ * key : ASPL:{accountNumber}:m:{epochMinute}, ASPL:{accountNumber}:h:{epochHour}
+ * 이 인스턴스의 사용 금액만 담는 로컬 window 로 먼저 거절하고(하한),
+ * 통과한 경우에만 Redis script 로 전체 인스턴스 합계를 확인/누적한다.
+ * Redis 장애 시에는 로컬 window 만으로 판단한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.spending-limit.store",
+                       havingValue = "redis")
+public class RedisSpendingLimitStore implements SpendingLimitStore {
+    private static final String TRY_ADD_SCRIPT =
+            "local minute = tonumber(ARGV[1]) " +
+            "local hour = math.floor(minute / 60) " +
+            "local amount = tonumber(ARGV[2]) " +
+            "local hourlyLimit = tonumber(ARGV[3]) " +
+            "local dailyLimit = tonumber(ARGV[4]) " +
+            "local prefix = KEYS[1] " +
+            "if ARGV[5] == '1' then " +
+            "  if hourlyLimit > 0 then " +
+            "    local sum = 0 " +
+            "    for m = minute - 59, minute do " +
+            "      sum = sum + tonumber(redis.call('GET', prefix .. ':m:' .. m) or '0') " +
+            "    end " +
+            "    if sum + amount > hourlyLimit then return 0 end " +
+            "  end " +
+            "  if dailyLimit > 0 then " +
+            "    local sum = 0 " +
+            "    for h = hour - 23, hour do " +
+            "      sum = sum + tonumber(redis.call('GET', prefix .. ':h:' .. h) or '0') " +
+            "    end " +
+            "    if sum + amount > dailyLimit then return 0 end " +
+            "  end " +
+            "end " +
+            "redis.call('INCRBY', prefix .. ':m:' .. minute, amount) " +
+            "redis.call('EXPIRE', prefix .. ':m:' .. minute, 3660) " +
+            "redis.call('INCRBY', prefix .. ':h:' .. hour, amount) " +
+            "redis.call('EXPIRE', prefix .. ':h:' .. hour, 90000) " +
+            "return 1";
+    
+    private final RedissonClient redissonClient;
+    private final InMemorySpendingLimitStore local =
+            new InMemorySpendingLimitStore();
+    
+    public RedisSpendingLimitStore(@Lazy RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+    
+    @Override
+    public boolean tryAdd(String accountNumber, long amount, long epochMillis,
+                          long hourlyLimit, long dailyLimit) {
+        if (!local.tryAdd(accountNumber, amount, epochMillis,
+                          hourlyLimit, dailyLimit)) {
+            return false;
+        }
+        
+        try {
+            if (eval(accountNumber, amount, epochMillis, hourlyLimit,
+                     dailyLimit, true)) {
+                return true;
+            }
+        } catch (Exception e) {
+            log.error("Spending limit check on redis failed for " +
+                      "accountNumber : {}, using local window", accountNumber, e);
+            return true;
+        }
+        local.subtract(accountNumber, amount, epochMillis);
+        
+        return false;
+    }
+    
+    @Override
+    public void subtract(String accountNumber, long amount, long epochMillis) {
+        local.subtract(accountNumber, amount, epochMillis);
+        try {
+            eval(accountNumber, -amount, epochMillis, 0, 0, false);
+        } catch (Exception e) {
+            log.error("Spending limit rollback on redis failed for " +
+                      "accountNumber : {}", accountNumber, e);
+        }
+    }
+    
+    /**
+     * Redis 값은 다른 인스턴스와 공유되므로 로컬 window 만 다시 채운다.
+     */
+    @Override
+    public void seed(String accountNumber, long amount, long epochMillis) {
+        local.seed(accountNumber, amount, epochMillis);
+    }
+    
+    /**
+     * Redis key 는 EXPIRE 로 정리되므로 로컬 window 만 정리한다.
+     */
+    @Override
+    public void evictIdle(long epochMillis) {
+        local.evictIdle(epochMillis);
+    }
+    
+    private boolean eval(String accountNumber, long amount, long epochMillis,
+                         long hourlyLimit, long dailyLimit, boolean check) {
+        Long added = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                TRY_ADD_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                Collections.<Object>singletonList(
+                        "ASPL:{" + accountNumber + "}"),
+                String.valueOf(epochMillis / 60_000),
+                String.valueOf(amount),
+                String.valueOf(hourlyLimit),
+                String.valueOf(dailyLimit),
+                check ? "1" : "0"
+        );
+        
+        return added != null && added == 1L;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.account.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.account.aop.StageLatencyContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * repository 호출 시간을 QUERY 단계로 기록한다.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "account.latency.enabled",
+                       havingValue = "true", matchIfMissing = true)
+public class RepositoryLatencyAspect {
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object aroundRepository(ProceedingJoinPoint proceedingJoinPoint)
+            throws Throwable {
+        long start = StageLatencyContext.startQuery();
+        try {
+            return proceedingJoinPoint.proceed();
+        } finally {
+            StageLatencyContext.stopQuery(start);
+        }
+    }
+}
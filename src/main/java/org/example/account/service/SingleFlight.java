@@ -0,0 +1,74 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 조회를 하나로 합친다.
+ * 먼저 들어온 요청(leader)만 loader 를 실행하고, 실행 중에 들어온 요청은 그 결과(혹은 예외)를 함께 받는다.
+ * 결과를 캐시하지는 않으므로 leader 가 끝난 뒤의 요청은 다시 조회한다.
+ */
+@Component
+public class SingleFlight {
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("account.singleflight.in.flight",
+                                   Collections.emptyList(),
+                                   inFlight);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String group, Object key, Supplier<T> loader) {
+        String flightKey = group + ":" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing =
+                inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            count(group, "coalesced");
+            return (T) await(existing);
+        }
+        
+        count(group, "leader");
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+    
+    private Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    private void count(String group, String role) {
+        meterRegistry.counter("account.singleflight.calls",
+                              "group", group, "role", role)
+                .increment();
+    }
+}
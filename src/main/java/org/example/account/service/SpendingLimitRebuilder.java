@@ -0,0 +1,55 @@
+package org.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.dto.SpendingEntry;
+import org.example.account.repository.BalanceHoldRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.HoldStatus;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 기동 시 최근 24시간의 성공한 사용 거래와 확정 전 홀드로 사용 한도 window 를 다시 채운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpendingLimitRebuilder {
+    private final SpendingLimiter spendingLimiter;
+    private final TransactionRepository transactionRepository;
+    private final BalanceHoldRepository balanceHoldRepository;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!spendingLimiter.isEnabled()) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        int seeded = seed(transactionRepository.findRoutedSpendingSince(from)) +
+                     seed(balanceHoldRepository
+                                  .findSpendingByHoldStatusAndCreatedAtAfter(
+                                          HoldStatus.PENDING, from));
+        
+        log.info("Spending limit windows rebuilt from {} entries in {} ms",
+                 seeded, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    private int seed(List<SpendingEntry> entries) {
+        for (SpendingEntry entry : entries) {
+            spendingLimiter.seed(
+                    entry.getAccountNumber(), entry.getAmount(),
+                    entry.getSpentAt().atZone(ZoneId.systemDefault())
+                            .toInstant().toEpochMilli());
+        }
+        
+        return entries.size();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.account.service;
+
+/**
+ * 계좌별 최근 사용 금액 sliding window
+ * 최근 1시간은 분 단위, 최근 24시간은 시간 단위 bucket 으로 합산한다.
+ * 한도가 0 이하면 해당 window 는 확인하지 않는다.
+ */
+public interface SpendingLimitStore {
+    /**
+     * 한도 확인과 누적을 한 번에 수행한다.
+     * @return 한도를 넘지 않아 누적했으면 true
+     */
+    boolean tryAdd(String accountNumber, long amount, long epochMillis,
+                   long hourlyLimit, long dailyLimit);
+    
+    /**
+     * tryAdd 로 누적했던 금액을 되돌린다. (거래가 롤백된 경우)
+     */
+    void subtract(String accountNumber, long amount, long epochMillis);
+    
+    /**
+     * 기동 시 최근 거래로 window 를 다시 채운다. 한도는 확인하지 않는다.
+     */
+    void seed(String accountNumber, long amount, long epochMillis);
+    
+    /**
+     * 최근 24시간 동안 사용이 없어 합계가 0 인 계좌의 window 를 정리한다.
+     * 만료로 정리되는 저장소는 아무것도 하지 않는다.
+     */
+    default void evictIdle(long epochMillis) {
+    }
+}
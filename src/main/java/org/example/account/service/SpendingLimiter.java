@@ -0,0 +1,127 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 계좌별 시간당 / 일일 사용 한도 (velocity limit)
+ * 거래 테이블을 SUM 하지 않고 SpendingLimitStore 의 sliding window 로 판단한다.
+ * 잔액 사용과 승인(홀드)이 계좌 lock 안에서 호출하며,
+ * 트랜잭션이 롤백되면 누적했던 금액을 되돌린다.
+ * 시간당 / 일일 한도가 모두 0 이하면 확인할 것이 없으므로 꺼진 것으로 본다.
+ */
+@Component
+public class SpendingLimiter {
+    private final SpendingLimitStore spendingLimitStore;
+    private final boolean enabled;
+    private final long hourlyLimit;
+    private final long dailyLimit;
+    
+    private final Counter rejectedCounter;
+    
+    public SpendingLimiter(
+            SpendingLimitStore spendingLimitStore,
+            MeterRegistry meterRegistry,
+            @Value("${account.spending-limit.enabled:true}") boolean enabled,
+            @Value("${account.spending-limit.hourly-limit:0}") long hourlyLimit,
+            @Value("${account.spending-limit.daily-limit:0}") long dailyLimit) {
+        this.spendingLimitStore = spendingLimitStore;
+        this.enabled = enabled && (hourlyLimit > 0 || dailyLimit > 0);
+        this.hourlyLimit = hourlyLimit;
+        this.dailyLimit = dailyLimit;
+        
+        this.rejectedCounter = meterRegistry.counter(
+                "account.spending.limit.rejected");
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * @return 누적한 시각(epoch millis), 한도를 확인하지 않으면 0
+     */
+    public long acquire(String accountNumber, long amount) {
+        if (!enabled) {
+            return 0L;
+        }
+        
+        long now = System.currentTimeMillis();
+        if (!spendingLimitStore.tryAdd(accountNumber, amount, now,
+                                       hourlyLimit, dailyLimit)) {
+            rejectedCounter.increment();
+            throw new AccountException(ErrorCode.SPENDING_LIMIT_EXCEEDED);
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                spendingLimitStore.subtract(
+                                        accountNumber, amount, now);
+                            }
+                        }
+                    });
+        }
+        
+        return now;
+    }
+    
+    /**
+     * 트랜잭션 밖에서 누적한 금액(잔액 엔진)이 거절되었을 때 되돌린다.
+     */
+    public void release(String accountNumber, long amount, long epochMillis) {
+        if (enabled && epochMillis > 0) {
+            spendingLimitStore.subtract(accountNumber, amount, epochMillis);
+        }
+    }
+    
+    /**
+     * 해제/만료된 승인(홀드)이 승인 때 누적한 금액을 되돌린다. 트랜잭션 안이면 커밋된 뒤에 되돌린다.
+     *
+     * @param epochMillis 승인 시각 (SpendingLimitRebuilder 와 같이 홀드 생성 시각)
+     */
+    public void releaseOnCommit(String accountNumber, long amount,
+                                long epochMillis) {
+        if (!enabled || epochMillis <= 0) {
+            return;
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            spendingLimitStore.subtract(
+                                    accountNumber, amount, epochMillis);
+                        }
+                    });
+        } else {
+            spendingLimitStore.subtract(accountNumber, amount, epochMillis);
+        }
+    }
+    
+    public void seed(String accountNumber, long amount, long epochMillis) {
+        spendingLimitStore.seed(accountNumber, amount, epochMillis);
+    }
+    
+    /**
+     * 하루 넘게 사용이 없는 계좌의 window 를 정리해 계좌 수만큼 메모리가 늘어나지 않게 한다.
+     */
+    @Scheduled(fixedDelayString =
+            "${account.spending-limit.evict-interval-ms:600000}")
+    public void evictIdle() {
+        if (enabled) {
+            spendingLimitStore.evictIdle(System.currentTimeMillis());
+        }
+    }
+}
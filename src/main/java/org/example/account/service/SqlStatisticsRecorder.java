@@ -0,0 +1,138 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.aop.SqlStatisticsContext;
+import org.example.account.dto.SqlStatisticsReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔드포인트별 요청당 SQL 통계 누적
+ * 1. SQL 수가 statement-budget 을 넘으면 경고
+ * 2. 같은 SQL 이 repeated-statement-threshold 이상 반복되면 N+1 의심 경고
+ */
+@Slf4j
+@Component
+public class SqlStatisticsRecorder {
+    private final int statementBudget;
+    private final int repeatedStatementThreshold;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, EndpointStatistics> endpoints =
+            new ConcurrentHashMap<>();
+    private volatile LocalDateTime since = LocalDateTime.now();
+    
+    public SqlStatisticsRecorder(
+            @Value("${account.sql-statistics.statement-budget:10}")
+            int statementBudget,
+            @Value("${account.sql-statistics.repeated-statement-threshold:5}")
+            int repeatedStatementThreshold,
+            MeterRegistry meterRegistry) {
+        this.statementBudget = statementBudget;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public void record(String endpoint, SqlStatisticsContext.Counters counters) {
+        boolean overBudget = counters.getStatements() > statementBudget;
+        Map.Entry<String, Integer> mostRepeated =
+                counters.getMostRepeatedStatement();
+        boolean repeated = mostRepeated != null &&
+                           mostRepeated.getValue() >= repeatedStatementThreshold;
+        
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStatistics())
+                .add(counters, overBudget, repeated ? mostRepeated.getKey() : null);
+        meterRegistry.summary("account.sql.statements", "endpoint", endpoint)
+                .record(counters.getStatements());
+        
+        if (overBudget) {
+            meterRegistry.counter("account.sql.budget.exceeded",
+                                  "endpoint", endpoint).increment();
+            log.warn("{} executed {} statements (budget {}), " +
+                     "entityLoads={}, flushes={}, jdbc={}ms",
+                     endpoint, counters.getStatements(), statementBudget,
+                     counters.getEntityLoads(), counters.getFlushes(),
+                     TimeUnit.NANOSECONDS.toMillis(counters.getJdbcNanos()));
+        }
+        if (repeated) {
+            meterRegistry.counter("account.sql.repeated.statement",
+                                  "endpoint", endpoint).increment();
+            log.warn("{} possible N+1, same statement executed {} times: {}",
+                     endpoint, mostRepeated.getValue(), mostRepeated.getKey());
+        }
+    }
+    
+    public SqlStatisticsReport report() {
+        List<SqlStatisticsReport.Endpoint> result = new ArrayList<>();
+        endpoints.forEach((endpoint, statistics) ->
+                                  result.add(statistics.report(endpoint)));
+        result.sort(Comparator.comparing(
+                SqlStatisticsReport.Endpoint::getEndpoint));
+        
+        return SqlStatisticsReport.builder()
+                .since(since)
+                .statementBudget(statementBudget)
+                .repeatedStatementThreshold(repeatedStatementThreshold)
+                .endpoints(result)
+                .build();
+    }
+    
+    public void reset() {
+        endpoints.clear();
+        since = LocalDateTime.now();
+    }
+    
+    private static class EndpointStatistics {
+        private long requests;
+        private long statements;
+        private long maxStatements;
+        private long entityLoads;
+        private long flushes;
+        private long jdbcNanos;
+        private long overBudget;
+        private long repeatedStatement;
+        private String lastRepeatedSql;
+        
+        private synchronized void add(SqlStatisticsContext.Counters counters,
+                                      boolean overBudget, String repeatedSql) {
+            requests++;
+            statements += counters.getStatements();
+            maxStatements = Math.max(maxStatements, counters.getStatements());
+            entityLoads += counters.getEntityLoads();
+            flushes += counters.getFlushes();
+            jdbcNanos += counters.getJdbcNanos();
+            if (overBudget) {
+                this.overBudget++;
+            }
+            if (repeatedSql != null) {
+                repeatedStatement++;
+                lastRepeatedSql = repeatedSql;
+            }
+        }
+        
+        private synchronized SqlStatisticsReport.Endpoint report(
+                String endpoint) {
+            return SqlStatisticsReport.Endpoint.builder()
+                    .endpoint(endpoint)
+                    .requests(requests)
+                    .avgStatements((double) statements / requests)
+                    .maxStatements(maxStatements)
+                    .avgEntityLoads((double) entityLoads / requests)
+                    .avgFlushes((double) flushes / requests)
+                    .avgJdbcMs(jdbcNanos / 1_000_000.0 / requests)
+                    .overBudget(overBudget)
+                    .repeatedStatement(repeatedStatement)
+                    .lastRepeatedSql(lastRepeatedSql)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.account.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.account.aop.StageLatencyContext;
+import org.example.account.dto.LatencyReport;
+import org.example.account.type.LatencyStage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 엔드포인트 x 단계별 지연 시간 HdrHistogram 과 분 단위 처리량
+ * 요청 thread 는 lock 없는 Recorder 에만 기록하고,
+ * 조회 시 interval histogram 을 꺼내 누적 histogram 에 더한다.
+ */
+@Component
+public class StageLatencyRecorder {
+    private static final long HIGHEST_TRACKABLE_MICROS =
+            TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final int THROUGHPUT_MINUTES = 60;
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+    
+    private final boolean enabled;
+    private final ConcurrentMap<String, EndpointLatency> endpoints =
+            new ConcurrentHashMap<>();
+    private volatile LocalDateTime since = LocalDateTime.now();
+    
+    public StageLatencyRecorder(
+            @Value("${account.latency.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        StageLatencyContext.setEnabled(enabled);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void record(String endpoint, long[] stageNanos) {
+        record(endpoint, stageNanos, System.currentTimeMillis() / 60_000);
+    }
+    
+    void record(String endpoint, long[] stageNanos, long epochMinute) {
+        EndpointLatency latency = endpoints.computeIfAbsent(
+                endpoint, key -> new EndpointLatency());
+        for (int i = 0; i < STAGES.length; i++) {
+            if (stageNanos[i] > 0) {
+                latency.recorders[i].recordValue(Math.min(
+                        HIGHEST_TRACKABLE_MICROS,
+                        TimeUnit.NANOSECONDS.toMicros(stageNanos[i])));
+            }
+        }
+        latency.throughput.increment(epochMinute);
+    }
+    
+    public LatencyReport report() {
+        return report(System.currentTimeMillis() / 60_000);
+    }
+    
+    synchronized LatencyReport report(long epochMinute) {
+        List<LatencyReport.Endpoint> result = new ArrayList<>();
+        endpoints.forEach((endpoint, latency) ->
+                                  result.add(latency.report(endpoint,
+                                                            epochMinute)));
+        result.sort(Comparator.comparing(LatencyReport.Endpoint::getEndpoint));
+        
+        return LatencyReport.builder()
+                .enabled(enabled)
+                .since(since)
+                .endpoints(result)
+                .build();
+    }
+    
+    public synchronized void reset() {
+        endpoints.clear();
+        since = LocalDateTime.now();
+    }
+    
+    private static class EndpointLatency {
+        private final Recorder[] recorders = new Recorder[STAGES.length];
+        private final Histogram[] intervals = new Histogram[STAGES.length];
+        private final Histogram[] totals = new Histogram[STAGES.length];
+        private final MinuteCounter throughput = new MinuteCounter();
+        
+        private EndpointLatency() {
+            for (int i = 0; i < STAGES.length; i++) {
+                recorders[i] = new Recorder(
+                        HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+                totals[i] = new Histogram(
+                        HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            }
+        }
+        
+        private LatencyReport.Endpoint report(
+                String endpoint, long epochMinute) {
+            Map<LatencyStage, LatencyReport.Stage> stages =
+                    new EnumMap<>(LatencyStage.class);
+            for (int i = 0; i < STAGES.length; i++) {
+                intervals[i] = recorders[i].getIntervalHistogram(intervals[i]);
+                totals[i].add(intervals[i]);
+                if (totals[i].getTotalCount() > 0) {
+                    stages.put(STAGES[i], stageOf(totals[i]));
+                }
+            }
+            
+            return LatencyReport.Endpoint.builder()
+                    .endpoint(endpoint)
+                    .stages(stages)
+                    .throughput(throughput.minutes(epochMinute))
+                    .build();
+        }
+        
+        private LatencyReport.Stage stageOf(Histogram histogram) {
+            return LatencyReport.Stage.builder()
+                    .count(histogram.getTotalCount())
+                    .meanMs(histogram.getMean() / 1000)
+                    .p50Ms(histogram.getValueAtPercentile(50) / 1000.0)
+                    .p90Ms(histogram.getValueAtPercentile(90) / 1000.0)
+                    .p99Ms(histogram.getValueAtPercentile(99) / 1000.0)
+                    .p999Ms(histogram.getValueAtPercentile(99.9) / 1000.0)
+                    .maxMs(histogram.getMaxValue() / 1000.0)
+                    .build();
+        }
+    }
+    
+    /**
+     * 최근 THROUGHPUT_MINUTES 분의 요청 수 ring buffer
+     * 분이 바뀌는 순간 몇 건이 누락될 수 있는 대략적인 값이다.
+     */
+    private static class MinuteCounter {
+        private final AtomicLongArray minutes =
+                new AtomicLongArray(THROUGHPUT_MINUTES);
+        private final AtomicLongArray counts =
+                new AtomicLongArray(THROUGHPUT_MINUTES);
+        
+        private void increment(long epochMinute) {
+            int slot = (int) (epochMinute % THROUGHPUT_MINUTES);
+            long stamp = minutes.get(slot);
+            if (stamp != epochMinute &&
+                minutes.compareAndSet(slot, stamp, epochMinute)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+        
+        private List<LatencyReport.Minute> minutes(long currentMinute) {
+            List<LatencyReport.Minute> result = new ArrayList<>();
+            for (long minute = currentMinute - THROUGHPUT_MINUTES + 1;
+                 minute <= currentMinute; minute++) {
+                int slot = (int) (minute % THROUGHPUT_MINUTES);
+                if (minutes.get(slot) != minute) {
+                    continue;
+                }
+                long requests = counts.get(slot);
+                result.add(LatencyReport.Minute.builder()
+                                   .minute(LocalDateTime.ofInstant(
+                                           Instant.ofEpochSecond(minute * 60),
+                                           ZoneId.systemDefault()))
+                                   .requests(requests)
+                                   .tps(requests / 60.0)
+                                   .build());
+            }
+            
+            return result;
+        }
+    }
+}
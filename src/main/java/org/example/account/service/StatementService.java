@@ -0,0 +1,372 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.domain.Account;
+import org.example.account.domain.StatementCheckpoint;
+import org.example.account.dto.StatementLine;
+import org.example.account.dto.StatementReport;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.StatementCheckpointRepository;
+import org.example.account.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 월별 거래 명세서 작성
+ * 계좌를 id % parallelism 으로 worker 에 나누고, worker 는 계좌 묶음(chunk-size) 단위로
+ * 해당 월 파티션의 성공 거래를 한 번의 stream 으로 읽어 partition 별 파일에 이어 쓴다.
+ * 파일은 FileChannel + direct buffer 로 쓰며, chunk 마다 force 후 checkpoint 에
+ * 마지막 계좌와 파일 크기를 기록한다. 재시작 시 파일을 그 크기로 잘라내고 이어서 작성한다.
+ */
+@Slf4j
+@Service
+public class StatementService {
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final StatementCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+    private final Path outputDir;
+    
+    private final AtomicLong accountsPerSecond = new AtomicLong();
+    private final AtomicLong bytesPerSecond = new AtomicLong();
+    private final AtomicReference<StatementReport> lastReport =
+            new AtomicReference<>();
+    
+    public StatementService(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            StatementCheckpointRepository checkpointRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${account.statement.parallelism:4}") int parallelism,
+            @Value("${account.statement.chunk-size:256}") int chunkSize,
+            @Value("${account.statement.output-dir:build/statements}")
+            String outputDir) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.outputDir = Paths.get(outputDir);
+        
+        meterRegistry.gauge("account.statement.accounts.per.second",
+                            accountsPerSecond);
+        meterRegistry.gauge("account.statement.bytes.per.second",
+                            bytesPerSecond);
+    }
+    
+    /**
+     * 매월 초 지난 달 명세서를 작성한다.
+     */
+    @Scheduled(cron = "${account.statement.cron:0 0 4 1 * *}")
+    public void scheduledGenerate() {
+        try {
+            generate(YearMonth.now().minusMonths(1));
+        } catch (Exception e) {
+            log.error("Statement generation failed", e);
+        }
+    }
+    
+    public StatementReport generate(YearMonth month) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        List<Long> accountIds = accountRepository.findAllIds();
+        
+        List<List<Long>> partitions = new ArrayList<>();
+        for (int part = 0; part < parallelism; part++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Long accountId : accountIds) {
+            partitions.get(Math.floorMod(accountId, parallelism))
+                    .add(accountId);
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<PartResult> results = new ArrayList<>();
+        try {
+            List<Future<PartResult>> futures = new ArrayList<>();
+            for (int part = 0; part < parallelism; part++) {
+                int index = part;
+                futures.add(executor.submit(() -> writePart(
+                        month, index, partitions.get(index))));
+            }
+            for (Future<PartResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Statement generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(
+                    "Statement generation failed for " + month, e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        
+        long elapsedNanos = Math.max(1L, System.nanoTime() - start);
+        long accounts = results.stream().mapToLong(r -> r.accounts).sum();
+        long bytes = results.stream().mapToLong(r -> r.bytes).sum();
+        double accountRate = accounts * 1e9 / elapsedNanos;
+        double byteRate = bytes * 1e9 / elapsedNanos;
+        accountsPerSecond.set(Math.round(accountRate));
+        bytesPerSecond.set(Math.round(byteRate));
+        
+        StatementReport report = StatementReport.builder()
+                .month(month.toString())
+                .startedAt(startedAt)
+                .accounts(accounts)
+                .statements(results.stream()
+                                    .mapToLong(r -> r.statements).sum())
+                .transactions(results.stream()
+                                      .mapToLong(r -> r.transactions).sum())
+                .bytes(bytes)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .accountsPerSecond(accountRate)
+                .bytesPerSecond(byteRate)
+                .resumedParts((int) results.stream()
+                        .filter(r -> r.resumed).count())
+                .files(results.stream()
+                               .map(r -> r.file.toString())
+                               .collect(Collectors.toList()))
+                .build();
+        lastReport.set(report);
+        
+        log.info("Generated {} statements of {} ({} accounts, {} " +
+                 "transactions, {} bytes) in {} ms ({} accounts/s, {} B/s), " +
+                 "{} parts resumed",
+                 report.getStatements(), report.getMonth(),
+                 report.getAccounts(), report.getTransactions(),
+                 report.getBytes(), report.getElapsedMillis(),
+                 Math.round(accountRate), Math.round(byteRate),
+                 report.getResumedParts());
+        
+        return report;
+    }
+    
+    public Optional<StatementReport> getLastReport() {
+        return Optional.ofNullable(lastReport.get());
+    }
+    
+    static String checkpointIdOf(YearMonth month, int part, int parts) {
+        return partitionKeyOf(month) + "-" + part + "of" + parts;
+    }
+    
+    private static int partitionKeyOf(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+    
+    private PartResult writePart(
+            YearMonth month, int part, List<Long> accountIds)
+            throws IOException {
+        String name = "statements-" + partitionKeyOf(month) + "-part-" + part;
+        Path file = outputDir.resolve(name + ".txt");
+        Path working = outputDir.resolve(name + ".part");
+        String checkpointId = checkpointIdOf(month, part, parallelism);
+        StatementCheckpoint checkpoint = checkpointRepository
+                .findById(checkpointId)
+                .orElseGet(() -> StatementCheckpoint.builder()
+                        .id(checkpointId)
+                        .lastAccountId(0L)
+                        .committedBytes(0L)
+                        .build());
+        PartResult result = new PartResult(file);
+        
+        if (checkpoint.isCompleted() && Files.exists(file)) {
+            result.resumed = true;
+            return result;
+        }
+        
+        Files.createDirectories(outputDir);
+        try (FileChannel channel = FileChannel.open(
+                working, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // 커밋되지 않은 꼬리는 버리고, 커밋된 크기보다 짧으면(파일 유실) 처음부터 쓴다.
+            if (channel.size() < checkpoint.getCommittedBytes() ||
+                checkpoint.isCompleted()) {
+                checkpoint.setLastAccountId(0L);
+                checkpoint.setCommittedBytes(0L);
+                checkpoint.setCompleted(false);
+            }
+            result.resumed = checkpoint.getLastAccountId() > 0;
+            channel.truncate(checkpoint.getCommittedBytes());
+            channel.position(checkpoint.getCommittedBytes());
+            long startBytes = checkpoint.getCommittedBytes();
+            
+            long lastAccountId = checkpoint.getLastAccountId();
+            List<Long> remaining = accountIds.stream()
+                    .filter(accountId -> accountId > lastAccountId)
+                    .collect(Collectors.toList());
+            
+            StatementWriter writer = new StatementWriter(channel);
+            for (int from = 0; from < remaining.size(); from += chunkSize) {
+                List<Long> chunk = remaining.subList(
+                        from, Math.min(from + chunkSize, remaining.size()));
+                transactionTemplate.executeWithoutResult(
+                        status -> writeChunk(month, chunk, writer, result));
+                writer.flush();
+                channel.force(false);
+                
+                checkpoint.setLastAccountId(chunk.get(chunk.size() - 1));
+                checkpoint.setCommittedBytes(channel.position());
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                result.accounts += chunk.size();
+            }
+            result.bytes = channel.position() - startBytes;
+        }
+        
+        Files.move(working, file, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+        checkpoint.setCompleted(true);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        
+        return result;
+    }
+    
+    private void writeChunk(YearMonth month, List<Long> accountIds,
+                            StatementWriter writer, PartResult result) {
+        Map<Long, Account> accounts = accountRepository
+                .findWithUserByIdIn(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId,
+                                          Function.identity()));
+        
+        try (Stream<StatementLine> lines =
+                     transactionRepository.streamStatementLines(
+                             partitionKeyOf(month), accountIds)) {
+            Iterator<StatementLine> iterator = lines.iterator();
+            StringBuilder body = new StringBuilder();
+            StatementLine first = null;
+            StatementLine previous = null;
+            int count = 0;
+            
+            while (iterator.hasNext()) {
+                StatementLine line = iterator.next();
+                if (previous != null &&
+                    !previous.getAccountId().equals(line.getAccountId())) {
+                    writeStatement(month, accounts.get(previous.getAccountId()),
+                                   first, previous, count, body, writer);
+                    result.statements++;
+                    body.setLength(0);
+                    count = 0;
+                }
+                if (count == 0) {
+                    first = line;
+                }
+                
+                body.append(line.getTransactedAt()).append('\t')
+                        .append(line.getTransactionType()).append('\t')
+                        .append(line.getTransactionId()).append('\t')
+                        .append(line.balanceDelta()).append('\t')
+                        .append(line.getBalanceSnapshot()).append('\n');
+                previous = line;
+                count++;
+                result.transactions++;
+            }
+            
+            if (previous != null) {
+                writeStatement(month, accounts.get(previous.getAccountId()),
+                               first, previous, count, body, writer);
+                result.statements++;
+            }
+        }
+    }
+    
+    private static void writeStatement(
+            YearMonth month, Account account, StatementLine first,
+            StatementLine last, int count, StringBuilder body,
+            StatementWriter writer) {
+        String accountNumber = account == null ? "-" :
+                account.getAccountNumber();
+        String userName = account == null ? "-" :
+                account.getAccountUser().getName();
+        
+        writer.write("# " + accountNumber + '\t' + userName + '\t' + month +
+                     '\n');
+        writer.write(body);
+        writer.write("= opening\t" +
+                     (first.getBalanceSnapshot() - first.balanceDelta()) +
+                     "\tclosing\t" + last.getBalanceSnapshot() +
+                     "\ttransactions\t" + count + "\n\n");
+    }
+    
+    private static class PartResult {
+        private final Path file;
+        private boolean resumed;
+        private long accounts;
+        private long statements;
+        private long transactions;
+        private long bytes;
+        
+        private PartResult(Path file) {
+            this.file = file;
+        }
+    }
+    
+    /**
+     * direct buffer 에 모았다가 가득 차거나 chunk 가 끝나면 channel 에 쓴다.
+     */
+    private static class StatementWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer =
+                ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        
+        private StatementWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+        
+        private void write(CharSequence text) {
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(),
+                                      bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+        
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
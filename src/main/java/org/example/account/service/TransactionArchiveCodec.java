@@ -0,0 +1,78 @@
+package org.example.account.service;
+
+import org.example.account.domain.Transaction;
+import org.example.account.domain.TransactionArchive;
+import org.example.account.dto.TransactionDto;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 보관 거래의 payload 인코딩
+ * 조회 키를 제외한 필드를 DataOutput 으로 직렬화한 뒤 deflate 로 압축한다.
+ */
+public final class TransactionArchiveCodec {
+    private static final int VERSION = 1;
+    
+    private TransactionArchiveCodec() {
+    }
+    
+    public static TransactionArchive encode(Transaction transaction) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes))) {
+            out.writeByte(VERSION);
+            out.writeLong(transaction.getAccount().getId());
+            out.writeUTF(transaction.getTransactionType().name());
+            out.writeUTF(transaction.getTransactionResultType().name());
+            out.writeLong(transaction.getAmount());
+            out.writeLong(transaction.getBalanceSnapshot());
+            out.writeBoolean(transaction.isCanceled());
+            out.writeLong(transaction.getCanceledAmount() == null ?
+                                  0L : transaction.getCanceledAmount());
+            out.writeUTF(transaction.getCancelTransactionId() == null ?
+                                 "" : transaction.getCancelTransactionId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        return TransactionArchive.builder()
+                .id(transaction.getId())
+                .transactionId(transaction.getTransactionId())
+                .accountNumber(transaction.getAccount().getAccountNumber())
+                .transactedAt(transaction.getTransactedAt())
+                .archivedAt(LocalDateTime.now())
+                .payload(bytes.toByteArray())
+                .build();
+    }
+    
+    public static TransactionDto decode(TransactionArchive archive) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(archive.getPayload())))) {
+            in.readByte();
+            in.readLong();
+            TransactionType transactionType =
+                    TransactionType.valueOf(in.readUTF());
+            TransactionResultType transactionResultType =
+                    TransactionResultType.valueOf(in.readUTF());
+            long amount = in.readLong();
+            long balanceSnapshot = in.readLong();
+            
+            return TransactionDto.builder()
+                    .accountNumber(archive.getAccountNumber())
+                    .transactionType(transactionType)
+                    .transactionResultType(transactionResultType)
+                    .amount(amount)
+                    .balanceSnapshot(balanceSnapshot)
+                    .transactionId(archive.getTransactionId())
+                    .transactedAt(archive.getTransactedAt())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
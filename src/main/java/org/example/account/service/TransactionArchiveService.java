@@ -0,0 +1,126 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.domain.Transaction;
+import org.example.account.repository.TransactionArchiveRepository;
+import org.example.account.repository.TransactionPartitionRouter;
+import org.example.account.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 취소 가능 기간(1년, TOO_OLD_ORDER_TO_CANCEL)이 지난 거래를 보관 테이블로 옮긴다.
+ * chunk 단위로 별도 트랜잭션에서 insert + delete 하므로 중간에 멈춰도 다시 이어서 처리된다.
+ * cutoff 이전 월 파티션만 읽으므로, 만료된 파티션은 이 작업으로 비워져 retire 된다.
+ */
+@Slf4j
+@Service
+public class TransactionArchiveService {
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int graceDays;
+    
+    private final Counter archivedCounter;
+    private final Timer chunkTimer;
+    private final AtomicLong hotRows = new AtomicLong();
+    private final AtomicLong archiveRows = new AtomicLong();
+    
+    public TransactionArchiveService(
+            TransactionRepository transactionRepository,
+            TransactionArchiveRepository transactionArchiveRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${account.archive.chunk-size:1000}") int chunkSize,
+            @Value("${account.archive.grace-days:7}") int graceDays) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.graceDays = graceDays;
+        
+        this.archivedCounter = meterRegistry.counter("account.archive.moved");
+        this.chunkTimer = meterRegistry.timer("account.archive.chunk");
+        meterRegistry.gauge("account.transaction.hot.rows", hotRows);
+        meterRegistry.gauge("account.transaction.archive.rows", archiveRows);
+    }
+    
+    @Scheduled(cron = "${account.archive.cron:0 0 3 * * *}")
+    public void archiveExpired() {
+        LocalDateTime cutoff = LocalDateTime.now()
+                .minusYears(1)
+                .minusDays(graceDays);
+        long start = System.nanoTime();
+        long archived = 0;
+        
+        try {
+            int moved;
+            do {
+                moved = archiveChunk(cutoff);
+                archived += moved;
+            } while (moved == chunkSize);
+        } catch (Exception e) {
+            log.error("Transaction archive failed after {} rows", archived, e);
+        }
+        
+        refreshRowCounts();
+        log.info("Archived {} transactions before {} in {} ms",
+                 archived, cutoff,
+                 Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+    
+    /**
+     * @return 옮긴 거래 수
+     */
+    public int archiveChunk(LocalDateTime cutoff) {
+        long start = System.nanoTime();
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Transaction> chunk =
+                    transactionRepository
+                            .findByPartitionKeyLessThanEqualAndTransactedAtBeforeOrderByIdAsc(
+                                    TransactionPartitionRouter.partitionKeyOf(
+                                            cutoff),
+                                    cutoff, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return 0;
+            }
+            
+            transactionArchiveRepository.saveAll(
+                    chunk.stream()
+                            .map(TransactionArchiveCodec::encode)
+                            .collect(Collectors.toList()));
+            transactionRepository.deleteAllByIdInBatch(
+                    chunk.stream()
+                            .map(Transaction::getId)
+                            .collect(Collectors.toList()));
+            
+            return chunk.size();
+        });
+        
+        int count = moved == null ? 0 : moved;
+        if (count > 0) {
+            chunkTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            archivedCounter.increment(count);
+        }
+        
+        return count;
+    }
+    
+    public void refreshRowCounts() {
+        hotRows.set(transactionRepository.count());
+        archiveRows.set(transactionArchiveRepository.count());
+    }
+}
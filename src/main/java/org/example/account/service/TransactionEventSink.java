@@ -0,0 +1,13 @@
+package org.example.account.service;
+
+import org.example.account.event.TransactionEvent;
+
+import java.util.List;
+
+/**
+ * outbox relay 가 거래 이벤트를 내보내는 대상
+ * 예외 없이 반환하면 해당 배치는 발행된 것으로 간주하고 outbox 에서 삭제한다.
+ */
+public interface TransactionEventSink {
+    void publish(List<TransactionEvent> events) throws Exception;
+}
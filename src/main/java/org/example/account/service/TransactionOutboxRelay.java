@@ -0,0 +1,96 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.domain.TransactionOutbox;
+import org.example.account.event.TransactionEvent;
+import org.example.account.repository.TransactionOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * outbox 에 쌓인 거래 이벤트를 id 순서대로 배치 발행한다.
+ * 발행 후 삭제하므로 at-least-once 이며, 수신 측은 transactionId 로 중복을 거른다.
+ */
+@Slf4j
+@Component
+public class TransactionOutboxRelay {
+    private final TransactionOutboxRepository transactionOutboxRepository;
+    private final TransactionEventSink transactionEventSink;
+    private final int batchSize;
+    
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+    
+    public TransactionOutboxRelay(
+            TransactionOutboxRepository transactionOutboxRepository,
+            TransactionEventSink transactionEventSink,
+            MeterRegistry meterRegistry,
+            @Value("${account.outbox.batch-size:500}") int batchSize) {
+        this.transactionOutboxRepository = transactionOutboxRepository;
+        this.transactionEventSink = transactionEventSink;
+        this.batchSize = batchSize;
+        
+        this.publishedCounter = meterRegistry.counter(
+                "account.outbox.relay.published");
+        this.failureCounter = meterRegistry.counter(
+                "account.outbox.relay.failures");
+        this.batchTimer = meterRegistry.timer("account.outbox.relay.batch");
+        meterRegistry.gauge("account.outbox.relay.lag.ms", lagMillis);
+    }
+    
+    @Scheduled(fixedDelayString = "${account.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            while (relayBatch() == batchSize) {
+                // 가득 찬 배치였다면 밀린 이벤트가 더 있으므로 바로 다음 배치를 읽는다.
+            }
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.error("Transaction outbox relay failed", e);
+        }
+    }
+    
+    /**
+     * @return 발행한 이벤트 수
+     */
+    public int relayBatch() throws Exception {
+        List<TransactionOutbox> batch =
+                transactionOutboxRepository.findAllByOrderByIdAsc(
+                        PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        
+        lagMillis.set(Duration.between(
+                batch.get(0).getCreatedAt() == null ?
+                        LocalDateTime.now() : batch.get(0).getCreatedAt(),
+                LocalDateTime.now()).toMillis());
+        
+        long start = System.nanoTime();
+        transactionEventSink.publish(batch.stream()
+                                             .map(TransactionEvent::from)
+                                             .collect(Collectors.toList()));
+        transactionOutboxRepository.deleteAllByIdInBatch(
+                batch.stream()
+                        .map(TransactionOutbox::getId)
+                        .collect(Collectors.toList()));
+        batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        publishedCounter.increment(batch.size());
+        
+        return batch.size();
+    }
+}
@@ -3,52 +3,79 @@ package org.example.account.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.account.aop.StageLatencyContext;
 import org.example.account.domain.Account;
 import org.example.account.domain.AccountUser;
 import org.example.account.domain.Transaction;
+import org.example.account.dto.AccountDto;
 import org.example.account.dto.TransactionDto;
 import org.example.account.exception.AccountException;
 import org.example.account.repository.AccountRepository;
 import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.TransactionArchiveRepository;
 import org.example.account.repository.TransactionRepository;
 import org.example.account.type.AccountStatus;
 import org.example.account.type.ErrorCode;
+import org.example.account.type.LatencyStage;
 import org.example.account.type.TransactionResultType;
 import org.example.account.type.TransactionType;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
     private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final BalanceMutationService balanceMutationService;
+    private final SingleFlight singleFlight;
+    private final AccountNumberIndex accountNumberIndex;
+    private final KnownIdFilter knownIdFilter;
     
-    @Transactional
+    /**
+     * 사용자/계좌/소유주/상태/잔액 검증은 lock 밖에서 먼저 수행하고,
+     * 잔액 변경과 거래 저장만 계좌 lock 안에서 실행한다.
+     */
     public TransactionDto useBalance(
             Long userId, String accountNumber,
             Long amount) {
-        AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(
-                        () -> new AccountException(ErrorCode.USER_NOT_FOUND));
-        
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(
-                        ErrorCode.ACCOUNT_NOT_FOUND));
-        
-        validateUseBalance(accountUser, account, amount);
-        
-        account.useBalance(amount);
+        return balanceMutationService.useBalance(
+                validateUse(userId, accountNumber, amount), amount);
+    }
+    
+    /**
+     * lock 밖에서 수행하는 사용 검증 (ReactiveTransactionService 도 같은 검증을 사용한다.)
+     */
+    public AccountDto validateUse(
+            Long userId, String accountNumber, Long amount) {
+        AccountDto accountDto;
+        long validationStart = StageLatencyContext.start();
+        try {
+            AccountUser accountUser = accountUserRepository.findById(userId)
+                    .orElseThrow(() -> new AccountException(
+                            ErrorCode.USER_NOT_FOUND));
+            
+            knownIdFilter.checkAccountNumber(accountNumber);
+            accountNumberIndex.checkOwnerAndStatus(
+                    accountNumber, accountUser.getId());
+            Account account = accountNumberIndex.findAccount(
+                            accountNumber, accountRepository)
+                    .orElseThrow(() -> new AccountException(
+                            ErrorCode.ACCOUNT_NOT_FOUND));
+            
+            validateUseBalance(accountUser, account, amount);
+            accountDto = AccountDto.fromEntity(account);
+        } finally {
+            StageLatencyContext.stop(LatencyStage.VALIDATION, validationStart);
+        }
         
-        return TransactionDto.fromEntity(
-                saveAndGetTransaction(TransactionType.USE,
-                                      TransactionResultType.S, account, amount
-                ));
+        return accountDto;
     }
     
     private void validateUseBalance(
@@ -65,74 +92,93 @@ public class TransactionService {
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
         
-        if (account.getBalance() < amount) {
+        if (account.getAvailableBalance() < amount) {
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
     }
     
+    /**
+     * 동시 처리 제한과 계좌 lock 단계에서 거절된 요청은 거래를 시도하지도 않았으므로 실패 거래로 남기지 않는다.
+     * (과부하나 Redis 장애 중에 실패 거래/outbox 쓰기가 더해지지 않게 한다.)
+     *
+     * @return 실패 거래로 기록해야 하는 예외인지 여부
+     */
+    public static boolean isTransactionFailure(AccountException e) {
+        switch (e.getErrorCode()) {
+            case TOO_MANY_CONCURRENT_REQUESTS:
+            case ACCOUNT_TRANSACTION_LOCK:
+            case LOCK_SERVICE_UNAVAILABLE:
+            case STALE_LOCK_TOKEN:
+                return false;
+            default:
+                return true;
+        }
+    }
+    
     @Transactional
     public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        knownIdFilter.checkAccountNumber(accountNumber);
+        Account account = accountNumberIndex.findAccount(
+                        accountNumber, accountRepository)
                 .orElseThrow(() -> new AccountException(
                         ErrorCode.ACCOUNT_NOT_FOUND));
         
-        saveAndGetTransaction(
+        balanceMutationService.saveTransaction(
                 TransactionType.USE, TransactionResultType.F, account, amount);
     }
     
-    private Transaction saveAndGetTransaction(
-            TransactionType transactionType,
-            TransactionResultType transactionResultType, Account account,
-            Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(
-                                transactionType)
-                        .transactionResultType(
-                                transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(
-                                account.getBalance())
-                        .transactionId(
-                                UUID.randomUUID()
-                                        .toString()
-                                        .replace(
-                                                "-",
-                                                ""
-                                        ))
-                        .transactedAt(
-                                LocalDateTime.now())
-                        .build());
+    /**
+     * 원거래와 계좌를 한 번의 fetch join 으로 조회한다.
+     * 요청 계좌가 원거래 계좌와 다를 때만 계좌 존재 여부를 추가로 확인한다.
+     * 여기까지의 검증은 lock 밖에서 수행되어, 이미 취소된 거래 등은 lock 없이 거절된다.
+     */
+    public TransactionDto cancelBalance(
+            String transactionId, String accountNumber, Long amount) {
+        return balanceMutationService.cancelBalance(
+                validateCancel(transactionId, accountNumber, amount),
+                transactionId, amount);
     }
     
-    @Transactional
-    public TransactionDto cancelBalance(
+    /**
+     * lock 밖에서 수행하는 취소 검증 (ReactiveTransactionService 도 같은 검증을 사용한다.)
+     */
+    public AccountDto validateCancel(
             String transactionId, String accountNumber, Long amount) {
-        Transaction transaction = transactionRepository.findByTransactionId(
-                        transactionId)
-                .orElseThrow(() -> new AccountException(
-                        ErrorCode.TRANSACTION_NOT_FOUND));
-        
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(
-                        ErrorCode.ACCOUNT_NOT_FOUND));
-        
-        validateCancelBalance(transaction, account, amount);
-        
-        account.cancelBalance(amount);
+        AccountDto accountDto;
+        long validationStart = StageLatencyContext.start();
+        try {
+            knownIdFilter.checkTransactionId(transactionId);
+            Transaction transaction = transactionRepository
+                    .findRoutedWithAccountByTransactionId(transactionId)
+                    .orElseThrow(() -> new AccountException(
+                            transactionArchiveRepository
+                                    .existsByTransactionId(transactionId) ?
+                                    ErrorCode.TOO_OLD_ORDER_TO_CANCEL :
+                                    ErrorCode.TRANSACTION_NOT_FOUND));
+            
+            Account account = transaction.getAccount();
+            if (!Objects.equals(account.getAccountNumber(), accountNumber)) {
+                if (!knownIdFilter.mightContainAccountNumber(accountNumber) ||
+                    !accountNumberIndex.exists(accountNumber,
+                                               accountRepository)) {
+                    throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+                }
+                throw new AccountException(
+                        ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+            }
+            
+            validateCancelBalance(transaction, amount);
+            accountDto = AccountDto.fromEntity(account);
+        } finally {
+            StageLatencyContext.stop(LatencyStage.VALIDATION, validationStart);
+        }
         
-        return TransactionDto.fromEntity(
-                saveAndGetTransaction(TransactionType.CANCEL,
-                                      TransactionResultType.S, account, amount
-                ));
+        return accountDto;
     }
     
-    private void validateCancelBalance(
-            Transaction transaction, Account account, Long amount) {
-        if (!Objects.equals(
-                transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+    private void validateCancelBalance(Transaction transaction, Long amount) {
+        if (transaction.isCanceled()) {
+            throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
         }
         
         if (!Objects.equals(transaction.getAmount(), amount)) {
@@ -147,22 +193,70 @@ public class TransactionService {
     
     @Transactional
     public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        knownIdFilter.checkAccountNumber(accountNumber);
+        Account account = accountNumberIndex.findAccount(
+                        accountNumber, accountRepository)
                 .orElseThrow(() -> new AccountException(
                         ErrorCode.ACCOUNT_NOT_FOUND));
         
-        saveAndGetTransaction(
+        balanceMutationService.saveTransaction(
                 TransactionType.CANCEL, TransactionResultType.F, account,
                 amount
         );
     }
     
+    /**
+     * hot 테이블에 없으면 보관 테이블에서 조회한다.
+     */
     public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
-                transactionRepository.findByTransactionId(
-                                transactionId)
-                        .orElseThrow(() -> new AccountException(
-                                ErrorCode.TRANSACTION_NOT_FOUND)));
+        knownIdFilter.checkTransactionId(transactionId);
+        
+        return singleFlight.execute(
+                "transaction", transactionId,
+                () -> transactionRepository
+                        .findRoutedByTransactionId(transactionId)
+                        .map(TransactionDto::fromEntity)
+                        .orElseGet(() -> transactionArchiveRepository
+                                .findByTransactionId(transactionId)
+                                .map(TransactionArchiveCodec::decode)
+                                .orElseThrow(() -> new AccountException(
+                                        ErrorCode.TRANSACTION_NOT_FOUND))));
+    }
+    
+    /**
+     * 여러 거래를 hot 테이블에서 IN 조회로 한 번에 찾고,
+     * 없는 id 만 모아 보관 테이블에서 한 번 더 조회한다.
+     * Bloom filter 에 없는 id 는 조회하지 않는다.
+     *
+     * @return transactionId 별 거래, 없는 거래는 포함되지 않는다.
+     */
+    public Map<String, TransactionDto> queryTransactions(
+            List<String> transactionIds) {
+        Set<String> requestedIds = transactionIds.stream()
+                .filter(knownIdFilter::mightContainTransactionId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, TransactionDto> transactionDtos = new HashMap<>();
+        if (requestedIds.isEmpty()) {
+            return transactionDtos;
+        }
+        
+        transactionRepository.findRoutedWithAccountByTransactionIdIn(
+                        requestedIds)
+                .forEach(transaction -> transactionDtos.put(
+                        transaction.getTransactionId(),
+                        TransactionDto.fromEntity(transaction)));
+        
+        List<String> missingIds = requestedIds.stream()
+                .filter(transactionId ->
+                                !transactionDtos.containsKey(transactionId))
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            transactionArchiveRepository.findByTransactionIdIn(missingIds)
+                    .forEach(archive -> transactionDtos.put(
+                            archive.getTransactionId(),
+                            TransactionArchiveCodec.decode(archive)));
+        }
+        
+        return transactionDtos;
     }
 }
-
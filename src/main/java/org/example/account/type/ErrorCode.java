@@ -10,12 +10,23 @@ public enum ErrorCode {
     ACCOUNT_NOT_FOUND("계좌가 없습니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다."),
     AMOUNT_EXCEED_BALANCE("거래 금액이 잔액보다 큽니다."),
+    BALANCE_ENGINE_MODE_UNSUPPORTED("잔액 엔진 모드에서는 지원하지 않는 거래입니다."),
+    BALANCE_ENGINE_UNAVAILABLE("일시적으로 거래를 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
     CANCEL_MUST_FULLY("부분 취소는 허용되지 않습니다."),
+    HOLD_ACCOUNT_UN_MATCH("이 홀드는 해당 계좌의 홀드가 아닙니다."),
+    HOLD_ALREADY_SETTLED("이미 확정 혹은 해제된 홀드입니다."),
+    HOLD_EXPIRED("승인 유효 시간이 지난 홀드입니다."),
+    HOLD_NOT_FOUND("해당 홀드가 없습니다."),
     INTERNAL_SERVER_ERROR("내부 서버 오류가 발생했습니다."),
     INVALID_REQUEST("잘못된 요청입니다."),
+    LOCK_SERVICE_UNAVAILABLE("일시적으로 거래를 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."),
     MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    SPENDING_LIMIT_EXCEEDED("계좌의 시간당 혹은 일일 사용 한도를 초과했습니다."),
+    STALE_LOCK_TOKEN("계좌 lock 이 만료되어 거래를 처리하지 못했습니다. 다시 시도해 주세요."),
+    TOO_MANY_CONCURRENT_REQUESTS("요청이 많아 거래를 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."),
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능합니다."),
+    TRANSACTION_ALREADY_CANCELED("이미 취소된 거래입니다."),
     TRANSACTION_ACCOUNT_UN_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다."),
     TRANSACTION_NOT_FOUND("해당 거래가 없습니다."),
     USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유주가 다릅니다."),
@@ -0,0 +1,5 @@
+package org.example.account.type;
+
+public enum HoldStatus {
+    PENDING, CAPTURED, VOIDED, EXPIRED
+}
@@ -0,0 +1,21 @@
+package org.example.account.type;
+
+/**
+ * 요청 처리 단계, 단계끼리는 겹칠 수 있다. (VALIDATION 안의 조회는 QUERY 에도 포함)
+ */
+public enum LatencyStage {
+    // lock 밖에서 하는 사용자/계좌/거래 검증
+    VALIDATION,
+    // Redis 계좌 lock 취득 대기
+    LOCK_ACQUIRE,
+    // repository 호출 (중첩 호출은 가장 바깥 호출만)
+    QUERY,
+    // 잔액 변경 트랜잭션 커밋 (flush 포함)
+    COMMIT,
+    // 실패 거래 저장
+    FAILURE_RECORD,
+    // 응답 JSON 직렬화
+    SERIALIZATION,
+    // filter 기준 전체 처리 시간
+    TOTAL
+}
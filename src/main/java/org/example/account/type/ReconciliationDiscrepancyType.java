@@ -0,0 +1,8 @@
+package org.example.account.type;
+
+public enum ReconciliationDiscrepancyType {
+    // 직전 잔액 스냅샷 +- 거래 금액이 거래의 잔액 스냅샷과 다름
+    SNAPSHOT_MISMATCH,
+    // 마지막 거래의 잔액 스냅샷이 현재 계좌 잔액과 다름
+    BALANCE_MISMATCH
+}
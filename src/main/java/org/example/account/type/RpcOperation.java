@@ -0,0 +1,27 @@
+package org.example.account.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 바이너리 RPC 요청 종류 (프레임의 첫 byte)
+ */
+@Getter
+@AllArgsConstructor
+public enum RpcOperation {
+    USE((byte) 1),
+    CANCEL((byte) 2),
+    QUERY((byte) 3);
+    
+    private final byte code;
+    
+    public static RpcOperation of(byte code) {
+        for (RpcOperation operation : values()) {
+            if (operation.code == code) {
+                return operation;
+            }
+        }
+        
+        return null;
+    }
+}
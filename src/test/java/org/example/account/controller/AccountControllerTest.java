@@ -6,8 +6,11 @@ import org.example.account.dto.AccountDto;
 import org.example.account.dto.CreateAccount;
 import org.example.account.dto.DeleteAccount;
 import org.example.account.exception.AccountException;
+import org.example.account.service.AccountBalanceViewService;
 import org.example.account.service.AccountService;
+import org.example.account.service.BalanceReconciliationService;
 import org.example.account.service.LockService;
+import org.example.account.service.StatementService;
 import org.example.account.type.AccountStatus;
 import org.example.account.type.ErrorCode;
 import org.junit.jupiter.api.Test;
@@ -34,6 +37,15 @@ class AccountControllerTest {
     @MockBean
     private AccountService accountService;
     
+    @MockBean
+    private AccountBalanceViewService accountBalanceViewService;
+    
+    @MockBean
+    private BalanceReconciliationService balanceReconciliationService;
+    
+    @MockBean
+    private StatementService statementService;
+    
     @MockBean
     private LockService redisTestService;
     
@@ -0,0 +1,224 @@
+package org.example.account.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 동시 클라이언트 10k 에서 동기(/transaction/use) 와 반응형(/reactive/transaction/use) 비교
+ * 요청 thread(Tomcat busy thread), jdbc thread, 전체 thread, HTTP 연결, DB 연결의 최대값을 출력한다.
+ * 클라이언트는 계좌 1,000 개에 고르게 나눠 사용 요청을 보낸다.
+ * 실행 환경의 열린 파일 수 제한(ulimit -n)이 2만 이상이어야 한다.
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "account.reactive.enabled=true",
+                "account.spending-limit.enabled=false",
+                "account.concurrency-limit.initial-limit=10000",
+                "account.concurrency-limit.max-limit=10000",
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=10000",
+                "server.tomcat.mbeanregistry.enabled=true"
+        })
+class ReactiveTransactionLoadTest {
+    private static final int CLIENTS = 10_000;
+    private static final int ACCOUNTS = 1_000;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    
+    @Autowired
+    private HikariDataSource dataSource;
+    
+    @Test
+    void threadAndConnectionUsageAt10kClients() throws Exception {
+        List<String> accountNumbers = createAccounts();
+        
+        Usage blocking = run("/transaction/use", accountNumbers);
+        Usage reactive = run("/reactive/transaction/use", accountNumbers);
+        
+        print("blocking", blocking);
+        print("reactive", reactive);
+        assertEquals(CLIENTS, blocking.completed.get());
+        assertEquals(CLIENTS, reactive.completed.get());
+    }
+    
+    private Usage run(String path, List<String> accountNumbers)
+            throws Exception {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(clientExecutor)
+                .build();
+        URI uri = URI.create("http://localhost:" + port + path);
+        Usage usage = new Usage();
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        
+        Thread sampler = new Thread(() -> sample(usage), "load-sampler");
+        sampler.start();
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<Void>> requests = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                String body = String.format(
+                        "{\"userId\":1,\"accountNumber\":\"%s\",\"amount\":1}",
+                        accountNumbers.get(i % accountNumbers.size()));
+                requests.add(client.sendAsync(
+                                HttpRequest.newBuilder(uri)
+                                        .timeout(Duration.ofSeconds(120))
+                                        .header("Content-Type",
+                                                "application/json")
+                                        .POST(HttpRequest.BodyPublishers
+                                                      .ofString(body))
+                                        .build(),
+                                HttpResponse.BodyHandlers.ofString())
+                        .handle((response, e) -> {
+                            if (e == null && response.statusCode() == 200 &&
+                                response.body().contains(
+                                        "\"transactionResult\":\"S\"")) {
+                                usage.succeeded.incrementAndGet();
+                            }
+                            usage.completed.incrementAndGet();
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture[0]))
+                    .get(180, TimeUnit.SECONDS);
+        } finally {
+            usage.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(
+                    System.nanoTime() - start);
+            sampler.interrupt();
+            sampler.join();
+            clientExecutor.shutdownNow();
+        }
+        usage.peakThreads = ManagementFactory.getThreadMXBean()
+                .getPeakThreadCount();
+        
+        return usage;
+    }
+    
+    private void sample(Usage usage) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                for (ObjectName name : mBeanServer.queryNames(
+                        new ObjectName("Tomcat:type=ThreadPool,name=*"), null)) {
+                    usage.peakBusyRequestThreads = Math.max(
+                            usage.peakBusyRequestThreads,
+                            ((Number) mBeanServer.getAttribute(
+                                    name, "currentThreadsBusy")).intValue());
+                    usage.peakHttpConnections = Math.max(
+                            usage.peakHttpConnections,
+                            ((Number) mBeanServer.getAttribute(
+                                    name, "connectionCount")).longValue());
+                }
+                usage.peakDbConnections = Math.max(
+                        usage.peakDbConnections,
+                        dataSource.getHikariPoolMXBean()
+                                .getActiveConnections());
+                
+                int jdbcThreads = 0;
+                for (long id : threads.getAllThreadIds()) {
+                    ThreadInfo info = threads.getThreadInfo(id);
+                    if (info != null && info.getThreadName()
+                            .startsWith("account-reactive-jdbc")) {
+                        jdbcThreads++;
+                    }
+                }
+                usage.peakJdbcThreads = Math.max(usage.peakJdbcThreads,
+                                                 jdbcThreads);
+                
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+    
+    private List<String> createAccounts() {
+        AccountUser accountUser = accountUserRepository.findById(1L)
+                .orElseThrow();
+        List<Account> accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(Account.builder()
+                                 .accountUser(accountUser)
+                                 .accountNumber(String.valueOf(
+                                         2_000_000_000L + i))
+                                 .accountStatus(AccountStatus.IN_USE)
+                                 .balance(1_000_000_000_000L)
+                                 .registeredAt(LocalDateTime.now())
+                                 .build());
+        }
+        
+        List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+        accountRepository.saveAll(accounts)
+                .forEach(account -> accountNumbers.add(
+                        account.getAccountNumber()));
+        
+        return accountNumbers;
+    }
+    
+    private static void print(String mode, Usage usage) {
+        System.out.printf("%s : %d clients in %d ms, success %d, " +
+                          "peak busy request threads %d, jdbc threads %d, " +
+                          "jvm threads %d, http connections %d, " +
+                          "db connections %d%n",
+                          mode, CLIENTS, usage.elapsedMillis,
+                          usage.succeeded.get(), usage.peakBusyRequestThreads,
+                          usage.peakJdbcThreads, usage.peakThreads,
+                          usage.peakHttpConnections, usage.peakDbConnections);
+    }
+    
+    private static class Usage {
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private volatile long elapsedMillis;
+        private volatile int peakBusyRequestThreads;
+        private volatile long peakHttpConnections;
+        private volatile int peakDbConnections;
+        private volatile int peakJdbcThreads;
+        private volatile int peakThreads;
+    }
+}
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.account.dto.AccountDto;
 import org.example.account.dto.CancelBalance;
+import org.example.account.dto.QueryTransactionBatch;
 import org.example.account.dto.TransactionDto;
 import org.example.account.dto.UseBalance;
+import org.example.account.exception.AccountException;
 import org.example.account.service.TransactionService;
+import org.example.account.type.ErrorCode;
 import org.example.account.type.TransactionResultType;
 import org.example.account.type.TransactionType;
 import org.junit.jupiter.api.Test;
@@ -17,13 +20,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -101,6 +106,50 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(54321L));
     }
     
+    @Test
+    void concurrencyLimitRejectionIsNotRecorded() throws Exception {
+        // given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new AccountException(
+                        ErrorCode.TOO_MANY_CONCURRENT_REQUESTS));
+        
+        // when
+        // then
+        mockMvc.perform(post("/transaction/use")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        new UseBalance.Request(
+                                                1L, "2000000000", 3000L))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(
+                        "TOO_MANY_CONCURRENT_REQUESTS"));
+        verify(transactionService, never()).saveFailedUseTransaction(
+                anyString(), anyLong());
+    }
+    
+    @Test
+    void lockTimeoutIsNotRecorded() throws Exception {
+        // given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new AccountException(
+                        ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        
+        // when
+        // then
+        mockMvc.perform(post("/transaction/use")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        new UseBalance.Request(
+                                                1L, "2000000000", 3000L))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(
+                        "ACCOUNT_TRANSACTION_LOCK"));
+        verify(transactionService, never()).saveFailedUseTransaction(
+                anyString(), anyLong());
+    }
+    
     @Test
     void successQueryTransaction() throws Exception {
         // given
@@ -145,4 +194,59 @@ class TransactionControllerTest {
                         "transactionIdForCancel"))
                 .andExpect(jsonPath("$.amount").value(54321L));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void successQueryTransactions() throws Exception {
+        // given
+        Map<String, TransactionDto> transactionDtos = new HashMap<>();
+        transactionDtos.put("transactionId2", TransactionDto.builder()
+                .transactionType(TransactionType.USE)
+                .accountNumber("1000000000")
+                .transactedAt(LocalDateTime.now())
+                .amount(54321L)
+                .transactionId("transactionId2")
+                .transactionResultType(TransactionResultType.S)
+                .build());
+        given(transactionService.queryTransactions(anyList()))
+                .willReturn(transactionDtos);
+        
+        // when
+        // then
+        mockMvc.perform(post("/transaction/query")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        new QueryTransactionBatch.Request(
+                                                Arrays.asList(
+                                                        "transactionId1",
+                                                        "transactionId2")))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value(
+                        "transactionId1"))
+                .andExpect(jsonPath("$.transactions[0].found").value(false))
+                .andExpect(jsonPath("$.transactions[1].transactionId").value(
+                        "transactionId2"))
+                .andExpect(jsonPath("$.transactions[1].found").value(true))
+                .andExpect(jsonPath("$.transactions[1].transaction.amount")
+                                   .value(54321L));
+    }
+    
+    @Test
+    void failQueryTransactions_TooManyIds() throws Exception {
+        // given
+        List<String> transactionIds = new ArrayList<>();
+        for (int i = 0; i <= QueryTransactionBatch.MAX_TRANSACTION_IDS; i++) {
+            transactionIds.add("transactionId" + i);
+        }
+        
+        // when
+        // then
+        mockMvc.perform(post("/transaction/query")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        new QueryTransactionBatch.Request(
+                                                transactionIds))))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.account.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.HdrHistogram.Histogram;
+import org.example.account.dto.TransactionDto;
+import org.example.account.dto.UseBalance;
+import org.example.account.service.BalanceEngineService;
+import org.example.account.service.TransactionService;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 잔액 사용 요청의 바이너리 RPC 와 JSON REST 비교
+ * 1. 직렬화/검증 CPU 시간 (TransactionRpcCodec vs Jackson + bean validation)
+ * 2. loopback 왕복 지연 시간(p50/p99) 과 요청당 프로세스 CPU 시간
+ * REST 쪽은 같은 JSON/검증/서비스 호출을 하는 JDK HttpServer 이므로
+ * Spring MVC filter/dispatcher 비용이 빠진 하한값이다.
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class TransactionRpcBenchmarkTest {
+    private static final int WARMUP = 200_000;
+    private static final int ROUNDS = 1_000_000;
+    private static final int ROUND_TRIP_WARMUP = 10_000;
+    private static final int ROUND_TRIPS = 50_000;
+    
+    private final ObjectMapper objectMapper =
+            Jackson2ObjectMapperBuilder.json().build();
+    private final Validator validator =
+            Validation.buildDefaultValidatorFactory().getValidator();
+    private final UseBalance.Request request =
+            new UseBalance.Request(1L, "1000000000", 3000L);
+    private final TransactionDto transactionDto = TransactionDto.builder()
+            .accountNumber("1000000000")
+            .transactionType(TransactionType.USE)
+            .transactionResultType(TransactionResultType.S)
+            .transactionId("0f8fad5bd9cb469fa16570867728950e")
+            .amount(3000L)
+            .transactedAt(LocalDateTime.now())
+            .build();
+    
+    @Test
+    void codecCpuPerRequest() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        
+        for (int i = 0; i < WARMUP; i++) {
+            binaryCodec(i);
+            jsonCodec();
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            binaryCodec(i);
+        }
+        double binaryNanos =
+                (threads.getCurrentThreadCpuTime() - start) / (double) ROUNDS;
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            jsonCodec();
+        }
+        double jsonNanos =
+                (threads.getCurrentThreadCpuTime() - start) / (double) ROUNDS;
+        
+        System.out.printf("use codec cpu : binary %.0f ns, json %.0f ns " +
+                          "per request%n", binaryNanos, jsonNanos);
+        assertTrue(binaryNanos < jsonNanos);
+    }
+    
+    @Test
+    void loopbackRoundTrip() throws Exception {
+        TransactionService transactionService = mock(
+                TransactionService.class, withSettings().stubOnly());
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(transactionDto);
+        
+        Result binary = binaryRoundTrips(transactionService);
+        Result rest = restRoundTrips(transactionService);
+        
+        System.out.printf("use round trip binary : p50 %d µs, p99 %d µs, " +
+                          "cpu %.1f µs/request%n",
+                          binary.p50Micros(), binary.p99Micros(),
+                          binary.cpuMicros);
+        System.out.printf("use round trip rest   : p50 %d µs, p99 %d µs, " +
+                          "cpu %.1f µs/request%n",
+                          rest.p50Micros(), rest.p99Micros(), rest.cpuMicros);
+        assertTrue(binary.cpuMicros < rest.cpuMicros);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Result binaryRoundTrips(TransactionService transactionService)
+            throws IOException {
+        TransactionRpcServer server = new TransactionRpcServer(
+                transactionService, mock(ObjectProvider.class),
+                new SimpleMeterRegistry(), 0, 2);
+        server.start();
+        try (SocketChannel client = SocketChannel.open(new InetSocketAddress(
+                "localhost", server.getLocalPort()))) {
+            Histogram histogram = new Histogram(3);
+            for (int i = 0; i < ROUND_TRIP_WARMUP; i++) {
+                binaryRoundTrip(client, i);
+            }
+            
+            long cpuStart = processCpuTime();
+            for (int i = 0; i < ROUND_TRIPS; i++) {
+                long start = System.nanoTime();
+                binaryRoundTrip(client, i);
+                histogram.recordValue((System.nanoTime() - start) / 1000);
+            }
+            
+            return new Result(histogram, processCpuTime() - cpuStart);
+        } finally {
+            server.stop();
+        }
+    }
+    
+    private void binaryRoundTrip(SocketChannel client, long requestId)
+            throws IOException {
+        ByteBuffer frame = TransactionRpcCodec.encodeUse(requestId, request);
+        while (frame.hasRemaining()) {
+            client.write(frame);
+        }
+        TransactionRpcCodec.Response response = TransactionRpcCodec
+                .decodeResponse(TransactionRpcCodec.readFrame(client));
+        assertEquals(requestId, response.getRequestId());
+    }
+    
+    private Result restRoundTrips(TransactionService transactionService)
+            throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        server.setExecutor(executor);
+        server.createContext("/transaction/use", exchange -> {
+            try (InputStream body = exchange.getRequestBody();
+                 OutputStream out = exchange.getResponseBody()) {
+                UseBalance.Request use = objectMapper.readValue(
+                        body, UseBalance.Request.class);
+                validator.validate(use);
+                byte[] response = objectMapper.writeValueAsBytes(
+                        UseBalance.Response.from(transactionService.useBalance(
+                                use.getUserId(), use.getAccountNumber(),
+                                use.getAmount())));
+                exchange.getResponseHeaders()
+                        .set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                out.write(response);
+            }
+        });
+        server.start();
+        
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        URI uri = URI.create("http://localhost:" +
+                             server.getAddress().getPort() +
+                             "/transaction/use");
+        try {
+            Histogram histogram = new Histogram(3);
+            for (int i = 0; i < ROUND_TRIP_WARMUP; i++) {
+                restRoundTrip(client, uri);
+            }
+            
+            long cpuStart = processCpuTime();
+            for (int i = 0; i < ROUND_TRIPS; i++) {
+                long start = System.nanoTime();
+                restRoundTrip(client, uri);
+                histogram.recordValue((System.nanoTime() - start) / 1000);
+            }
+            
+            return new Result(histogram, processCpuTime() - cpuStart);
+        } finally {
+            server.stop(0);
+            executor.shutdown();
+        }
+    }
+    
+    private void restRoundTrip(HttpClient client, URI uri) throws Exception {
+        HttpResponse<byte[]> response = client.send(
+                HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(
+                                objectMapper.writeValueAsBytes(request)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        objectMapper.readValue(response.body(), UseBalance.Response.class);
+    }
+    
+    private void binaryCodec(long requestId) {
+        TransactionRpcCodec.Request decoded = TransactionRpcCodec.decodeRequest(
+                skipLength(TransactionRpcCodec.encodeUse(requestId, request)));
+        TransactionRpcCodec.validate((UseBalance.Request) decoded.getBody());
+        TransactionRpcCodec.decodeResponse(skipLength(
+                TransactionRpcCodec.encodeResult(requestId, transactionDto)));
+    }
+    
+    private void jsonCodec() throws IOException {
+        UseBalance.Request decoded = objectMapper.readValue(
+                objectMapper.writeValueAsBytes(request),
+                UseBalance.Request.class);
+        validator.validate(decoded);
+        objectMapper.readValue(objectMapper.writeValueAsBytes(
+                                       UseBalance.Response.from(transactionDto)),
+                               UseBalance.Response.class);
+    }
+    
+    private static ByteBuffer skipLength(ByteBuffer frame) {
+        frame.position(Integer.BYTES);
+        return frame;
+    }
+    
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean)
+                ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+    
+    private static class Result {
+        private final Histogram histogram;
+        private final double cpuMicros;
+        
+        Result(Histogram histogram, long cpuNanos) {
+            this.histogram = histogram;
+            this.cpuMicros = cpuNanos / 1000.0 / ROUND_TRIPS;
+        }
+        
+        long p50Micros() {
+            return histogram.getValueAtPercentile(50);
+        }
+        
+        long p99Micros() {
+            return histogram.getValueAtPercentile(99);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.account.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.dto.CancelBalance;
+import org.example.account.dto.TransactionDto;
+import org.example.account.dto.UseBalance;
+import org.example.account.exception.AccountException;
+import org.example.account.service.BalanceEngineService;
+import org.example.account.service.TransactionService;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TransactionRpcServerTest {
+    private TransactionService transactionService;
+    private TransactionRpcServer transactionRpcServer;
+    private SocketChannel client;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        transactionService = mock(TransactionService.class);
+        ObjectProvider<BalanceEngineService> noEngine =
+                mock(ObjectProvider.class);
+        transactionRpcServer = new TransactionRpcServer(
+                transactionService, noEngine, new SimpleMeterRegistry(), 0, 2);
+        transactionRpcServer.start();
+        client = SocketChannel.open(new InetSocketAddress(
+                "localhost", transactionRpcServer.getLocalPort()));
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        transactionRpcServer.stop();
+    }
+    
+    @Test
+    void pipelinedUseAndQuery() throws IOException {
+        // given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(transactionDto(TransactionType.USE, "useId"));
+        given(transactionService.queryTransaction("queryId"))
+                .willReturn(transactionDto(TransactionType.CANCEL, "queryId"));
+        
+        // when : 응답을 기다리지 않고 두 요청을 보낸다.
+        send(TransactionRpcCodec.encodeUse(
+                1L, new UseBalance.Request(1L, "1000000000", 3000L)));
+        send(TransactionRpcCodec.encodeQuery(2L, "queryId"));
+        Map<Long, TransactionRpcCodec.Response> responses = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            TransactionRpcCodec.Response response = receive();
+            responses.put(response.getRequestId(), response);
+        }
+        
+        // then
+        assertEquals("useId", responses.get(1L).getResult().getTransactionId());
+        assertEquals(TransactionResultType.S,
+                     responses.get(1L).getResult().getTransactionResult());
+        assertEquals(3000L, responses.get(1L).getResult().getAmount());
+        assertEquals(TransactionType.CANCEL,
+                     responses.get(2L).getResult().getTransactionType());
+        assertNull(responses.get(2L).getError());
+    }
+    
+    @Test
+    void invalidRequestIsNotExecuted() throws IOException {
+        // given
+        // when : 계좌 번호가 10자리가 아니다.
+        send(TransactionRpcCodec.encodeUse(
+                7L, new UseBalance.Request(1L, "100", 3000L)));
+        TransactionRpcCodec.Response response = receive();
+        
+        // then
+        assertEquals(7L, response.getRequestId());
+        assertEquals(ErrorCode.INVALID_REQUEST,
+                     response.getError().getErrorCode());
+        verify(transactionService, never())
+                .useBalance(anyLong(), anyString(), anyLong());
+        verify(transactionService, never())
+                .saveFailedUseTransaction(anyString(), anyLong());
+    }
+    
+    @Test
+    void recordFailedCancelTransaction() throws IOException {
+        // given
+        given(transactionService.cancelBalance(anyString(), anyString(),
+                                               anyLong()))
+                .willThrow(new AccountException(
+                        ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH));
+        
+        // when
+        send(TransactionRpcCodec.encodeCancel(
+                3L, new CancelBalance.Request("useId", "1000000000", 3000L)));
+        TransactionRpcCodec.Response response = receive();
+        
+        // then
+        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH,
+                     response.getError().getErrorCode());
+        assertNull(response.getResult());
+        verify(transactionService).saveFailedCancelTransaction(
+                "1000000000", 3000L);
+    }
+    
+    private void send(ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            client.write(frame);
+        }
+    }
+    
+    private TransactionRpcCodec.Response receive() throws IOException {
+        return TransactionRpcCodec.decodeResponse(
+                TransactionRpcCodec.readFrame(client));
+    }
+    
+    private static TransactionDto transactionDto(
+            TransactionType transactionType, String transactionId) {
+        return TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(transactionType)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId(transactionId)
+                .amount(3000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
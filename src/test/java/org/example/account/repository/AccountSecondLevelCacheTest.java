@@ -0,0 +1,107 @@
+package org.example.account.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.domain.Transaction;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 결제/조회 경로에서 반복되는 사용자, 계좌번호, 거래의 계좌 조회가 2차 캐시로 SQL 없이 처리되는지 확인한다.
+ * 조회마다 트랜잭션(영속성 컨텍스트)이 새로 열리도록 테스트 트랜잭션은 끈다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountSecondLevelCacheTest {
+    private static final String ACCOUNT_NUMBER = "4000000001";
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void hotLookupsAreServedFromSecondLevelCache() {
+        // given
+        AccountUser user = accountUserRepository.save(
+                AccountUser.builder().name("Pobi").build());
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(user)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build());
+        LocalDateTime transactedAt = LocalDateTime.now();
+        Transaction transaction = transactionRepository.save(
+                Transaction.builder()
+                        .account(account)
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .balanceSnapshot(9000L)
+                        .transactionId(
+                                TransactionPartitionRouter.newTransactionId(
+                                        transactedAt))
+                        .transactedAt(transactedAt)
+                        .partitionKey(
+                                TransactionPartitionRouter.partitionKeyOf(
+                                        transactedAt))
+                        .build());
+        Statistics statistics = entityManagerFactory.unwrap(
+                SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        
+        // when
+        statistics.clear();
+        lookup(user.getId(), transaction.getTransactionId());
+        long coldStatements = statistics.getPrepareStatementCount();
+        
+        statistics.clear();
+        lookup(user.getId(), transaction.getTransactionId());
+        long warmStatements = statistics.getPrepareStatementCount();
+        
+        // then
+        CacheRegionStatistics accountUserRegion =
+                statistics.getDomainDataRegionStatistics("accountUser");
+        CacheRegionStatistics accountRegion =
+                statistics.getDomainDataRegionStatistics("account");
+        
+        // 거래 조회 한 번만 DB 로 간다.
+        assertEquals(1, warmStatements);
+        assertTrue(coldStatements > warmStatements);
+        assertEquals(0, accountUserRegion.getMissCount());
+        assertEquals(0, accountRegion.getMissCount());
+        assertTrue(accountUserRegion.getHitCount() > 0);
+        assertTrue(accountRegion.getHitCount() > 0);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+    
+    private void lookup(Long userId, String transactionId) {
+        accountUserRepository.findById(userId).orElseThrow();
+        accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow();
+        transactionRepository.findRoutedByTransactionId(transactionId)
+                .orElseThrow();
+    }
+}
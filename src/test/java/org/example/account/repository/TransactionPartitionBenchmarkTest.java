@@ -0,0 +1,117 @@
+package org.example.account.repository;
+
+import jakarta.persistence.EntityManager;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.domain.Transaction;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 전체 거래 수가 늘어날 때 파티션 라우팅 조회와 전체 테이블 조회의 지연 시간 비교
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=500"
+})
+class TransactionPartitionBenchmarkTest {
+    private static final int[] TOTAL_ROWS = {10_000, 50_000, 100_000};
+    private static final int MONTHS = 24;
+    private static final int LOOKUPS = 1_000;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Test
+    void lookupLatencyAsRowCountGrows() {
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .build());
+        List<String> transactionIds = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.now().minusMonths(MONTHS);
+        
+        System.out.printf("%10s %18s %18s%n",
+                          "rows", "routed (us/op)", "unrouted (us/op)");
+        for (int totalRows : TOTAL_ROWS) {
+            while (transactionIds.size() < totalRows) {
+                LocalDateTime transactedAt = base.plusMinutes(
+                        ThreadLocalRandom.current().nextLong(
+                                MONTHS * 30L * 24 * 60));
+                String transactionId =
+                        TransactionPartitionRouter.newTransactionId(
+                                transactedAt);
+                transactionRepository.save(Transaction.builder()
+                        .account(account)
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(100L)
+                        .balanceSnapshot(0L)
+                        .transactionId(transactionId)
+                        .transactedAt(transactedAt)
+                        .partitionKey(
+                                TransactionPartitionRouter.partitionKeyOf(
+                                        transactedAt))
+                        .build());
+                transactionIds.add(transactionId);
+                
+                if (transactionIds.size() % 5_000 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            
+            long routed = measure(transactionIds, true);
+            long unrouted = measure(transactionIds, false);
+            System.out.printf("%10d %18.2f %18.2f%n", totalRows,
+                              routed / 1000.0 / LOOKUPS,
+                              unrouted / 1000.0 / LOOKUPS);
+            assertTrue(routed > 0);
+        }
+    }
+    
+    private long measure(List<String> transactionIds, boolean routed) {
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            String transactionId = transactionIds.get(
+                    ThreadLocalRandom.current().nextInt(transactionIds.size()));
+            if (routed) {
+                transactionRepository.findRoutedByTransactionId(transactionId);
+            } else {
+                transactionRepository.findByTransactionId(transactionId);
+            }
+            entityManager.clear();
+        }
+        
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.account.repository;
+
+import org.example.account.domain.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+class TransactionPartitionRouterTest {
+    @Test
+    void routeNewTransactionIdToPartition() {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2024, 3, 15, 10, 0);
+        
+        // when
+        String transactionId =
+                TransactionPartitionRouter.newTransactionId(transactedAt);
+        
+        // then
+        assertEquals(32, transactionId.length());
+        assertTrue(transactionId.startsWith("t202403"));
+        assertEquals(Optional.of(202403),
+                     TransactionPartitionRouter.partitionKeyOf(transactionId));
+    }
+    
+    @Test
+    void transactionIdIsTimeOrdered() {
+        // given
+        String earlier = TransactionPartitionRouter.newTransactionId(
+                LocalDateTime.of(2024, 3, 15, 10, 0, 0));
+        String later = TransactionPartitionRouter.newTransactionId(
+                LocalDateTime.of(2024, 3, 15, 10, 0, 1));
+        
+        // when
+        // then
+        assertTrue(earlier.substring(0, 18).compareTo(
+                later.substring(0, 18)) < 0);
+    }
+    
+    @Test
+    void legacyTransactionIdHasNoPartition() {
+        // given
+        // when
+        // then
+        assertFalse(TransactionPartitionRouter.partitionKeyOf(
+                "549c7c9516324eae9910d6fba3eba26d").isPresent());
+        assertFalse(TransactionPartitionRouter.partitionKeyOf(
+                "transactionId").isPresent());
+        // 앞 6자리가 yyyyMM 으로 읽히는 UUID 도 라우팅하지 않는다.
+        assertFalse(TransactionPartitionRouter.partitionKeyOf(
+                "202403c9516324eae9910d6fba3eba26").isPresent());
+    }
+    
+    @Test
+    void fallBackToUnroutedLookupOnRoutedMiss() {
+        // given
+        TransactionRepository transactionRepository = mock(
+                TransactionRepository.class, CALLS_REAL_METHODS);
+        String transactionId = TransactionPartitionRouter.newTransactionId(
+                LocalDateTime.of(2024, 3, 15, 10, 0));
+        Transaction transaction = Transaction.builder()
+                .transactionId(transactionId)
+                .build();
+        given(transactionRepository.findByPartitionKeyAndTransactionId(
+                202403, transactionId))
+                .willReturn(Optional.empty());
+        given(transactionRepository.findByTransactionId(transactionId))
+                .willReturn(Optional.of(transaction));
+        given(transactionRepository
+                      .findWithAccountByPartitionKeyInAndTransactionIdIn(
+                              Set.of(202403), List.of(transactionId)))
+                .willReturn(new ArrayList<>());
+        given(transactionRepository.findWithAccountByTransactionIdIn(
+                List.of(transactionId)))
+                .willReturn(List.of(transaction));
+        
+        // when
+        // then
+        assertEquals(Optional.of(transaction),
+                     transactionRepository.findRoutedByTransactionId(
+                             transactionId));
+        assertEquals(List.of(transaction),
+                     transactionRepository
+                             .findRoutedWithAccountByTransactionIdIn(
+                                     List.of(transactionId)));
+    }
+    
+    @Test
+    void rangeTouchesOnlyCoveredPartitions() {
+        // given
+        // when
+        // then
+        assertEquals(Arrays.asList(202311, 202312, 202401),
+                     TransactionPartitionRouter.partitionKeysBetween(
+                             LocalDateTime.of(2023, 11, 20, 0, 0),
+                             LocalDateTime.of(2024, 1, 3, 0, 0)));
+    }
+}
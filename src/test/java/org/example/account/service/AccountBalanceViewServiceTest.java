@@ -0,0 +1,229 @@
+package org.example.account.service;
+
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.dto.AccountDto;
+import org.example.account.repository.AccountRepository;
+import org.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountBalanceViewServiceTest {
+    @Mock
+    private RedissonClient redissonClient;
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private RScript rScript;
+    
+    @Mock
+    private RMap<String, String> rMap;
+    
+    @InjectMocks
+    private AccountBalanceViewService accountBalanceViewService;
+    
+    @Test
+    void applyWithVersion() {
+        // given
+        Account account = Account.builder()
+                .accountUser(AccountUser.builder().id(1L).build())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(9000L)
+                .version(3L)
+                .build();
+        given(redissonClient.getScript(any(Codec.class)))
+                .willReturn(rScript);
+        given(rScript.eval(any(RScript.Mode.class), anyString(),
+                           any(RScript.ReturnType.class), anyList(),
+                           any(), any(), any()))
+                .willReturn(1L);
+        
+        // when
+        boolean applied = accountBalanceViewService.apply(account);
+        
+        // then
+        assertTrue(applied);
+        verify(rScript, times(1)).eval(
+                eq(RScript.Mode.READ_WRITE), anyString(),
+                eq(RScript.ReturnType.INTEGER), eq(List.<Object>of("ACBV:1")),
+                eq("1000000000"), eq("3"), eq("3:IN_USE:9000"));
+    }
+    
+    @Test
+    void dropOutOfOrderUpdate() {
+        // given
+        Account account = Account.builder()
+                .accountUser(AccountUser.builder().id(1L).build())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(9000L)
+                .version(1L)
+                .build();
+        given(redissonClient.getScript(any(Codec.class)))
+                .willReturn(rScript);
+        given(rScript.eval(any(RScript.Mode.class), anyString(),
+                           any(RScript.ReturnType.class), anyList(),
+                           any(), any(), any()))
+                .willReturn(0L);
+        
+        // when
+        // then
+        assertFalse(accountBalanceViewService.apply(account));
+    }
+    
+    @Test
+    void findAccountsFromView() {
+        // given
+        ReflectionTestUtils.setField(
+                accountBalanceViewService, "enabled", true);
+        Map<String, String> view = new HashMap<>();
+        view.put("1000000001", "2:UNREGISTERED:0");
+        view.put("1000000000", "5:IN_USE:1000");
+        view.put("#complete", "1");
+        given(redissonClient.<String, String>getMap(
+                anyString(), any(Codec.class)))
+                .willReturn(rMap);
+        given(rMap.readAllMap()).willReturn(view);
+        
+        // when
+        Optional<List<AccountDto>> accounts =
+                accountBalanceViewService.findAccountsByUserId(1L);
+        
+        // then
+        assertTrue(accounts.isPresent());
+        assertEquals(2, accounts.get().size());
+        assertEquals("1000000000", accounts.get().get(0).getAccountNumber());
+        assertEquals(1000L, accounts.get().get(0).getBalance());
+        assertEquals(AccountStatus.UNREGISTERED,
+                     accounts.get().get(1).getAccountStatus());
+    }
+    
+    @Test
+    void partialViewWithoutCompleteMarker() {
+        // given : 커밋 이후 갱신으로 일부 계좌만 들어간 hash
+        ReflectionTestUtils.setField(
+                accountBalanceViewService, "enabled", true);
+        Map<String, String> view = new HashMap<>();
+        view.put("1000000001", "2:IN_USE:500");
+        given(redissonClient.<String, String>getMap(
+                anyString(), any(Codec.class)))
+                .willReturn(rMap);
+        given(rMap.readAllMap()).willReturn(view);
+        
+        // when
+        Optional<List<AccountDto>> accounts =
+                accountBalanceViewService.findAccountsByUserId(1L);
+        
+        // then
+        assertFalse(accounts.isPresent());
+    }
+    
+    @Test
+    void backfillMarksComplete() {
+        // given
+        ReflectionTestUtils.setField(
+                accountBalanceViewService, "enabled", true);
+        Account account = Account.builder()
+                .accountUser(AccountUser.builder().id(1L).build())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(9000L)
+                .version(3L)
+                .build();
+        given(redissonClient.getScript(any(Codec.class)))
+                .willReturn(rScript);
+        given(redissonClient.<String, String>getMap(
+                anyString(), any(Codec.class)))
+                .willReturn(rMap);
+        
+        // when
+        accountBalanceViewService.backfill(1L, List.of(account));
+        
+        // then
+        verify(rScript, times(1)).eval(
+                eq(RScript.Mode.READ_WRITE), anyString(),
+                eq(RScript.ReturnType.INTEGER), eq(List.<Object>of("ACBV:1")),
+                eq("1000000000"), eq("3"), eq("3:IN_USE:9000"));
+        verify(redissonClient).getMap(eq("ACBV:1"), any(Codec.class));
+        verify(rMap).fastPut("#complete", "1");
+    }
+    
+    @Test
+    void emptyViewWhenDisabled() {
+        // given
+        // when
+        Optional<List<AccountDto>> accounts =
+                accountBalanceViewService.findAccountsByUserId(1L);
+        
+        // then
+        assertFalse(accounts.isPresent());
+        verify(redissonClient, times(0)).getMap(anyString(), any(Codec.class));
+    }
+    
+    @Test
+    void rebuildInChunksById() {
+        // given
+        ReflectionTestUtils.setField(accountBalanceViewService, "chunkSize", 2);
+        Account first = accountOf(1L, 1L, "1000000000");
+        Account second = accountOf(2L, 2L, "1000000001");
+        Account third = accountOf(3L, 1L, "1000000002");
+        given(accountRepository.findAllIds()).willReturn(List.of(1L, 2L, 3L));
+        given(accountRepository.findWithUserByIdIn(List.of(1L, 2L)))
+                .willReturn(List.of(first, second));
+        given(accountRepository.findWithUserByIdIn(List.of(3L)))
+                .willReturn(List.of(third));
+        given(redissonClient.getScript(any(Codec.class)))
+                .willReturn(rScript);
+        given(rScript.eval(any(RScript.Mode.class), anyString(),
+                           any(RScript.ReturnType.class), anyList(),
+                           any(), any(), any()))
+                .willReturn(1L);
+        given(redissonClient.<String, String>getMap(
+                anyString(), any(Codec.class)))
+                .willReturn(rMap);
+        
+        // when
+        int applied = accountBalanceViewService.rebuild();
+        
+        // then
+        assertEquals(3, applied);
+        verify(accountRepository, times(0)).findAll();
+        verify(redissonClient).getMap(eq("ACBV:1"), any(Codec.class));
+        verify(redissonClient).getMap(eq("ACBV:2"), any(Codec.class));
+        verify(rMap, times(2)).fastPut("#complete", "1");
+    }
+    
+    private Account accountOf(Long id, Long userId, String accountNumber) {
+        return Account.builder()
+                .id(id)
+                .accountUser(AccountUser.builder().id(userId).build())
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L)
+                .version(1L)
+                .build();
+    }
+}
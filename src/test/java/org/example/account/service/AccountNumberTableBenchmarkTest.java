@@ -0,0 +1,66 @@
+package org.example.account.service;
+
+import org.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 계좌 100만 개 기준 AccountNumberTable 과 HashMap<String, 값 객체> 의 heap 사용량 비교
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class AccountNumberTableBenchmarkTest {
+    private static final int ACCOUNTS = 1_000_000;
+    
+    @Test
+    void memoryPerMillionAccounts() {
+        long before = usedHeap();
+        AccountNumberTable table = new AccountNumberTable(16);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            table.put(1_000_000_000L + i, i, i % 1000, AccountStatus.IN_USE);
+        }
+        long tableBytes = usedHeap() - before;
+        
+        before = usedHeap();
+        Map<String, Entry> map = new HashMap<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            map.put(String.valueOf(1_000_000_000L + i),
+                    new Entry(i, i % 1000, AccountStatus.IN_USE));
+        }
+        long mapBytes = usedHeap() - before;
+        
+        System.out.printf("account number index per %,d accounts : " +
+                          "table %,d bytes (arrays %,d), hash map %,d bytes%n",
+                          ACCOUNTS, tableBytes, table.memoryBytes(), mapBytes);
+        assertEquals(ACCOUNTS, table.size());
+        assertEquals(ACCOUNTS, map.size());
+        assertTrue(tableBytes < mapBytes / 2);
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    private static class Entry {
+        private final long accountId;
+        private final long userId;
+        private final AccountStatus accountStatus;
+        
+        Entry(long accountId, long userId, AccountStatus accountStatus) {
+            this.accountId = accountId;
+            this.userId = userId;
+            this.accountStatus = accountStatus;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.dto.AccountSnapshot;
+import org.example.account.repository.AccountRepository;
+import org.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AccountNumberTableTest {
+    @Test
+    void putAndLookupAcrossResize() {
+        // given
+        AccountNumberTable table = new AccountNumberTable(4);
+        
+        // when : 연속된 계좌 번호로 여러 번 resize 되게 채운다.
+        for (long i = 0; i < 100_000; i++) {
+            table.put(1_000_000_000L + i, i + 1, i % 3,
+                      AccountStatus.IN_USE);
+        }
+        table.put(1_000_000_007L, 8L, 1L, AccountStatus.UNREGISTERED);
+        
+        // then
+        assertEquals(100_000, table.size());
+        for (long i = 0; i < 100_000; i++) {
+            assertEquals(i + 1, table.accountIdOf(1_000_000_000L + i));
+            assertEquals(i % 3, table.userIdOf(1_000_000_000L + i));
+        }
+        assertEquals(AccountStatus.UNREGISTERED,
+                     table.statusOf(1_000_000_007L));
+        assertEquals(AccountNumberTable.NOT_FOUND,
+                     table.accountIdOf(1_000_100_000L));
+        assertNull(table.statusOf(0L));
+    }
+    
+    @Test
+    void parseOnlyTenDigitNumbers() {
+        // given
+        // when
+        // then
+        assertEquals(1_000_000_012L, AccountNumberTable.parse("1000000012"));
+        assertEquals(12L, AccountNumberTable.parse("0000000012"));
+        assertEquals(AccountNumberTable.NOT_FOUND,
+                     AccountNumberTable.parse("100000001"));
+        assertEquals(AccountNumberTable.NOT_FOUND,
+                     AccountNumberTable.parse("10000000-1"));
+        assertEquals(AccountNumberTable.NOT_FOUND,
+                     AccountNumberTable.parse(null));
+    }
+    
+    @Test
+    void loadKeepsNewerEventValueAndFallsBackToRepository() {
+        // given
+        AccountNumberIndex index = new AccountNumberIndex(
+                new SimpleMeterRegistry());
+        index.put(Account.builder()
+                          .id(1L)
+                          .accountNumber("1000000000")
+                          .accountUser(AccountUser.builder().id(12L).build())
+                          .accountStatus(AccountStatus.UNREGISTERED)
+                          .build());
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        Account indexed = Account.builder().id(2L).build();
+        given(accountRepository.findById(2L))
+                .willReturn(Optional.of(indexed));
+        
+        // when
+        int loaded = index.load(List.of(
+                new AccountSnapshot(1L, "1000000000", 12L,
+                                    AccountStatus.IN_USE, 0L, 0L),
+                new AccountSnapshot(2L, "1000000001", 13L,
+                                    AccountStatus.IN_USE, 0L, 0L)));
+        Optional<Account> found = index.findAccount(
+                "1000000001", accountRepository);
+        index.findAccount("1000000002", accountRepository);
+        
+        // then
+        assertEquals(1, loaded);
+        assertEquals(AccountStatus.UNREGISTERED,
+                     index.statusOf("1000000000"));
+        assertEquals(13L, index.userIdOf("1000000001"));
+        assertSame(indexed, found.orElseThrow());
+        verify(accountRepository, never()).findByAccountNumber("1000000001");
+        verify(accountRepository).findByAccountNumber("1000000002");
+    }
+}
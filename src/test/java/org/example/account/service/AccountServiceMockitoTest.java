@@ -1,5 +1,7 @@
 package org.example.account.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.account.domain.Account;
 import org.example.account.domain.AccountUser;
 import org.example.account.dto.AccountDto;
@@ -14,16 +16,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -35,6 +43,24 @@ class AccountServiceMockitoTest {
     @Mock
     private AccountUserRepository accountUserRepository;
     
+    @Mock
+    private AccountBalanceViewService accountBalanceViewService;
+    
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    
+    @Spy
+    private AccountNumberIndex accountNumberIndex =
+            new AccountNumberIndex(meterRegistry);
+    
+    @Mock
+    private ObjectProvider<BalanceEngineService> balanceEngineService;
+    
     @InjectMocks
     private AccountService accountService;
     
@@ -174,6 +200,38 @@ class AccountServiceMockitoTest {
         );
     }
     
+    @Test
+    @DisplayName("index 에서 해지된 계좌 - 계좌를 읽지 않고 해지 실패")
+    void deleteAccountFailed_UnregisteredInIndex() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        accountNumberIndex.put(Account.builder()
+                                       .id(1L)
+                                       .accountUser(user)
+                                       .accountStatus(
+                                               AccountStatus.UNREGISTERED)
+                                       .accountNumber("1000000012")
+                                       .build());
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> accountService.deleteAccount(12L, "1000000012")
+        );
+        
+        // then
+        assertEquals(
+                ErrorCode.ACCOUNT_ALREADY_UNREGISTERED,
+                exception.getErrorCode()
+        );
+        verify(accountRepository, times(0)).findById(anyLong());
+    }
+    
     @Test
     @DisplayName("해지 계좌 잔고는 없어야 한다.")
     void deleteAccountFailed_BalanceNotEmpty() {
@@ -263,6 +321,36 @@ class AccountServiceMockitoTest {
         assertEquals("10000000012", accountDto.getAccountNumber());
     }
     
+    @Test
+    @DisplayName("잔액 엔진 모드의 계좌 해지는 엔진의 잔액으로 확인")
+    void deleteAccountWithBalanceEngine() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+        BalanceEngineService engine = mock(BalanceEngineService.class);
+        
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        // DB 잔액은 checkpoint 전의 값이다.
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                                                .accountUser(user)
+                                                .balance(1000L)
+                                                .accountNumber("1000000012")
+                                                .build()));
+        given(balanceEngineService.getIfAvailable()).willReturn(engine);
+        
+        // when
+        AccountDto accountDto = accountService.deleteAccount(
+                12L, "1000000012");
+        
+        // then
+        verify(engine).unregisterAccount(12L, "1000000012");
+        assertEquals("1000000012", accountDto.getAccountNumber());
+    }
+    
     @Test
     @DisplayName("해당 계좌 없음 - 계좌 해지 실패")
     void deleteAccount_AccountNotFound() {
@@ -363,6 +451,81 @@ class AccountServiceMockitoTest {
         assertEquals(2000L, accountDtos.get(1).getBalance());
         assertEquals("2222222222", accountDtos.get(2).getAccountNumber());
         assertEquals(3000L, accountDtos.get(2).getBalance());
+        verify(accountBalanceViewService).backfill(1L, accounts);
     }
     
-}
\ No newline at end of file
+    @Test
+    @DisplayName("읽기 모델에 있으면 DB 조회 없이 반환")
+    void getAccountsByUserId_FromBalanceView() {
+        // given
+        given(accountBalanceViewService.findAccountsByUserId(anyLong()))
+                .willReturn(Optional.of(Arrays.asList(
+                        AccountDto.builder()
+                                .userId(1L)
+                                .accountNumber("1000000000")
+                                .balance(1000L)
+                                .build())));
+        
+        // when
+        List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
+        
+        // then
+        assertEquals(1, accountDtos.size());
+        assertEquals(1000L, accountDtos.get(0).getBalance());
+        verify(accountUserRepository, times(0)).findById(anyLong());
+        verify(accountRepository, times(0)).findByAccountUser(any());
+    }
+    
+    @Test
+    @DisplayName("같은 사용자 동시 조회는 DB 를 한 번만 조회")
+    void getAccountsByUserId_CoalesceConcurrentCalls() throws Exception {
+        // given
+        int callers = 20;
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+        List<Account> accounts = Arrays.asList(
+                Account.builder()
+                        .accountUser(user)
+                        .accountNumber("0000000000")
+                        .balance(1000L)
+                        .build());
+        CountDownLatch release = new CountDownLatch(1);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountUser(any()))
+                .willAnswer(invocation -> {
+                    release.await();
+                    return accounts;
+                });
+        Counter coalesced = meterRegistry.counter(
+                "account.singleflight.calls",
+                "group", "accountsByUser", "role", "coalesced");
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<List<AccountDto>>> results = new ArrayList<>();
+        
+        // when
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(
+                    () -> accountService.getAccountsByUserId(12L)));
+        }
+        // 첫 요청이 DB 조회에 묶여 있는 동안 나머지가 모두 합류할 때까지 기다린다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced.count() < callers - 1 &&
+               System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        
+        // then
+        for (Future<List<AccountDto>> result : results) {
+            assertEquals("0000000000", result.get(5, TimeUnit.SECONDS)
+                    .get(0).getAccountNumber());
+        }
+        executor.shutdown();
+        assertEquals(callers - 1, coalesced.count());
+        verify(accountUserRepository, times(1)).findById(anyLong());
+        verify(accountRepository, times(1)).findByAccountUser(any());
+    }
+}
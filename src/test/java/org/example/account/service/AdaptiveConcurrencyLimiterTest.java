@@ -0,0 +1,93 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private SimpleMeterRegistry meterRegistry;
+    
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+    
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        adaptiveConcurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                10, 2, 100, 1.0, 1.5, 100, meterRegistry);
+    }
+    
+    @Test
+    void rejectBeyondLimitWithoutQueuing() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                2, 1, 10, 1.0, 1.5, 100, meterRegistry);
+        
+        // when
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+        
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.counter(
+                "account.concurrency.rejected").count());
+        assertEquals(2.0, meterRegistry.get("account.concurrency.limit")
+                .gauge().value());
+    }
+    
+    @Test
+    void growLimitWhileLatencyIsStable() {
+        // given
+        // when
+        for (int i = 0; i < 5; i++) {
+            sample(10);
+        }
+        
+        // then
+        assertTrue(adaptiveConcurrencyLimiter.getLimit() > 10);
+    }
+    
+    @Test
+    void shrinkLimitWhenLatencyRises() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            sample(10);
+        }
+        int before = adaptiveConcurrencyLimiter.getLimit();
+        
+        // when
+        sample(200);
+        sample(200);
+        
+        // then
+        assertTrue(adaptiveConcurrencyLimiter.getLimit() < before);
+    }
+    
+    @Test
+    void keepLimitWhenMostlyIdle() {
+        // given
+        // when
+        assertTrue(adaptiveConcurrencyLimiter.tryAcquire());
+        adaptiveConcurrencyLimiter.release(
+                TimeUnit.MILLISECONDS.toNanos(10));
+        
+        // then
+        assertEquals(10, adaptiveConcurrencyLimiter.getLimit());
+        assertEquals(0, adaptiveConcurrencyLimiter.getInFlight());
+    }
+    
+    // limit 까지 채운 뒤 하나를 끝내서 부하가 걸린 상태의 처리 시간을 기록한다.
+    private void sample(long millis) {
+        while (adaptiveConcurrencyLimiter.tryAcquire()) {
+        }
+        adaptiveConcurrencyLimiter.release(
+                TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
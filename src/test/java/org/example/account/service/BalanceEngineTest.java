@@ -0,0 +1,220 @@
+package org.example.account.service;
+
+import org.example.account.dto.AccountSnapshot;
+import org.example.account.exception.AccountException;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceEngineTest {
+    private static final String ACCOUNT_NUMBER = "1000000012";
+    
+    @TempDir
+    Path walDir;
+    
+    private BalanceEngine balanceEngine;
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        if (balanceEngine != null) {
+            balanceEngine.stop();
+        }
+    }
+    
+    @Test
+    void useAndCancelInMemoryAfterWalSync() throws Exception {
+        // given
+        balanceEngine = start(10000L, 0L);
+        
+        // when
+        BalanceEngineEntry use = await(balanceEngine.use(
+                ACCOUNT_NUMBER, 12L, 3000L));
+        BalanceEngineEntry cancel = await(balanceEngine.cancel(
+                ACCOUNT_NUMBER, use.getTransactionId(), 3000L, null));
+        
+        // then
+        assertEquals(7000L, use.getBalanceAfter());
+        assertEquals(10000L, cancel.getBalanceAfter());
+        assertEquals(use.getTransactionId(),
+                     cancel.getOriginalTransactionId());
+        assertEquals(2, balanceEngine.getEntries());
+        assertTrue(balanceEngine.getSyncs() >= 1);
+        
+        List<BalanceEngineEntry> durable = new ArrayList<>();
+        balanceEngine.drainDurable(durable);
+        assertEquals(List.of(1L, 2L), durable.stream()
+                .map(BalanceEngineEntry::getSequence)
+                .collect(Collectors.toList()));
+        assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED, errorOf(
+                balanceEngine.cancel(ACCOUNT_NUMBER, use.getTransactionId(),
+                                     3000L, null)));
+    }
+    
+    @Test
+    void rejectWithoutChangingBalance() throws Exception {
+        // given
+        balanceEngine = start(10000L, 4000L);
+        
+        // when
+        ErrorCode exceed = errorOf(balanceEngine.use(
+                ACCOUNT_NUMBER, 12L, 6001L));
+        ErrorCode otherUser = errorOf(balanceEngine.use(
+                ACCOUNT_NUMBER, 13L, 100L));
+        ErrorCode notFound = errorOf(balanceEngine.use(
+                "1000000099", 12L, 100L));
+        BalanceEngineEntry use = await(balanceEngine.use(
+                ACCOUNT_NUMBER, 12L, 6000L));
+        
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exceed);
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, otherUser);
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, notFound);
+        assertEquals(1L, use.getSequence());
+        assertEquals(4000L, use.getBalanceAfter());
+    }
+    
+    @Test
+    void replayWalAfterCheckpointOnRestart() throws Exception {
+        // given
+        balanceEngine = start(10000L, 0L);
+        await(balanceEngine.use(ACCOUNT_NUMBER, 12L, 1000L));
+        await(balanceEngine.use(ACCOUNT_NUMBER, 12L, 2000L));
+        BalanceEngineEntry third = await(balanceEngine.use(
+                ACCOUNT_NUMBER, 12L, 3000L));
+        balanceEngine.stop();
+        // fsync 되지 않고 끊긴 레코드
+        try (SeekableByteChannel channel = Files.newByteChannel(
+                segments().get(segments().size() - 1),
+                StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        }
+        
+        // when : DB 에는 첫 거래(순번 1)까지만 반영되어 있다.
+        balanceEngine = new BalanceEngine(
+                new BalanceEngineWal(walDir, 16), 64, 16);
+        int replayed = balanceEngine.start(
+                List.of(snapshot(9000L, 0L)), 1L);
+        BalanceEngineEntry next = await(balanceEngine.use(
+                ACCOUNT_NUMBER, 12L, 500L));
+        BalanceEngineEntry cancel = await(balanceEngine.cancel(
+                ACCOUNT_NUMBER, third.getTransactionId(), 3000L, null));
+        
+        // then
+        assertEquals(2, replayed);
+        assertEquals(4L, next.getSequence());
+        assertEquals(3500L, next.getBalanceAfter());
+        assertEquals(6500L, cancel.getBalanceAfter());
+        
+        List<BalanceEngineEntry> durable = new ArrayList<>();
+        balanceEngine.drainDurable(durable);
+        assertEquals(List.of(2L, 3L, 4L, 5L), durable.stream()
+                .map(BalanceEngineEntry::getSequence)
+                .collect(Collectors.toList()));
+        assertEquals(TransactionType.CANCEL,
+                     durable.get(3).getTransactionType());
+    }
+    
+    @Test
+    void unregisterOnlyEmptyAccountAndReopen() throws Exception {
+        // given
+        balanceEngine = start(1000L, 0L);
+        
+        // when
+        ErrorCode notEmpty = errorOf(balanceEngine.unregisterAccount(
+                ACCOUNT_NUMBER, 12L));
+        await(balanceEngine.use(ACCOUNT_NUMBER, 12L, 1000L));
+        ErrorCode otherUser = errorOf(balanceEngine.unregisterAccount(
+                ACCOUNT_NUMBER, 13L));
+        await(balanceEngine.unregisterAccount(ACCOUNT_NUMBER, 12L));
+        ErrorCode useAfterUnregister = errorOf(balanceEngine.use(
+                ACCOUNT_NUMBER, 12L, 0L));
+        await(balanceEngine.reopenAccount(ACCOUNT_NUMBER));
+        
+        // then
+        assertEquals(ErrorCode.BALANCE_NOT_EMPTY, notEmpty);
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, otherUser);
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED,
+                     useAfterUnregister);
+        assertEquals(0L, await(balanceEngine.use(
+                ACCOUNT_NUMBER, 12L, 0L)).getBalanceAfter());
+    }
+    
+    @Test
+    void deleteCheckpointedSegments() throws Exception {
+        // given
+        balanceEngine = start(10000L, 0L);
+        await(balanceEngine.use(ACCOUNT_NUMBER, 12L, 1000L));
+        
+        // when
+        balanceEngine.checkpointed(1L);
+        long deadline = System.currentTimeMillis() + 1000;
+        while (Files.exists(walDir.resolve(
+                String.format("wal-%020d.log", 1L))) &&
+               System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        await(balanceEngine.use(ACCOUNT_NUMBER, 12L, 1000L));
+        balanceEngine.stop();
+        
+        // then : 순번 1 만 담은 segment 는 지워지고 이후 레코드만 남는다.
+        BalanceEngineWal wal = new BalanceEngineWal(walDir, 16);
+        List<BalanceEngineEntry> remaining = wal.recover(0L);
+        wal.close();
+        assertEquals(1, remaining.size());
+        assertEquals(2L, remaining.get(0).getSequence());
+        assertEquals(8000L, remaining.get(0).getBalanceAfter());
+        balanceEngine = null;
+    }
+    
+    private BalanceEngine start(Long balance, Long heldAmount)
+            throws Exception {
+        BalanceEngine engine = new BalanceEngine(
+                new BalanceEngineWal(walDir, 16), 64, 16);
+        engine.start(List.of(snapshot(balance, heldAmount)), 0L);
+        
+        return engine;
+    }
+    
+    private static AccountSnapshot snapshot(Long balance, Long heldAmount) {
+        return new AccountSnapshot(1L, ACCOUNT_NUMBER, 12L,
+                                   AccountStatus.IN_USE, balance, heldAmount);
+    }
+    
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(walDir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+    
+    private static BalanceEngineEntry await(
+            CompletableFuture<BalanceEngineEntry> future) throws Exception {
+        return future.get(1, TimeUnit.SECONDS);
+    }
+    
+    private static ErrorCode errorOf(
+            CompletableFuture<BalanceEngineEntry> future) throws Exception {
+        ExecutionException exception = assertThrows(
+                ExecutionException.class,
+                () -> future.get(1, TimeUnit.SECONDS));
+        
+        return ((AccountException) exception.getCause()).getErrorCode();
+    }
+}
@@ -0,0 +1,385 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.domain.BalanceHold;
+import org.example.account.domain.Transaction;
+import org.example.account.dto.AccountSnapshot;
+import org.example.account.dto.BalanceHoldDto;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.BalanceHoldRepository;
+import org.example.account.repository.TransactionOutboxRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.HoldStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceHoldServiceTest {
+    private static final String ACCOUNT_NUMBER = "1000000012";
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+    
+    @Mock
+    private AccountUserRepository accountUserRepository;
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+    
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    private BalanceHoldService balanceHoldService;
+    
+    private InMemorySpendingLimitStore spendingLimitStore;
+    
+    private AccountUser user;
+    
+    @BeforeEach
+    void init() {
+        // lock 안에서 실행되는 홀드 변경도 같은 mock 으로 실제 실행한다.
+        spendingLimitStore = new InMemorySpendingLimitStore();
+        SpendingLimiter spendingLimiter = new SpendingLimiter(
+                spendingLimitStore, new SimpleMeterRegistry(),
+                true, Long.MAX_VALUE / 2, Long.MAX_VALUE / 2);
+        BalanceMutationService balanceMutationService =
+                new BalanceMutationService(
+                        transactionRepository, transactionOutboxRepository,
+                        accountRepository, applicationEventPublisher,
+                        spendingLimiter,
+                        new AccountNumberIndex(new SimpleMeterRegistry()),
+                        new KnownIdFilter(new SimpleMeterRegistry(), false,
+                                          0.01, 1, 1));
+        balanceHoldService = new BalanceHoldService(
+                accountUserRepository, accountRepository,
+                balanceHoldRepository,
+                new BalanceHoldMutationService(
+                        balanceHoldRepository, accountRepository,
+                        balanceMutationService, applicationEventPublisher,
+                        spendingLimiter),
+                new SimpleMeterRegistry(), 600, 500, false);
+        user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+    }
+    
+    @Test
+    @DisplayName("승인 성공 - 사용 가능 금액만큼 홀드")
+    void successAuthorize() {
+        // given
+        Account account = accountOf(ACCOUNT_NUMBER, 10000L, 3000L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<BalanceHold> captor =
+                ArgumentCaptor.forClass(BalanceHold.class);
+        
+        // when
+        BalanceHoldDto balanceHoldDto = balanceHoldService.authorize(
+                12L, ACCOUNT_NUMBER, 7000L);
+        
+        // then
+        verify(balanceHoldRepository, times(1)).save(captor.capture());
+        assertEquals(HoldStatus.PENDING, captor.getValue().getHoldStatus());
+        assertTrue(captor.getValue().getExpiresAt()
+                           .isAfter(LocalDateTime.now()));
+        assertEquals(10000L, account.getBalance());
+        assertEquals(10000L, account.getHeldAmount());
+        assertEquals(0L, balanceHoldDto.getAvailableBalance());
+    }
+    
+    @Test
+    @DisplayName("홀드 금액을 뺀 사용 가능 금액 초과 - 승인 실패")
+    void authorize_ExceedAvailableBalance() {
+        // given
+        Account account = accountOf(ACCOUNT_NUMBER, 10000L, 3000L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> balanceHoldService.authorize(12L, ACCOUNT_NUMBER, 7001L));
+        
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(balanceHoldRepository, never()).save(any());
+    }
+    
+    @Test
+    @DisplayName("홀드 여러 건 일괄 확정 - 요청 순서대로 거래 생성")
+    void successCaptureBatch() {
+        // given
+        Account account = accountOf(ACCOUNT_NUMBER, 10000L, 3000L);
+        BalanceHold first = holdOf("hold1", account, 1000L);
+        BalanceHold second = holdOf("hold2", account, 2000L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.findWithAccountByHoldIdIn(anyList()))
+                .willReturn(Arrays.asList(second, first));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor =
+                ArgumentCaptor.forClass(Transaction.class);
+        
+        // when
+        List<BalanceHoldDto> balanceHoldDtos = balanceHoldService.capture(
+                12L, ACCOUNT_NUMBER, Arrays.asList("hold1", "hold2"));
+        
+        // then
+        verify(transactionRepository, times(2)).save(captor.capture());
+        assertEquals(9000L, captor.getAllValues().get(0).getBalanceSnapshot());
+        assertEquals(7000L, captor.getAllValues().get(1).getBalanceSnapshot());
+        assertEquals(7000L, account.getBalance());
+        assertEquals(0L, account.getHeldAmount());
+        assertEquals("hold1", balanceHoldDtos.get(0).getHoldId());
+        assertEquals(HoldStatus.CAPTURED, first.getHoldStatus());
+        assertEquals(captor.getAllValues().get(1).getTransactionId(),
+                     second.getTransactionId());
+    }
+    
+    @Test
+    @DisplayName("이미 해제된 홀드 포함 - 일괄 확정 전체 실패")
+    void capture_AlreadySettled() {
+        // given
+        Account account = accountOf(ACCOUNT_NUMBER, 10000L, 1000L);
+        BalanceHold pending = holdOf("hold1", account, 1000L);
+        BalanceHold voided = holdOf("hold2", account, 2000L);
+        voided.settle(HoldStatus.VOIDED, null);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.findWithAccountByHoldIdIn(anyList()))
+                .willReturn(Arrays.asList(pending, voided));
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> balanceHoldService.capture(
+                        12L, ACCOUNT_NUMBER, Arrays.asList("hold1", "hold2")));
+        
+        // then
+        assertEquals(ErrorCode.HOLD_ALREADY_SETTLED, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+        assertEquals(1000L, account.getHeldAmount());
+    }
+    
+    @Test
+    @DisplayName("다른 사용자의 계좌 - 홀드 확정/해제 모두 lock 전에 실패")
+    void captureAndVoid_UserUnMatch() {
+        // given
+        AccountUser other = AccountUser.builder()
+                .id(13L)
+                .name("Harry")
+                .build();
+        Account account = accountOf(ACCOUNT_NUMBER, 10000L, 1000L);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(other));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        
+        // when
+        AccountException captureException = assertThrows(
+                AccountException.class,
+                () -> balanceHoldService.capture(
+                        13L, ACCOUNT_NUMBER, List.of("hold1")));
+        AccountException voidException = assertThrows(
+                AccountException.class,
+                () -> balanceHoldService.voidHold(
+                        13L, ACCOUNT_NUMBER, "hold1"));
+        
+        // then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH,
+                     captureException.getErrorCode());
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH,
+                     voidException.getErrorCode());
+        verify(balanceHoldRepository, never()).findWithAccountByHoldIdIn(
+                anyList());
+        verify(transactionRepository, never()).save(any());
+        assertEquals(1000L, account.getHeldAmount());
+    }
+    
+    @Test
+    @DisplayName("홀드 해제 - 승인 때 누적한 사용 한도를 되돌린다")
+    void voidHoldReleasesSpendingLimit() {
+        // given
+        Account account = accountOf(ACCOUNT_NUMBER, 10000L, 3000L);
+        BalanceHold balanceHold = holdOf("hold1", account, 3000L);
+        long authorizedAt = epochMillisOf(balanceHold);
+        spendingLimitStore.seed(ACCOUNT_NUMBER, 3000L, authorizedAt);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.findWithAccountByHoldIdIn(anyList()))
+                .willReturn(List.of(balanceHold));
+        
+        // when
+        balanceHoldService.voidHold(12L, ACCOUNT_NUMBER, "hold1");
+        
+        // then
+        assertEquals(HoldStatus.VOIDED, balanceHold.getHoldStatus());
+        assertEquals(0L, account.getHeldAmount());
+        long[] spent = spendingLimitStore.spent(ACCOUNT_NUMBER, authorizedAt);
+        assertEquals(0L, spent[0]);
+        assertEquals(0L, spent[1]);
+    }
+    
+    @Test
+    @DisplayName("잔액 엔진 모드 - 홀드는 거절되고 엔진 사용만 잔액을 바꾼다")
+    void holdRejectedWhileEngineUsesBalance(@TempDir Path walDir)
+            throws Exception {
+        // given
+        BalanceHoldMutationService balanceHoldMutationService =
+                mock(BalanceHoldMutationService.class);
+        BalanceHoldService engineModeService = new BalanceHoldService(
+                accountUserRepository, accountRepository,
+                balanceHoldRepository, balanceHoldMutationService,
+                new SimpleMeterRegistry(), 600, 500, true);
+        BalanceEngine balanceEngine = new BalanceEngine(
+                new BalanceEngineWal(walDir, 16), 64, 16);
+        balanceEngine.start(List.of(new AccountSnapshot(
+                1L, ACCOUNT_NUMBER, 12L, AccountStatus.IN_USE, 10000L, 0L)),
+                            0L);
+        
+        try {
+            // when : 같은 계좌에 홀드 승인과 엔진 사용이 동시에 들어온다.
+            CompletableFuture<BalanceHoldDto> hold =
+                    CompletableFuture.supplyAsync(
+                            () -> engineModeService.authorize(
+                                    12L, ACCOUNT_NUMBER, 8000L));
+            BalanceEngineEntry use = balanceEngine.use(
+                    ACCOUNT_NUMBER, 12L, 8000L).get(1, TimeUnit.SECONDS);
+            
+            // then
+            ExecutionException exception = assertThrows(
+                    ExecutionException.class,
+                    () -> hold.get(1, TimeUnit.SECONDS));
+            assertEquals(ErrorCode.BALANCE_ENGINE_MODE_UNSUPPORTED,
+                         ((AccountException) exception.getCause())
+                                 .getErrorCode());
+            assertEquals(2000L, use.getBalanceAfter());
+            verifyNoInteractions(balanceHoldMutationService,
+                                 balanceHoldRepository, accountRepository);
+        } finally {
+            balanceEngine.stop();
+        }
+    }
+    
+    @Test
+    @DisplayName("만료된 홀드 해제 - 계좌별로 묶어서 처리")
+    void releaseExpiredHolds() {
+        // given
+        Account first = accountOf(ACCOUNT_NUMBER, 10000L, 3000L);
+        Account second = accountOf("1000000013", 5000L, 500L);
+        List<BalanceHold> expired = Arrays.asList(
+                holdOf("hold1", first, 1000L),
+                holdOf("hold2", second, 500L),
+                holdOf("hold3", first, 2000L));
+        expired.forEach(balanceHold -> balanceHold.setExpiresAt(
+                LocalDateTime.now().minusSeconds(1)));
+        long authorizedAt = epochMillisOf(expired.get(0));
+        expired.forEach(balanceHold -> spendingLimitStore.seed(
+                balanceHold.getAccount().getAccountNumber(),
+                balanceHold.getAmount(), authorizedAt));
+        given(balanceHoldRepository.findExpired(
+                eq(HoldStatus.PENDING), any(), any()))
+                .willReturn(expired);
+        given(balanceHoldRepository.findWithAccountByHoldIdIn(
+                Arrays.asList("hold1", "hold3")))
+                .willReturn(Arrays.asList(expired.get(0), expired.get(2)));
+        given(balanceHoldRepository.findWithAccountByHoldIdIn(
+                List.of("hold2")))
+                .willReturn(List.of(expired.get(1)));
+        
+        // when
+        balanceHoldService.releaseExpired();
+        
+        // then
+        assertEquals(0L, first.getHeldAmount());
+        assertEquals(0L, second.getHeldAmount());
+        assertEquals(10000L, first.getBalance());
+        expired.forEach(balanceHold -> assertEquals(
+                HoldStatus.EXPIRED, balanceHold.getHoldStatus()));
+        assertEquals(0L, spendingLimitStore.spent(
+                ACCOUNT_NUMBER, authorizedAt)[1]);
+        assertEquals(0L, spendingLimitStore.spent(
+                "1000000013", authorizedAt)[1]);
+    }
+    
+    private Account accountOf(String accountNumber, Long balance,
+                              Long heldAmount) {
+        return Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(balance)
+                .heldAmount(heldAmount)
+                .accountNumber(accountNumber)
+                .build();
+    }
+    
+    private BalanceHold holdOf(String holdId, Account account, Long amount) {
+        return BalanceHold.builder()
+                .holdId(holdId)
+                .account(account)
+                .amount(amount)
+                .holdStatus(HoldStatus.PENDING)
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+    
+    private long epochMillisOf(BalanceHold balanceHold) {
+        return balanceHold.getCreatedAt().atZone(ZoneId.systemDefault())
+                .toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.account.aop.AccountLockContext;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.dto.AccountDto;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * lease 가 만료될 만큼 멈췄던(GC pause) lock 보유자의 늦은 변경이 fencing token 으로 거절되는지 확인한다.
+ */
+@DataJpaTest
+@Import({BalanceMutationService.class, SpendingLimiter.class,
+        InMemorySpendingLimitStore.class, SimpleMeterRegistry.class,
+        AccountNumberIndex.class, KnownIdFilter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceMutationFencingTest {
+    private static final String ACCOUNT_NUMBER = "2000000001";
+    
+    @Autowired
+    private BalanceMutationService balanceMutationService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void rejectStaleHolderAfterPause() throws Exception {
+        // given
+        AccountUser user = accountUserRepository.save(
+                AccountUser.builder().name("Pobi").build());
+        AccountDto accountDto = AccountDto.fromEntity(
+                accountRepository.save(Account.builder()
+                                               .accountUser(user)
+                                               .accountNumber(ACCOUNT_NUMBER)
+                                               .accountStatus(
+                                                       AccountStatus.IN_USE)
+                                               .balance(10000L)
+                                               .build()));
+        CountDownLatch paused = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        // when
+        // A: token 1 로 lock 을 취득한 직후 멈춰서 lease 가 만료된다.
+        Future<Throwable> staleHolder = executor.submit(() -> {
+            AccountLockContext.setFencingToken(ACCOUNT_NUMBER, 1L);
+            try {
+                paused.countDown();
+                resume.await();
+                balanceMutationService.useBalance(accountDto, 1000L);
+                return null;
+            } catch (Throwable e) {
+                return e;
+            } finally {
+                AccountLockContext.clear(ACCOUNT_NUMBER);
+            }
+        });
+        paused.await();
+        
+        // B: 만료된 lock 을 token 2 로 다시 취득해 먼저 변경한다.
+        AccountLockContext.setFencingToken(ACCOUNT_NUMBER, 2L);
+        try {
+            balanceMutationService.useBalance(accountDto, 3000L);
+        } finally {
+            AccountLockContext.clear(ACCOUNT_NUMBER);
+        }
+        resume.countDown();
+        Throwable staleResult = staleHolder.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        
+        // then
+        assertInstanceOf(AccountException.class, staleResult);
+        assertEquals(ErrorCode.STALE_LOCK_TOKEN,
+                     ((AccountException) staleResult).getErrorCode());
+        Account account = accountRepository.findByAccountNumber(ACCOUNT_NUMBER)
+                .orElseThrow();
+        assertEquals(7000L, account.getBalance());
+        assertEquals(2L, account.getFencingToken());
+    }
+    
+    @Test
+    void tokenCheckKeepsOtherAccountsCached() {
+        // given
+        AccountUser user = accountUserRepository.save(
+                AccountUser.builder().name("Pobi").build());
+        Account mutated = accountRepository.save(Account.builder()
+                .accountUser(user)
+                .accountNumber("2000000002")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build());
+        Account other = accountRepository.save(Account.builder()
+                .accountUser(user)
+                .accountNumber("2000000003")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build());
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+        accountRepository.findById(other.getId()).orElseThrow();
+        assertTrue(cache.contains(Account.class, other.getId()));
+        
+        // when
+        AccountLockContext.setFencingToken("2000000002", 5L);
+        try {
+            balanceMutationService.useBalance(
+                    AccountDto.fromEntity(mutated), 1000L);
+        } finally {
+            AccountLockContext.clear("2000000002");
+        }
+        
+        // then
+        assertTrue(cache.contains(Account.class, other.getId()));
+        assertEquals(5L, accountRepository.findById(mutated.getId())
+                .orElseThrow().getFencingToken());
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.domain.Transaction;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.TransactionArchiveRepository;
+import org.example.account.repository.TransactionOutboxRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.AccountStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+/**
+ * lock 구간이 잔액 변경(조회 - 검증 - 변경 - 저장)만 포함하는지 보유 시간으로 확인한다.
+ * 이전에는 controller 전체(사전 검증 포함)가 lock 구간이었다.
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceMutationLockScopeTest {
+    private static final long PRE_VALIDATION_DELAY_MILLIS = 30L;
+    
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+    
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+    
+    @Mock
+    private AccountUserRepository accountUserRepository;
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    @Mock
+    private LockService lockService;
+    
+    private final AtomicLong lockedAt = new AtomicLong();
+    private final AtomicLong unlockedAt = new AtomicLong();
+    
+    private final AccountNumberIndex accountNumberIndex =
+            new AccountNumberIndex(new SimpleMeterRegistry());
+    
+    private final KnownIdFilter knownIdFilter = new KnownIdFilter(
+            new SimpleMeterRegistry(), false, 0.01, 1, 1);
+    
+    private TransactionService transactionService;
+    
+    @BeforeEach
+    void init() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+                new BalanceMutationService(
+                        transactionRepository, transactionOutboxRepository,
+                        accountRepository, applicationEventPublisher,
+                        new SpendingLimiter(
+                                new InMemorySpendingLimitStore(),
+                                new SimpleMeterRegistry(), true, 0L, 0L),
+                        accountNumberIndex, knownIdFilter));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new LockAopAspect(
+                lockService, new LockHoldTimeTracker(
+                512, 50, 3.0, 1000, new SimpleMeterRegistry())));
+        BalanceMutationService lockedService = proxyFactory.getProxy();
+        
+        transactionService = new TransactionService(
+                transactionRepository, transactionArchiveRepository,
+                accountUserRepository, accountRepository, lockedService,
+                new SingleFlight(new SimpleMeterRegistry()),
+                accountNumberIndex, knownIdFilter);
+        
+        willAnswer(invocation -> {
+            lockedAt.set(System.nanoTime());
+            return null;
+        }).given(lockService).lock(anyString(), anyLong(), anyLong(), anyLong());
+        willAnswer(invocation -> {
+            unlockedAt.set(System.nanoTime());
+            return null;
+        }).given(lockService).unlock(anyString());
+    }
+    
+    @Test
+    void lockHeldOnlyForBalanceMutation() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012")
+                .build();
+        // 사용자 조회는 lock 밖에서만 일어난다.
+        willAnswer(invocation -> {
+            Thread.sleep(PRE_VALIDATION_DELAY_MILLIS);
+            return Optional.of(user);
+        }).given(accountUserRepository).findById(anyLong());
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.<Transaction>getArgument(0));
+        
+        // when
+        long start = System.nanoTime();
+        transactionService.useBalance(12L, "1000000012", 1000L);
+        long requestNanos = System.nanoTime() - start;
+        long holdNanos = unlockedAt.get() - lockedAt.get();
+        
+        // then
+        assertEquals(9000L, account.getBalance());
+        assertTrue(holdNanos > 0);
+        assertTrue(requestNanos - holdNanos >=
+                   TimeUnit.MILLISECONDS.toNanos(PRE_VALIDATION_DELAY_MILLIS));
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.domain.Account;
+import org.example.account.domain.ReconciliationCheckpoint;
+import org.example.account.dto.ReconciliationReport;
+import org.example.account.dto.TransactionChainEntry;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.ReconciliationCheckpointRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.ReconciliationDiscrepancyType;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReconciliationServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private ReconciliationCheckpointRepository checkpointRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private BalanceReconciliationService balanceReconciliationService;
+    
+    @BeforeEach
+    void init() {
+        balanceReconciliationService = new BalanceReconciliationService(
+                accountRepository, transactionRepository, checkpointRepository,
+                new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), 2, 1);
+    }
+    
+    @Test
+    void reportSnapshotGapAndKeepCheckpointBeforeIt() {
+        // given
+        given(accountRepository.findAllIds())
+                .willReturn(Arrays.asList(1L, 2L));
+        given(checkpointRepository.findAllById(anyList()))
+                .willReturn(Collections.emptyList());
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(account(1L, "1000000001", 10000L)));
+        given(accountRepository.findById(2L))
+                .willReturn(Optional.of(account(2L, "1000000002", 4000L)));
+        given(transactionRepository.streamChainByAccountId(1L, 0L))
+                .willReturn(Stream.of(
+                        entry(11L, TransactionType.USE, 1000L, 9000L),
+                        entry(12L, TransactionType.CANCEL, 1000L, 10000L)));
+        given(transactionRepository.streamChainByAccountId(2L, 0L))
+                .willReturn(Stream.of(
+                        entry(21L, TransactionType.USE, 500L, 5000L),
+                        entry(22L, TransactionType.USE, 500L, 4000L)));
+        ArgumentCaptor<ReconciliationCheckpoint> captor =
+                ArgumentCaptor.forClass(ReconciliationCheckpoint.class);
+        
+        // when
+        ReconciliationReport report = balanceReconciliationService.reconcile();
+        
+        // then
+        assertEquals(2, report.getAccounts());
+        assertEquals(4, report.getTransactions());
+        assertTrue(report.getAccountsPerSecond() > 0);
+        assertEquals(1, report.getDiscrepancies().size());
+        ReconciliationReport.Discrepancy discrepancy =
+                report.getDiscrepancies().get(0);
+        assertEquals(ReconciliationDiscrepancyType.SNAPSHOT_MISMATCH,
+                     discrepancy.getType());
+        assertEquals("1000000002", discrepancy.getAccountNumber());
+        assertEquals("tx22", discrepancy.getTransactionId());
+        assertEquals(4500L, discrepancy.getExpected());
+        assertEquals(4000L, discrepancy.getActual());
+        
+        verify(checkpointRepository, times(2)).save(captor.capture());
+        List<ReconciliationCheckpoint> checkpoints = captor.getAllValues();
+        ReconciliationCheckpoint second = checkpoints.stream()
+                .filter(checkpoint -> checkpoint.getAccountId() == 2L)
+                .findFirst().get();
+        assertEquals(21L, second.getLastTransactionId());
+        assertEquals(5000L, second.getLastBalanceSnapshot());
+    }
+    
+    @Test
+    void resumeFromCheckpointAndReportBalanceMismatch() {
+        // given
+        Account account = account(1L, "1000000001", 9000L);
+        given(accountRepository.findAllIds())
+                .willReturn(Collections.singletonList(1L));
+        given(checkpointRepository.findAllById(anyList()))
+                .willReturn(Collections.singletonList(
+                        ReconciliationCheckpoint.builder()
+                                .accountId(1L)
+                                .lastTransactionId(12L)
+                                .lastBalanceSnapshot(10000L)
+                                .build()));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(account));
+        given(accountRepository.findVersionById(1L))
+                .willReturn(account.getVersion());
+        given(transactionRepository.streamChainByAccountId(1L, 12L))
+                .willReturn(Stream.empty());
+        
+        // when
+        ReconciliationReport report = balanceReconciliationService.reconcile();
+        
+        // then
+        assertEquals(0, report.getTransactions());
+        assertEquals(1, report.getDiscrepancies().size());
+        assertEquals(ReconciliationDiscrepancyType.BALANCE_MISMATCH,
+                     report.getDiscrepancies().get(0).getType());
+        assertEquals(10000L, report.getDiscrepancies().get(0).getExpected());
+        assertEquals(9000L, report.getDiscrepancies().get(0).getActual());
+        verify(checkpointRepository, never()).save(any());
+        assertEquals(report, balanceReconciliationService.getLastReport()
+                .get());
+    }
+    
+    private Account account(Long id, String accountNumber, Long balance) {
+        return Account.builder()
+                .id(id)
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .version(3L)
+                .build();
+    }
+    
+    private TransactionChainEntry entry(
+            Long id, TransactionType transactionType, Long amount,
+            Long balanceSnapshot) {
+        return new TransactionChainEntry(
+                id, "tx" + id, transactionType, amount, balanceSnapshot);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.exception.AccountException;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.TransactionArchiveRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class KnownIdFilterTest {
+    @Test
+    void noFalseNegativeAndNearTargetRate() {
+        // given
+        BloomFilter bloomFilter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            bloomFilter.put(String.valueOf(1_000_000_000L + i));
+        }
+        
+        // when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloomFilter.mightContain(
+                    String.valueOf(2_000_000_000L + i))) {
+                falsePositives++;
+            }
+        }
+        
+        // then
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(bloomFilter.mightContain(
+                    String.valueOf(1_000_000_000L + i)));
+        }
+        assertTrue(falsePositives < 2_000,
+                   "false positives : " + falsePositives);
+        assertEquals(0.01, bloomFilter.estimatedFalsePositiveRate(), 0.005);
+    }
+    
+    @Test
+    void rejectOnlyAfterLoaded() {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        KnownIdFilter knownIdFilter = new KnownIdFilter(
+                meterRegistry, true, 0.01, 1_000, 1_000);
+        knownIdFilter.putAccountNumber("1000000012");
+        
+        // when
+        boolean beforeLoaded =
+                knownIdFilter.mightContainAccountNumber("1000000099");
+        knownIdFilter.markReady();
+        
+        // then
+        assertTrue(beforeLoaded);
+        assertTrue(knownIdFilter.mightContainAccountNumber("1000000012"));
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> knownIdFilter.checkAccountNumber("1000000099"));
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        assertEquals(1, meterRegistry.get("account.bloom.filter.rejected")
+                .tag("filter", "account").counter().count());
+        assertEquals(0.01, meterRegistry.get(
+                        "account.bloom.filter.false.positive.rate.target")
+                .tag("filter", "transaction").gauge().value());
+    }
+    
+    @Test
+    void unknownTransactionRejectedWithoutQuery() {
+        // given
+        KnownIdFilter knownIdFilter = new KnownIdFilter(
+                new SimpleMeterRegistry(), true, 0.01, 1_000, 1_000);
+        knownIdFilter.putTransactionId("known");
+        knownIdFilter.markReady();
+        TransactionRepository transactionRepository =
+                mock(TransactionRepository.class);
+        TransactionArchiveRepository transactionArchiveRepository =
+                mock(TransactionArchiveRepository.class);
+        TransactionService transactionService = new TransactionService(
+                transactionRepository, transactionArchiveRepository,
+                mock(AccountUserRepository.class),
+                mock(AccountRepository.class),
+                mock(BalanceMutationService.class),
+                new SingleFlight(new SimpleMeterRegistry()),
+                new AccountNumberIndex(new SimpleMeterRegistry()),
+                knownIdFilter);
+        
+        // when
+        AccountException queryException = assertThrows(
+                AccountException.class,
+                () -> transactionService.queryTransaction("unknown"));
+        AccountException cancelException = assertThrows(
+                AccountException.class,
+                () -> transactionService.cancelBalance(
+                        "unknown", "1000000012", 1000L));
+        
+        // then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND,
+                     queryException.getErrorCode());
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND,
+                     cancelException.getErrorCode());
+        assertTrue(transactionService.queryTransactions(
+                List.of("unknown")).isEmpty());
+        verifyNoInteractions(transactionRepository,
+                             transactionArchiveRepository);
+    }
+}
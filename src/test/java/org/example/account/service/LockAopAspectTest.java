@@ -1,18 +1,22 @@
 package org.example.account.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.example.account.aop.AccountLock;
 import org.example.account.dto.UseBalance;
 import org.example.account.exception.AccountException;
 import org.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,9 +29,22 @@ class LockAopAspectTest {
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
     
-    @InjectMocks
+    @Mock
+    private Signature signature;
+    
+    private LockHoldTimeTracker lockHoldTimeTracker;
+    
     private LockAopAspect lockAopAspect;
     
+    @BeforeEach
+    void init() {
+        lockHoldTimeTracker = new LockHoldTimeTracker(
+                16, 3, 3.0, 100, new SimpleMeterRegistry());
+        lockAopAspect = new LockAopAspect(lockService, lockHoldTimeTracker);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.toShortString()).willReturn("useBalance(..)");
+    }
+    
     @Test
     void lockAndUnlock() throws Throwable {
         // given
@@ -40,11 +57,13 @@ class LockAopAspectTest {
         );
         
         // when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(
+                proceedingJoinPoint, fixedLock(), request);
         
         
         // then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
+        verify(lockService, times(1)).lock(
+                lockCaptor.capture(), eq(1000L), eq(5000L), eq(5000L));
         verify(lockService, times(1)).unlock(unLockCaptor.capture());
         assertEquals("1234", lockCaptor.getValue());
         assertEquals("1234", unLockCaptor.getValue());
@@ -69,14 +88,54 @@ class LockAopAspectTest {
                 AccountException.class,
                 () -> lockAopAspect.aroundMethod(
                         proceedingJoinPoint,
+                        fixedLock(),
                         request
                 )
         );
         
         // then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
+        verify(lockService, times(1)).lock(
+                lockCaptor.capture(), eq(1000L), eq(5000L), eq(5000L));
         verify(lockService, times(1)).unlock(unLockCaptor.capture());
         assertEquals("54321", lockCaptor.getValue());
         assertEquals("54321", unLockCaptor.getValue());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void adaptiveLeaseFromHoldTimes() throws Throwable {
+        // given
+        UseBalance.Request request = new UseBalance.Request(123L, "1234",
+                                                            10000L
+        );
+        lockHoldTimeTracker.record("useBalance(..)", 200L);
+        lockHoldTimeTracker.record("useBalance(..)", 300L);
+        lockHoldTimeTracker.record("useBalance(..)", 400L);
+        
+        // when
+        lockAopAspect.aroundMethod(
+                proceedingJoinPoint, adaptiveLock(), request);
+        
+        // then
+        verify(lockService, times(1)).lock(
+                eq("1234"), eq(1000L), eq(1200L), eq(15000L));
+        verify(lockService, times(1)).unlock("1234");
+    }
+    
+    private AccountLock fixedLock() throws NoSuchMethodException {
+        return getClass().getDeclaredMethod("fixedLockedMethod")
+                .getAnnotation(AccountLock.class);
+    }
+    
+    private AccountLock adaptiveLock() throws NoSuchMethodException {
+        return getClass().getDeclaredMethod("adaptiveLockedMethod")
+                .getAnnotation(AccountLock.class);
+    }
+    
+    @AccountLock(tryLockTime = 1000L, leaseTime = 5000L)
+    void fixedLockedMethod() {
+    }
+    
+    @AccountLock(tryLockTime = 1000L, adaptiveLease = true)
+    void adaptiveLockedMethod() {
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockCircuitBreakerTest {
+    private SimpleMeterRegistry meterRegistry;
+    
+    private LockCircuitBreaker lockCircuitBreaker;
+    
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockCircuitBreaker = new LockCircuitBreaker(
+                10, 4, 50, 50, 0, 2, meterRegistry);
+    }
+    
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        // given
+        // when
+        lockCircuitBreaker.onError();
+        lockCircuitBreaker.onError();
+        lockCircuitBreaker.onError();
+        
+        // then
+        assertEquals(LockCircuitBreaker.State.CLOSED,
+                     lockCircuitBreaker.getState());
+        assertTrue(lockCircuitBreaker.tryAcquirePermission());
+    }
+    
+    @Test
+    void opensOnFailureRate() {
+        // given
+        LockCircuitBreaker breaker = new LockCircuitBreaker(
+                10, 4, 50, 50, 60000, 2, meterRegistry);
+        
+        // when
+        breaker.onSuccess(false);
+        breaker.onSuccess(false);
+        breaker.onError();
+        breaker.onError();
+        
+        // then
+        assertEquals(LockCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(1.0, meterRegistry.counter(
+                "account.lock.breaker.rejected").count());
+    }
+    
+    @Test
+    void opensOnSlowCallRate() {
+        // given
+        // when
+        lockCircuitBreaker.onSuccess(true);
+        lockCircuitBreaker.onSuccess(true);
+        lockCircuitBreaker.onSuccess(false);
+        lockCircuitBreaker.onSuccess(true);
+        
+        // then
+        assertEquals(LockCircuitBreaker.State.OPEN,
+                     lockCircuitBreaker.getState());
+    }
+    
+    @Test
+    void halfOpenClosesAfterSuccessfulProbes() {
+        // given
+        for (int i = 0; i < 4; i++) {
+            lockCircuitBreaker.onError();
+        }
+        
+        // when
+        assertTrue(lockCircuitBreaker.tryAcquirePermission());
+        assertTrue(lockCircuitBreaker.tryAcquirePermission());
+        boolean thirdProbe = lockCircuitBreaker.tryAcquirePermission();
+        lockCircuitBreaker.onSuccess(false);
+        lockCircuitBreaker.onSuccess(false);
+        
+        // then
+        assertFalse(thirdProbe);
+        assertEquals(LockCircuitBreaker.State.CLOSED,
+                     lockCircuitBreaker.getState());
+        assertEquals(1.0, meterRegistry.counter(
+                "account.lock.breaker.transitions",
+                "from", "HALF_OPEN", "to", "CLOSED").count());
+    }
+    
+    @Test
+    void halfOpenReopensOnFailure() {
+        // given
+        for (int i = 0; i < 4; i++) {
+            lockCircuitBreaker.onError();
+        }
+        
+        // when
+        assertTrue(lockCircuitBreaker.tryAcquirePermission());
+        lockCircuitBreaker.onError();
+        
+        // then
+        assertEquals(LockCircuitBreaker.State.OPEN,
+                     lockCircuitBreaker.getState());
+    }
+}
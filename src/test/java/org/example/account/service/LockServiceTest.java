@@ -1,18 +1,31 @@
 package org.example.account.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.aop.AccountLockContext;
 import org.example.account.exception.AccountException;
 import org.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
+import org.redisson.api.RLockReactive;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -22,9 +35,21 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
     
-    @InjectMocks
+    @Mock
+    private RAtomicLong rAtomicLong;
+    
+    private LockCircuitBreaker lockCircuitBreaker;
+    
     private LockService lockService;
     
+    @BeforeEach
+    void init() {
+        lockCircuitBreaker = new LockCircuitBreaker(
+                4, 2, 50, 50, 60000, 1, new SimpleMeterRegistry());
+        lockService = new LockService(redissonClient, lockCircuitBreaker);
+        ReflectionTestUtils.setField(lockService, "slowCallMarginMillis", 500L);
+    }
+    
     @Test
     void failGetLock() throws InterruptedException {
         // given
@@ -43,6 +68,8 @@ class LockServiceTest {
         // then
         assertEquals(
                 ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertEquals(LockCircuitBreaker.State.CLOSED,
+                     lockCircuitBreaker.getState());
     }
     
     @Test
@@ -52,9 +79,176 @@ class LockServiceTest {
                 .willReturn(rLock);
         given(rLock.tryLock(anyLong(), anyLong(), any()))
                 .willReturn(true);
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(rAtomicLong);
         
         // when
         // then
         assertDoesNotThrow(() -> lockService.lock("123"));
+        lockService.unlock("123");
+    }
+    
+    @Test
+    void issueFencingTokenWithLock() throws InterruptedException {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(redissonClient.getAtomicLong("ACFT:123"))
+                .willReturn(rAtomicLong);
+        given(rAtomicLong.incrementAndGet())
+                .willReturn(7L);
+        
+        // when
+        lockService.lock("123");
+        Optional<Long> token = AccountLockContext.getFencingToken("123");
+        lockService.unlock("123");
+        
+        // then
+        assertEquals(Optional.of(7L), token);
+        assertTrue(AccountLockContext.getFencingToken("123").isEmpty());
+    }
+    
+    @Test
+    void failFastWhenBreakerOpen() throws InterruptedException {
+        // given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("redis down"));
+        
+        // when
+        assertThrows(AccountException.class, () -> lockService.lock("123"));
+        assertThrows(AccountException.class, () -> lockService.lock("123"));
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> lockService.lock("123")
+        );
+        
+        // then
+        assertEquals(
+                ErrorCode.LOCK_SERVICE_UNAVAILABLE, exception.getErrorCode());
+        assertEquals(LockCircuitBreaker.State.OPEN,
+                     lockCircuitBreaker.getState());
+        verify(rLock, times(2)).tryLock(anyLong(), anyLong(), any());
+    }
+    
+    @Test
+    void fallbackToLocalLockWhenBreakerOpen() throws Exception {
+        // given
+        ReflectionTestUtils.setField(lockService, "localFallback", true);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("redis down"));
+        
+        // when
+        lockService.lock("123");
+        lockService.unlock("123");
+        lockService.lock("123");
+        
+        // then
+        AtomicReference<Throwable> otherThread = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            try {
+                lockService.lock("123");
+            } catch (Throwable e) {
+                otherThread.set(e);
+            }
+        });
+        other.start();
+        other.join();
+        lockService.unlock("123");
+        assertTrue(otherThread.get() instanceof AccountException);
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                     ((AccountException) otherThread.get()).getErrorCode());
+        verify(rLock, never()).unlock();
+    }
+    
+    @Test
+    void interruptedHalfOpenProbeReleasesPermission() throws Exception {
+        // given : open duration 0 이라 OPEN 직후 바로 HALF_OPEN 시험 호출이 나간다.
+        LockCircuitBreaker breaker = new LockCircuitBreaker(
+                4, 2, 50, 50, 0, 1, new SimpleMeterRegistry());
+        LockService service = new LockService(redissonClient, breaker);
+        ReflectionTestUtils.setField(service, "slowCallMarginMillis", 500L);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("redis down"),
+                           new IllegalStateException("redis down"),
+                           new InterruptedException())
+                .willReturn(true);
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(rAtomicLong);
+        assertThrows(AccountException.class, () -> service.lock("123"));
+        assertThrows(AccountException.class, () -> service.lock("123"));
+        
+        // when
+        AccountException interrupted = assertThrows(
+                AccountException.class, () -> service.lock("123"));
+        Thread.interrupted();
+        
+        // then : 시험 호출 허가가 돌아와서 다음 호출로 닫힌다.
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                     interrupted.getErrorCode());
+        assertDoesNotThrow(() -> service.lock("123"));
+        service.unlock("123");
+        assertEquals(LockCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    void cancelledReactiveProbeReleasesPermission() {
+        // given
+        LockCircuitBreaker breaker = new LockCircuitBreaker(
+                4, 2, 50, 50, 0, 1, new SimpleMeterRegistry());
+        LockService service = new LockService(redissonClient, breaker);
+        RedissonReactiveClient reactiveClient =
+                mock(RedissonReactiveClient.class);
+        RLockReactive rLockReactive = mock(RLockReactive.class);
+        given(redissonClient.reactive()).willReturn(reactiveClient);
+        given(reactiveClient.getLock(anyString())).willReturn(rLockReactive);
+        given(rLockReactive.tryLock(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(Mono.never());
+        breaker.onError();
+        breaker.onError();
+        
+        // when
+        service.lockReactive("123", service.newReactiveLockId(), 1000L, 1000L)
+                .subscribe()
+                .dispose();
+        
+        // then
+        assertEquals(LockCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void overrunHolderDoesNotCancelNextHolderWatchdog() throws Exception {
+        // given : A 가 lease 를 넘겨 lock 이 풀린 사이 B 가 같은 계좌 lock 을 취득했다.
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(redissonClient.getAtomicLong(anyString()))
+                .willReturn(rAtomicLong);
+        lockService.lock("123", 1000L, 1000L, 60000L);
+        Map<String, ScheduledFuture<?>> watchdogs =
+                (Map<String, ScheduledFuture<?>>) ReflectionTestUtils.getField(
+                        lockService, "watchdogs");
+        Thread next = new Thread(
+                () -> lockService.lock("123", 1000L, 1000L, 60000L));
+        next.start();
+        next.join();
+        assertEquals(2, watchdogs.size());
+        
+        // when : 늦게 끝난 A 가 해제한다.
+        lockService.unlock("123");
+        
+        // then
+        assertEquals(1, watchdogs.size());
+        assertFalse(watchdogs.values().iterator().next().isCancelled());
     }
-}
\ No newline at end of file
+}
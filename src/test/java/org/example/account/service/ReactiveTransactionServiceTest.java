@@ -0,0 +1,243 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.aop.AccountLockContext;
+import org.example.account.dto.AccountDto;
+import org.example.account.dto.TransactionDto;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ReactiveTransactionServiceTest {
+    private static final String ACCOUNT_NUMBER = "1000000012";
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+    
+    private TransactionService transactionService;
+    private BalanceMutationService balanceMutationService;
+    private LockService lockService;
+    private ReactiveTransactionService reactiveTransactionService;
+    
+    @BeforeEach
+    void setUp() {
+        transactionService = mock(TransactionService.class);
+        balanceMutationService = mock(BalanceMutationService.class);
+        lockService = mock(LockService.class);
+        reactiveTransactionService = new ReactiveTransactionService(
+                transactionService, balanceMutationService, lockService,
+                new AdaptiveConcurrencyLimiter(20, 4, 200, 0.2, 1.5, 600,
+                                               new SimpleMeterRegistry()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(ObjectProvider.class), 2, 100);
+        given(lockService.newReactiveLockId()).willReturn(Long.MIN_VALUE + 1);
+        given(lockService.unlockReactive(anyString(), anyLong()))
+                .willReturn(Mono.empty());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        reactiveTransactionService.shutdown();
+    }
+    
+    @Test
+    void useBalanceInsideReactiveLockWithFencingToken() {
+        // given
+        AccountDto accountDto = AccountDto.builder()
+                .userId(12L)
+                .accountNumber(ACCOUNT_NUMBER)
+                .build();
+        given(transactionService.validateUse(12L, ACCOUNT_NUMBER, 3000L))
+                .willReturn(accountDto);
+        given(lockService.lockReactive(eq(ACCOUNT_NUMBER), anyLong(),
+                                       anyLong(), anyLong()))
+                .willReturn(Mono.just(7L));
+        AtomicReference<Optional<Long>> tokenInTransaction =
+                new AtomicReference<>();
+        given(balanceMutationService.applyUseBalance(accountDto, 3000L))
+                .willAnswer(invocation -> {
+                    tokenInTransaction.set(AccountLockContext.getFencingToken(
+                            ACCOUNT_NUMBER));
+                    return TransactionDto.builder()
+                            .accountNumber(ACCOUNT_NUMBER)
+                            .transactionResultType(TransactionResultType.S)
+                            .amount(3000L)
+                            .build();
+                });
+        
+        // when
+        TransactionDto transactionDto = reactiveTransactionService
+                .useBalance(12L, ACCOUNT_NUMBER, 3000L)
+                .block(TIMEOUT);
+        
+        // then
+        assertEquals(TransactionResultType.S,
+                     transactionDto.getTransactionResultType());
+        assertEquals(Optional.of(7L), tokenInTransaction.get());
+        verify(lockService).unlockReactive(ACCOUNT_NUMBER, Long.MIN_VALUE + 1);
+    }
+    
+    @Test
+    void lockRejectionIsNotRecorded() {
+        // given
+        given(transactionService.validateUse(12L, ACCOUNT_NUMBER, 3000L))
+                .willReturn(AccountDto.builder()
+                                    .accountNumber(ACCOUNT_NUMBER)
+                                    .build());
+        given(lockService.lockReactive(eq(ACCOUNT_NUMBER), anyLong(),
+                                       anyLong(), anyLong()))
+                .willReturn(Mono.error(new AccountException(
+                        ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> reactiveTransactionService
+                        .useBalance(12L, ACCOUNT_NUMBER, 3000L)
+                        .block(TIMEOUT));
+        
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                     exception.getErrorCode());
+        verify(balanceMutationService, never())
+                .applyUseBalance(any(), anyLong());
+        verify(lockService, never()).unlockReactive(anyString(), anyLong());
+        verify(transactionService, never()).saveFailedUseTransaction(
+                anyString(), anyLong());
+    }
+    
+    @Test
+    void rejectedCancelIsRecordedWithoutLock() {
+        // given
+        given(transactionService.validateCancel("transactionId",
+                                                ACCOUNT_NUMBER, 3000L))
+                .willThrow(new AccountException(
+                        ErrorCode.TRANSACTION_ALREADY_CANCELED));
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> reactiveTransactionService
+                        .cancelBalance("transactionId", ACCOUNT_NUMBER, 3000L)
+                        .block(TIMEOUT));
+        
+        // then
+        assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED,
+                     exception.getErrorCode());
+        verify(lockService, never()).lockReactive(
+                anyString(), anyLong(), anyLong(), anyLong());
+        verify(transactionService).saveFailedCancelTransaction(
+                ACCOUNT_NUMBER, 3000L);
+    }
+    
+    @Test
+    void concurrencyLimitRejectionIsNotRecorded() {
+        // given
+        given(transactionService.validateUse(12L, ACCOUNT_NUMBER, 3000L))
+                .willThrow(new AccountException(
+                        ErrorCode.TOO_MANY_CONCURRENT_REQUESTS));
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> reactiveTransactionService
+                        .useBalance(12L, ACCOUNT_NUMBER, 3000L)
+                        .block(TIMEOUT));
+        
+        // then
+        assertEquals(ErrorCode.TOO_MANY_CONCURRENT_REQUESTS,
+                     exception.getErrorCode());
+        verify(transactionService, never()).saveFailedUseTransaction(
+                anyString(), anyLong());
+    }
+    
+    @Test
+    void lockIsNotHeldWhileQueuedForJdbcWorker() throws Exception {
+        // given
+        ReactiveTransactionService singleWorker = new ReactiveTransactionService(
+                transactionService, balanceMutationService, lockService,
+                new AdaptiveConcurrencyLimiter(20, 4, 200, 0.2, 1.5, 600,
+                                               new SimpleMeterRegistry()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(ObjectProvider.class), 1, 100);
+        AccountDto accountDto = AccountDto.builder()
+                .userId(12L)
+                .accountNumber(ACCOUNT_NUMBER)
+                .build();
+        // 두 요청이 모두 검증을 마친 뒤에 첫 요청의 잔액 변경이 worker 를 점유하게 한다.
+        CountDownLatch subscribed = new CountDownLatch(1);
+        given(transactionService.validateUse(12L, ACCOUNT_NUMBER, 3000L))
+                .willAnswer(invocation -> {
+                    subscribed.await();
+                    return accountDto;
+                });
+        given(lockService.lockReactive(eq(ACCOUNT_NUMBER), anyLong(),
+                                       anyLong(), anyLong()))
+                .willReturn(Mono.just(7L));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(balanceMutationService.applyUseBalance(accountDto, 3000L))
+                .willAnswer(invocation -> {
+                    running.countDown();
+                    release.await();
+                    return TransactionDto.builder()
+                            .accountNumber(ACCOUNT_NUMBER)
+                            .transactionResultType(TransactionResultType.S)
+                            .amount(3000L)
+                            .build();
+                });
+        
+        // when
+        try {
+            CompletableFuture<TransactionDto> first = singleWorker
+                    .useBalance(12L, ACCOUNT_NUMBER, 3000L).toFuture();
+            CompletableFuture<TransactionDto> queued = singleWorker
+                    .useBalance(12L, ACCOUNT_NUMBER, 3000L).toFuture();
+            subscribed.countDown();
+            assertTrue(running.await(1, TimeUnit.SECONDS));
+            
+            // then
+            verify(lockService, after(200).times(1)).lockReactive(
+                    eq(ACCOUNT_NUMBER), anyLong(), anyLong(), anyLong());
+            release.countDown();
+            assertEquals(TransactionResultType.S,
+                         first.get(1, TimeUnit.SECONDS)
+                                 .getTransactionResultType());
+            assertEquals(TransactionResultType.S,
+                         queued.get(1, TimeUnit.SECONDS)
+                                 .getTransactionResultType());
+            verify(lockService, times(2)).lockReactive(
+                    eq(ACCOUNT_NUMBER), anyLong(), anyLong(), anyLong());
+            verify(lockService, times(2)).unlockReactive(
+                    ACCOUNT_NUMBER, Long.MIN_VALUE + 1);
+        } finally {
+            subscribed.countDown();
+            release.countDown();
+            singleWorker.shutdown();
+        }
+    }
+}
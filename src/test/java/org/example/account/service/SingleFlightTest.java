@@ -0,0 +1,90 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private SimpleMeterRegistry meterRegistry;
+    
+    private SingleFlight singleFlight;
+    
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+    }
+    
+    @Test
+    void shareLeaderExceptionWithCoalescedCalls() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Object> leader = executor.submit(
+                () -> singleFlight.execute("transaction", "tx1", () -> {
+                    await(release);
+                    throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+                }));
+        while (meterRegistry.counter("account.singleflight.calls",
+                                     "group", "transaction", "role", "leader")
+                       .count() < 1) {
+            Thread.sleep(1);
+        }
+        
+        // when
+        Future<AccountException> follower = executor.submit(
+                () -> assertThrows(AccountException.class,
+                                   () -> singleFlight.execute(
+                                           "transaction", "tx1",
+                                           () -> "not called")));
+        while (meterRegistry.counter("account.singleflight.calls",
+                                     "group", "transaction", "role",
+                                     "coalesced").count() < 1) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        
+        // then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND,
+                     follower.get(5, TimeUnit.SECONDS).getErrorCode());
+        ExecutionException leaderFailure = assertThrows(
+                ExecutionException.class,
+                () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AccountException.class, leaderFailure.getCause());
+        executor.shutdown();
+    }
+    
+    @Test
+    void loadAgainAfterLeaderCompletes() {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+        
+        // when
+        singleFlight.execute("transaction", "tx1", loads::incrementAndGet);
+        int second = singleFlight.execute(
+                "transaction", "tx1", loads::incrementAndGet);
+        
+        // then
+        assertEquals(2, second);
+        assertEquals(2.0, meterRegistry.counter(
+                "account.singleflight.calls",
+                "group", "transaction", "role", "leader").count());
+        assertEquals(0.0, meterRegistry.get("account.singleflight.in.flight")
+                .gauge().value());
+    }
+    
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
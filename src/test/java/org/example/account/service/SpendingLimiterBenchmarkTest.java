@@ -0,0 +1,42 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 잔액 사용 경로에 추가되는 사용 한도 확인 비용 (목표 1µs 미만)
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class SpendingLimiterBenchmarkTest {
+    private static final int ACCOUNTS = 10_000;
+    private static final int WARMUP = 2_000_000;
+    private static final int ROUNDS = 5_000_000;
+    
+    @Test
+    void acquireCostPerCall() {
+        SpendingLimiter spendingLimiter = new SpendingLimiter(
+                new InMemorySpendingLimitStore(), new SimpleMeterRegistry(),
+                true, Long.MAX_VALUE / 2, Long.MAX_VALUE / 2);
+        String[] accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = String.valueOf(1_000_000_000L + i);
+        }
+        
+        for (int i = 0; i < WARMUP; i++) {
+            spendingLimiter.acquire(accountNumbers[i % ACCOUNTS], 1L);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            spendingLimiter.acquire(accountNumbers[i % ACCOUNTS], 1L);
+        }
+        double nanosPerCall = (System.nanoTime() - start) / (double) ROUNDS;
+        
+        System.out.printf("spending limit acquire : %.1f ns/call " +
+                          "(%d accounts)%n", nanosPerCall, ACCOUNTS);
+        assertTrue(nanosPerCall < 1_000);
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.exception.AccountException;
+import org.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingLimiterTest {
+    private static final String ACCOUNT_NUMBER = "1000000012";
+    private static final long MINUTE = 60_000L;
+    // 정각에서 시작해 시간 bucket 경계를 예측할 수 있도록 한다.
+    private static final long NOW = 483_334L * 60 * MINUTE;
+    
+    private InMemorySpendingLimitStore store;
+    
+    @BeforeEach
+    void init() {
+        store = new InMemorySpendingLimitStore();
+    }
+    
+    @Test
+    void rejectOverHourlyLimitUntilWindowSlides() {
+        // given
+        assertTrue(store.tryAdd(ACCOUNT_NUMBER, 600L, NOW, 1000L, 0L));
+        assertTrue(store.tryAdd(ACCOUNT_NUMBER, 400L, NOW + 30 * MINUTE,
+                                1000L, 0L));
+        
+        // when
+        boolean sameHour = store.tryAdd(ACCOUNT_NUMBER, 1L,
+                                        NOW + 59 * MINUTE, 1000L, 0L);
+        boolean firstSlidOut = store.tryAdd(ACCOUNT_NUMBER, 600L,
+                                            NOW + 60 * MINUTE, 1000L, 0L);
+        
+        // then
+        assertFalse(sameHour);
+        assertTrue(firstSlidOut);
+        assertArrayEquals(new long[]{1000L, 1600L},
+                          store.spent(ACCOUNT_NUMBER, NOW + 60 * MINUTE));
+    }
+    
+    @Test
+    void rejectOverDailyLimitAcrossHours() {
+        // given
+        for (int hour = 0; hour < 20; hour++) {
+            assertTrue(store.tryAdd(ACCOUNT_NUMBER, 100L,
+                                    NOW + hour * 60 * MINUTE, 0L, 2000L));
+        }
+        
+        // when
+        boolean overDaily = store.tryAdd(ACCOUNT_NUMBER, 1L,
+                                         NOW + 20 * 60 * MINUTE, 0L, 2000L);
+        // 첫 시간 bucket 이 window 밖으로 밀려난다.
+        boolean afterDay = store.tryAdd(ACCOUNT_NUMBER, 100L,
+                                        NOW + 24 * 60 * MINUTE, 0L, 2000L);
+        
+        // then
+        assertFalse(overDaily);
+        assertTrue(afterDay);
+        assertEquals(2000L,
+                     store.spent(ACCOUNT_NUMBER, NOW + 24 * 60 * MINUTE)[1]);
+    }
+    
+    @Test
+    void releaseOnRollback() {
+        // given
+        SpendingLimiter spendingLimiter = new SpendingLimiter(
+                store, new SimpleMeterRegistry(), true, 1000L, 0L);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // when
+        try {
+            spendingLimiter.acquire(ACCOUNT_NUMBER, 1000L);
+            AccountException exception = assertThrows(
+                    AccountException.class,
+                    () -> spendingLimiter.acquire(ACCOUNT_NUMBER, 1L));
+            assertEquals(ErrorCode.SPENDING_LIMIT_EXCEEDED,
+                         exception.getErrorCode());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        // then
+        assertEquals(0L, store.spent(ACCOUNT_NUMBER,
+                                     System.currentTimeMillis())[0]);
+        spendingLimiter.acquire(ACCOUNT_NUMBER, 1000L);
+    }
+    
+    @Test
+    void skipWhenNoLimitConfigured() {
+        // given
+        SpendingLimiter spendingLimiter = new SpendingLimiter(
+                store, new SimpleMeterRegistry(), true, 0L, 0L);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // when
+        long acquiredAt;
+        int synchronizations;
+        try {
+            acquiredAt = spendingLimiter.acquire(ACCOUNT_NUMBER, 1000L);
+            synchronizations = TransactionSynchronizationManager
+                    .getSynchronizations().size();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        // then
+        assertFalse(spendingLimiter.isEnabled());
+        assertEquals(0L, acquiredAt);
+        assertEquals(0, synchronizations);
+        assertTrue(windows().isEmpty());
+    }
+    
+    @Test
+    void evictWindowIdleForADay() {
+        // given
+        assertTrue(store.tryAdd(ACCOUNT_NUMBER, 100L, NOW, 1000L, 0L));
+        assertTrue(store.tryAdd("1000000013", 100L, NOW + 60 * MINUTE,
+                                1000L, 0L));
+        
+        // when
+        store.evictIdle(NOW + 23 * 60 * MINUTE);
+        int beforeRollover = windows().size();
+        store.evictIdle(NOW + 24 * 60 * MINUTE);
+        
+        // then
+        assertEquals(2, beforeRollover);
+        assertFalse(windows().containsKey(ACCOUNT_NUMBER));
+        assertTrue(windows().containsKey("1000000013"));
+        assertArrayEquals(new long[2],
+                          store.spent(ACCOUNT_NUMBER, NOW + 24 * 60 * MINUTE));
+    }
+    
+    private Map<?, ?> windows() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(store, "windows");
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.account.service;
+
+import org.example.account.aop.StageLatencyContext;
+import org.example.account.dto.LatencyReport;
+import org.example.account.type.LatencyStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageLatencyRecorderTest {
+    private static final String ENDPOINT = "POST /transaction/use";
+    private static final long MINUTE = 29_000_000L;
+    
+    private StageLatencyRecorder stageLatencyRecorder;
+    
+    @BeforeEach
+    void init() {
+        stageLatencyRecorder = new StageLatencyRecorder(true);
+    }
+    
+    @Test
+    void reportPercentilesPerStage() {
+        // given
+        for (int i = 1; i <= 100; i++) {
+            long[] stageNanos = new long[LatencyStage.values().length];
+            stageNanos[LatencyStage.LOCK_ACQUIRE.ordinal()] =
+                    TimeUnit.MILLISECONDS.toNanos(i);
+            stageNanos[LatencyStage.TOTAL.ordinal()] =
+                    TimeUnit.MILLISECONDS.toNanos(i + 10);
+            stageLatencyRecorder.record(ENDPOINT, stageNanos, MINUTE);
+        }
+        
+        // when
+        LatencyReport report = stageLatencyRecorder.report(MINUTE);
+        
+        // then
+        assertTrue(report.isEnabled());
+        assertEquals(1, report.getEndpoints().size());
+        LatencyReport.Endpoint endpoint = report.getEndpoints().get(0);
+        assertEquals(ENDPOINT, endpoint.getEndpoint());
+        assertFalse(endpoint.getStages().containsKey(LatencyStage.COMMIT));
+        LatencyReport.Stage lock =
+                endpoint.getStages().get(LatencyStage.LOCK_ACQUIRE);
+        assertEquals(100, lock.getCount());
+        assertEquals(50.0, lock.getP50Ms(), 1.0);
+        assertEquals(99.0, lock.getP99Ms(), 1.0);
+        assertEquals(110.0,
+                     endpoint.getStages().get(LatencyStage.TOTAL).getMaxMs(),
+                     1.0);
+    }
+    
+    @Test
+    void keepAccumulatingAcrossReportsUntilReset() {
+        // given
+        stageLatencyRecorder.record(ENDPOINT, totalOf(5), MINUTE);
+        stageLatencyRecorder.report(MINUTE);
+        stageLatencyRecorder.record(ENDPOINT, totalOf(7), MINUTE);
+        
+        // when
+        LatencyReport beforeReset = stageLatencyRecorder.report(MINUTE);
+        stageLatencyRecorder.reset();
+        LatencyReport afterReset = stageLatencyRecorder.report(MINUTE);
+        
+        // then
+        assertEquals(2, beforeReset.getEndpoints().get(0).getStages()
+                .get(LatencyStage.TOTAL).getCount());
+        assertTrue(afterReset.getEndpoints().isEmpty());
+    }
+    
+    @Test
+    void reportThroughputPerMinute() {
+        // given
+        stageLatencyRecorder.record(ENDPOINT, totalOf(1), MINUTE - 60);
+        for (int i = 0; i < 120; i++) {
+            stageLatencyRecorder.record(ENDPOINT, totalOf(1), MINUTE - 1);
+        }
+        // 60분 전과 같은 slot 은 새 분으로 다시 센다.
+        for (int i = 0; i < 30; i++) {
+            stageLatencyRecorder.record(ENDPOINT, totalOf(1), MINUTE);
+        }
+        
+        // when
+        LatencyReport report = stageLatencyRecorder.report(MINUTE);
+        
+        // then
+        LatencyReport.Endpoint endpoint = report.getEndpoints().get(0);
+        assertEquals(2, endpoint.getThroughput().size());
+        assertEquals(120, endpoint.getThroughput().get(0).getRequests());
+        assertEquals(2.0, endpoint.getThroughput().get(0).getTps());
+        assertEquals(30, endpoint.getThroughput().get(1).getRequests());
+    }
+    
+    @Test
+    void accumulateStagesInRequestContext() {
+        // given
+        StageLatencyContext.begin();
+        
+        // when
+        long validationStart = StageLatencyContext.start();
+        StageLatencyContext.stop(LatencyStage.VALIDATION, validationStart);
+        long outerQuery = StageLatencyContext.startQuery();
+        long nestedQuery = StageLatencyContext.startQuery();
+        StageLatencyContext.stopQuery(nestedQuery);
+        StageLatencyContext.stopQuery(outerQuery);
+        long[] stageNanos = StageLatencyContext.end();
+        
+        // then
+        assertNotEquals(0L, validationStart);
+        assertNotEquals(0L, outerQuery);
+        assertEquals(0L, nestedQuery);
+        assertTrue(stageNanos[LatencyStage.QUERY.ordinal()] > 0);
+        assertEquals(0L, StageLatencyContext.start());
+        assertNull(StageLatencyContext.end());
+    }
+    
+    private long[] totalOf(long millis) {
+        long[] stageNanos = new long[LatencyStage.values().length];
+        stageNanos[LatencyStage.TOTAL.ordinal()] =
+                TimeUnit.MILLISECONDS.toNanos(millis);
+        
+        return stageNanos;
+    }
+}
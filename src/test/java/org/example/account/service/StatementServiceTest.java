@@ -0,0 +1,215 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.domain.StatementCheckpoint;
+import org.example.account.dto.StatementLine;
+import org.example.account.dto.StatementReport;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.StatementCheckpointRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StatementServiceTest {
+    private static final YearMonth MONTH = YearMonth.of(2024, 10);
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private StatementCheckpointRepository checkpointRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @TempDir
+    Path outputDir;
+    
+    private final AccountUser user = AccountUser.builder()
+            .id(12L)
+            .name("Pobi")
+            .build();
+    
+    @Test
+    void writeStatementPerWorkerPartition() throws Exception {
+        // given
+        StatementService statementService = statementService(2, 1);
+        given(accountRepository.findAllIds())
+                .willReturn(Arrays.asList(1L, 2L, 3L));
+        given(checkpointRepository.findById(anyString()))
+                .willReturn(Optional.empty());
+        given(accountRepository.findWithUserByIdIn(List.of(1L)))
+                .willReturn(List.of(account(1L, "1000000001")));
+        given(accountRepository.findWithUserByIdIn(List.of(2L)))
+                .willReturn(List.of(account(2L, "1000000002")));
+        given(accountRepository.findWithUserByIdIn(List.of(3L)))
+                .willReturn(List.of(account(3L, "1000000003")));
+        given(transactionRepository.streamStatementLines(202410, List.of(1L)))
+                .willReturn(Stream.of(
+                        line(1L, "tx11", TransactionType.USE, 1000L, 9000L),
+                        line(1L, "tx12", TransactionType.CANCEL, 500L, 9500L)));
+        given(transactionRepository.streamStatementLines(202410, List.of(2L)))
+                .willReturn(Stream.of(
+                        line(2L, "tx21", TransactionType.USE, 300L, 700L)));
+        // 해당 월 거래가 없는 계좌는 명세서를 쓰지 않는다.
+        given(transactionRepository.streamStatementLines(202410, List.of(3L)))
+                .willReturn(Stream.empty());
+        
+        // when
+        StatementReport report = statementService.generate(MONTH);
+        
+        // then
+        assertEquals(3, report.getAccounts());
+        assertEquals(2, report.getStatements());
+        assertEquals(3, report.getTransactions());
+        assertEquals(0, report.getResumedParts());
+        assertTrue(report.getAccountsPerSecond() > 0);
+        assertTrue(report.getBytesPerSecond() > 0);
+        
+        String odd = read("statements-202410-part-1.txt");
+        String even = read("statements-202410-part-0.txt");
+        assertEquals(report.getBytes(),
+                     odd.getBytes(StandardCharsets.UTF_8).length +
+                     even.getBytes(StandardCharsets.UTF_8).length);
+        assertTrue(odd.startsWith("# 1000000001\tPobi\t2024-10\n"));
+        assertTrue(odd.contains("\tUSE\ttx11\t-1000\t9000\n"));
+        assertTrue(odd.contains("= opening\t10000\tclosing\t9500\t" +
+                                "transactions\t2\n"));
+        assertFalse(odd.contains("1000000003"));
+        assertTrue(even.contains("= opening\t1000\tclosing\t700\t" +
+                                 "transactions\t1\n"));
+        assertFalse(Files.exists(
+                outputDir.resolve("statements-202410-part-0.part")));
+    }
+    
+    @Test
+    void resumeFromCheckpointAndDropUncommittedTail() throws Exception {
+        // given
+        StatementService statementService = statementService(1, 1);
+        String committed = "# 1000000001\tPobi\t2024-10\n" +
+                           "= opening\t0\tclosing\t0\ttransactions\t0\n\n";
+        Files.write(outputDir.resolve("statements-202410-part-0.part"),
+                    (committed + "# 1000000002\tPo").getBytes(
+                            StandardCharsets.UTF_8));
+        StatementCheckpoint checkpoint = StatementCheckpoint.builder()
+                .id("202410-0of1")
+                .lastAccountId(1L)
+                .committedBytes((long) committed.getBytes(
+                        StandardCharsets.UTF_8).length)
+                .build();
+        given(accountRepository.findAllIds())
+                .willReturn(Arrays.asList(1L, 2L));
+        given(checkpointRepository.findById("202410-0of1"))
+                .willReturn(Optional.of(checkpoint));
+        given(accountRepository.findWithUserByIdIn(List.of(2L)))
+                .willReturn(List.of(account(2L, "1000000002")));
+        given(transactionRepository.streamStatementLines(202410, List.of(2L)))
+                .willReturn(Stream.of(
+                        line(2L, "tx21", TransactionType.USE, 300L, 700L)));
+        
+        // when
+        StatementReport report = statementService.generate(MONTH);
+        
+        // then
+        assertEquals(1, report.getAccounts());
+        assertEquals(1, report.getResumedParts());
+        verify(transactionRepository, never())
+                .streamStatementLines(202410, List.of(1L));
+        
+        String written = read("statements-202410-part-0.txt");
+        assertTrue(written.startsWith(committed + "# 1000000002\tPobi\t"));
+        assertEquals(1, written.split("# 1000000002").length - 1);
+        assertEquals(report.getBytes(),
+                     written.getBytes(StandardCharsets.UTF_8).length -
+                     committed.getBytes(StandardCharsets.UTF_8).length);
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(2L, checkpoint.getLastAccountId());
+        assertEquals(written.getBytes(StandardCharsets.UTF_8).length,
+                     checkpoint.getCommittedBytes());
+    }
+    
+    @Test
+    void skipCompletedPart() throws Exception {
+        // given
+        StatementService statementService = statementService(1, 1);
+        Files.writeString(outputDir.resolve("statements-202410-part-0.txt"),
+                          "done");
+        given(accountRepository.findAllIds())
+                .willReturn(Arrays.asList(1L, 2L));
+        given(checkpointRepository.findById("202410-0of1"))
+                .willReturn(Optional.of(StatementCheckpoint.builder()
+                                                .id("202410-0of1")
+                                                .lastAccountId(2L)
+                                                .committedBytes(4L)
+                                                .completed(true)
+                                                .build()));
+        
+        // when
+        StatementReport report = statementService.generate(MONTH);
+        
+        // then
+        assertEquals(0, report.getAccounts());
+        assertEquals(1, report.getResumedParts());
+        verify(checkpointRepository, never()).save(any());
+        assertEquals("done", read("statements-202410-part-0.txt"));
+    }
+    
+    private StatementService statementService(int parallelism, int chunkSize) {
+        return new StatementService(
+                accountRepository, transactionRepository, checkpointRepository,
+                new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), parallelism, chunkSize,
+                outputDir.toString());
+    }
+    
+    private String read(String name) throws Exception {
+        return Files.readString(outputDir.resolve(name),
+                                StandardCharsets.UTF_8);
+    }
+    
+    private Account account(Long id, String accountNumber) {
+        return Account.builder()
+                .id(id)
+                .accountUser(user)
+                .accountNumber(accountNumber)
+                .build();
+    }
+    
+    private static StatementLine line(
+            Long accountId, String transactionId,
+            TransactionType transactionType, Long amount,
+            Long balanceSnapshot) {
+        return new StatementLine(accountId, transactionId, transactionType,
+                                 amount, balanceSnapshot,
+                                 LocalDateTime.of(2024, 10, 1, 10, 0));
+    }
+}
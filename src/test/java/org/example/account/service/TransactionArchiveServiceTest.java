@@ -0,0 +1,104 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.domain.Account;
+import org.example.account.domain.Transaction;
+import org.example.account.domain.TransactionArchive;
+import org.example.account.repository.TransactionArchiveRepository;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveServiceTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private TransactionArchiveService transactionArchiveService;
+    
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionArchiveService = new TransactionArchiveService(
+                transactionRepository, transactionArchiveRepository,
+                new TransactionTemplate(transactionManager), meterRegistry,
+                2, 7);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveExpiredInChunks() {
+        // given
+        given(transactionRepository
+                      .findByPartitionKeyLessThanEqualAndTransactedAtBeforeOrderByIdAsc(
+                              anyInt(), any(LocalDateTime.class),
+                              any(Pageable.class)))
+                .willReturn(Arrays.asList(transaction(1L), transaction(2L)))
+                .willReturn(Collections.singletonList(transaction(3L)));
+        ArgumentCaptor<List<TransactionArchive>> archiveCaptor =
+                ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Long>> deleteCaptor =
+                ArgumentCaptor.forClass(List.class);
+        
+        // when
+        transactionArchiveService.archiveExpired();
+        
+        // then
+        verify(transactionArchiveRepository, times(2))
+                .saveAll(archiveCaptor.capture());
+        verify(transactionRepository, times(2))
+                .deleteAllByIdInBatch(deleteCaptor.capture());
+        assertEquals(Arrays.asList(1L, 2L), deleteCaptor.getAllValues().get(0));
+        TransactionArchive archive = archiveCaptor.getAllValues().get(0).get(0);
+        assertEquals("trx1", archive.getTransactionId());
+        assertEquals("1000000000", archive.getAccountNumber());
+        assertEquals(1000L,
+                     TransactionArchiveCodec.decode(archive).getAmount());
+        assertEquals(3.0, meterRegistry.counter(
+                "account.archive.moved").count());
+    }
+    
+    private Transaction transaction(Long id) {
+        return Transaction.builder()
+                .id(id)
+                .account(Account.builder()
+                                 .id(1L)
+                                 .accountNumber("1000000000")
+                                 .build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId("trx" + id)
+                .transactedAt(LocalDateTime.now().minusYears(2))
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .build();
+    }
+}
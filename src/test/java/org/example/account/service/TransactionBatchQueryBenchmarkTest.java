@@ -0,0 +1,132 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.example.account.domain.Account;
+import org.example.account.domain.Transaction;
+import org.example.account.dto.TransactionDto;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.TransactionPartitionRouter;
+import org.example.account.repository.TransactionRepository;
+import org.example.account.type.AccountStatus;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 거래 100건 확인 시 단건 조회 100번과 일괄 조회 1번의 지연 시간 비교
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Import({TransactionService.class, BalanceMutationService.class,
+        SingleFlight.class, SimpleMeterRegistry.class,
+        SpendingLimiter.class, InMemorySpendingLimitStore.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.show_sql=false")
+class TransactionBatchQueryBenchmarkTest {
+    private static final int IDS = 100;
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 50;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Test
+    void batchVersusSingleLookups() {
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).get())
+                .accountNumber("3000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .build());
+        List<String> transactionIds = new ArrayList<>();
+        for (int i = 0; i < IDS * 10; i++) {
+            LocalDateTime transactedAt =
+                    LocalDateTime.now().minusDays(i % 90);
+            Transaction transaction = transactionRepository.save(
+                    Transaction.builder()
+                            .account(account)
+                            .transactionType(TransactionType.USE)
+                            .transactionResultType(TransactionResultType.S)
+                            .amount(100L)
+                            .balanceSnapshot(0L)
+                            .transactionId(
+                                    TransactionPartitionRouter.newTransactionId(
+                                            transactedAt))
+                            .transactedAt(transactedAt)
+                            .partitionKey(
+                                    TransactionPartitionRouter.partitionKeyOf(
+                                            transactedAt))
+                            .build());
+            if (i % 10 == 0) {
+                transactionIds.add(transaction.getTransactionId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        for (int i = 0; i < WARMUP; i++) {
+            single(transactionIds);
+            batch(transactionIds);
+        }
+        long single = 0;
+        long batch = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            single += single(transactionIds);
+            batch += batch(transactionIds);
+        }
+        
+        System.out.printf("%d ids: single %.2f ms, batch %.2f ms (x%.1f)%n",
+                          IDS, single / 1e6 / ROUNDS, batch / 1e6 / ROUNDS,
+                          (double) single / batch);
+        assertEquals(IDS, transactionService.queryTransactions(transactionIds)
+                .size());
+    }
+    
+    private long single(List<String> transactionIds) {
+        long start = System.nanoTime();
+        for (String transactionId : transactionIds) {
+            transactionService.queryTransaction(transactionId);
+        }
+        long elapsed = System.nanoTime() - start;
+        entityManager.clear();
+        
+        return elapsed;
+    }
+    
+    private long batch(List<String> transactionIds) {
+        long start = System.nanoTime();
+        Map<String, TransactionDto> transactionDtos =
+                transactionService.queryTransactions(transactionIds);
+        long elapsed = System.nanoTime() - start;
+        entityManager.clear();
+        assertEquals(IDS, transactionDtos.size());
+        
+        return elapsed;
+    }
+}
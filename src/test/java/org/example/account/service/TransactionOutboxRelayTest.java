@@ -0,0 +1,107 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.domain.TransactionOutbox;
+import org.example.account.repository.TransactionOutboxRepository;
+import org.example.account.type.TransactionResultType;
+import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionOutboxRelayTest {
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+    
+    private InMemoryTransactionEventSink sink;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private TransactionOutboxRelay relay;
+    
+    @BeforeEach
+    void init() {
+        sink = new InMemoryTransactionEventSink(100);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new TransactionOutboxRelay(
+                transactionOutboxRepository, sink, meterRegistry, 2);
+    }
+    
+    @Test
+    void relayInBatchesAndDeletePublished() {
+        // given
+        given(transactionOutboxRepository.findAllByOrderByIdAsc(
+                any(Pageable.class)))
+                .willReturn(Arrays.asList(outbox(1L), outbox(2L)))
+                .willReturn(Collections.singletonList(outbox(3L)));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> captor =
+                ArgumentCaptor.forClass(List.class);
+        
+        // when
+        relay.relay();
+        
+        // then
+        verify(transactionOutboxRepository, times(2))
+                .deleteAllByIdInBatch(captor.capture());
+        assertEquals(Arrays.asList(1L, 2L), captor.getAllValues().get(0));
+        assertEquals(Collections.singletonList(3L),
+                     captor.getAllValues().get(1));
+        assertEquals(3, sink.getEvents().size());
+        assertEquals("trx1", sink.getEvents().get(0).getTransactionId());
+        assertEquals(3.0, meterRegistry.counter(
+                "account.outbox.relay.published").count());
+    }
+    
+    @Test
+    void keepOutboxWhenPublishFailed() throws Exception {
+        // given
+        TransactionEventSink failingSink = events -> {
+            throw new IllegalStateException("sink down");
+        };
+        relay = new TransactionOutboxRelay(
+                transactionOutboxRepository, failingSink, meterRegistry, 2);
+        given(transactionOutboxRepository.findAllByOrderByIdAsc(
+                any(Pageable.class)))
+                .willReturn(Collections.singletonList(outbox(1L)));
+        
+        // when
+        relay.relay();
+        
+        // then
+        verify(transactionOutboxRepository, times(0))
+                .deleteAllByIdInBatch(any());
+        assertEquals(1.0, meterRegistry.counter(
+                "account.outbox.relay.failures").count());
+    }
+    
+    private TransactionOutbox outbox(Long id) {
+        return TransactionOutbox.builder()
+                .id(id)
+                .createdAt(LocalDateTime.now())
+                .transactionId("trx" + id)
+                .accountNumber("1000000000")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
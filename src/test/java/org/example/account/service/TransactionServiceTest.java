@@ -1,49 +1,95 @@
 package org.example.account.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.account.domain.Account;
 import org.example.account.domain.AccountUser;
 import org.example.account.domain.Transaction;
+import org.example.account.domain.TransactionOutbox;
 import org.example.account.dto.TransactionDto;
 import org.example.account.exception.AccountException;
 import org.example.account.repository.AccountRepository;
 import org.example.account.repository.AccountUserRepository;
+import org.example.account.repository.TransactionArchiveRepository;
+import org.example.account.repository.TransactionOutboxRepository;
+import org.example.account.repository.TransactionPartitionRouter;
 import org.example.account.repository.TransactionRepository;
 import org.example.account.type.AccountStatus;
 import org.example.account.type.ErrorCode;
 import org.example.account.type.TransactionResultType;
 import org.example.account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionServiceTest {
-    @Mock
+    // 파티션 라우팅(default 메서드)은 실제로 호출되도록 한다.
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private TransactionRepository transactionRepository;
     
+    @Mock
+    private TransactionOutboxRepository transactionOutboxRepository;
+    
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+    
     @Mock
     private AccountUserRepository accountUserRepository;
     
     @Mock
     private AccountRepository accountRepository;
     
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    // 비어 있는 index 는 계좌 번호 조회를 그대로 repository 로 넘긴다.
+    private final AccountNumberIndex accountNumberIndex =
+            new AccountNumberIndex(new SimpleMeterRegistry());
+    
+    // 꺼진 filter 는 거절하지 않는다.
+    private final KnownIdFilter knownIdFilter = new KnownIdFilter(
+            new SimpleMeterRegistry(), false, 0.01, 1, 1);
+    
     private TransactionService transactionService;
     
+    @BeforeEach
+    void init() {
+        // lock 안에서 실행되는 잔액 변경도 같은 mock 으로 실제 실행한다.
+        transactionService = new TransactionService(
+                transactionRepository, transactionArchiveRepository,
+                accountUserRepository, accountRepository,
+                new BalanceMutationService(
+                        transactionRepository, transactionOutboxRepository,
+                        accountRepository, applicationEventPublisher,
+                        new SpendingLimiter(
+                                new InMemorySpendingLimitStore(),
+                                new SimpleMeterRegistry(), true, 0L, 0L),
+                        accountNumberIndex, knownIdFilter),
+                new SingleFlight(new SimpleMeterRegistry()),
+                accountNumberIndex, knownIdFilter);
+    }
+    
     private Long CANCEL_AMOUNT = 200L;
     
     @Test
@@ -86,6 +132,8 @@ class TransactionServiceTest {
         
         // then
         verify(transactionRepository, times(1)).save(captor.capture());
+        verify(transactionOutboxRepository, times(1))
+                .save(any(TransactionOutbox.class));
         assertEquals(200L, captor.getValue().getAmount());
         assertEquals(9800L, captor.getValue().getBalanceSnapshot());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
@@ -137,6 +185,37 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
     }
     
+    @Test
+    @DisplayName("index 의 소유주 다름 - 계좌를 읽지 않고 거래 실패")
+    void useBalance_UserUnmatchedInIndex() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        accountNumberIndex.put(Account.builder()
+                                       .id(1L)
+                                       .accountUser(AccountUser.builder()
+                                                            .id(13L)
+                                                            .build())
+                                       .accountStatus(AccountStatus.IN_USE)
+                                       .accountNumber("1000000012")
+                                       .build());
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 1000L)
+        );
+        
+        // then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        verify(accountRepository, never()).findById(anyLong());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+    
     @Test
     @DisplayName("계좌 소유주 다름 - 거래 실패")
     void useBalance_UserUnmatched() {
@@ -309,10 +388,8 @@ class TransactionServiceTest {
                 .balanceSnapshot(10000L)
                 .build();
         
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
                                     .account(account)
@@ -329,10 +406,11 @@ class TransactionServiceTest {
         
         // when
         TransactionDto transactionDto = transactionService.cancelBalance(
-                "transactionId", "1000000000", CANCEL_AMOUNT);
+                "transactionId", "1000000012", CANCEL_AMOUNT);
         
         // then
         verify(transactionRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
         assertEquals(CANCEL_AMOUNT, captor.getValue().getAmount());
         assertEquals(
                 10000L + CANCEL_AMOUNT, captor.getValue().getBalanceSnapshot());
@@ -344,16 +422,74 @@ class TransactionServiceTest {
                 TransactionType.CANCEL, captor.getValue().getTransactionType());
         assertEquals(10000L, transactionDto.getBalanceSnapshot());
         assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
+        assertTrue(transaction.isCanceled());
+        assertEquals(CANCEL_AMOUNT, transaction.getCanceledAmount());
+        assertEquals(
+                "transactionIdForCancel", transaction.getCancelTransactionId());
+    }
+    
+    @Test
+    @DisplayName("이미 취소된 거래 - 거래 취소 실패")
+    void cancelTransaction_AlreadyCanceled() {
+        // given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+        
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012")
+                .build();
+        
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(
+                        TransactionResultType.S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT)
+                .balanceSnapshot(10000L)
+                .canceled(true)
+                .canceledAmount(CANCEL_AMOUNT)
+                .cancelTransactionId("transactionIdForCancel")
+                .build();
+        
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> transactionService.cancelBalance(
+                        "transactionId", "1000000012", CANCEL_AMOUNT)
+        );
+        
+        // then
+        assertEquals(
+                ErrorCode.TRANSACTION_ALREADY_CANCELED,
+                exception.getErrorCode()
+        );
+        assertEquals(10000L, account.getBalance());
+        verify(transactionRepository, times(0)).save(any());
     }
     
     @Test
     @DisplayName("해당 계좌 없음 - 거래 취소 실패")
     void cancelTransaction_AccountNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(Transaction.builder().build()));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.empty());
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                                                .account(Account.builder()
+                                                                 .accountNumber(
+                                                                         "1000000012")
+                                                                 .build())
+                                                .build()));
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(false);
         
         // when
         AccountException exception = assertThrows(
@@ -370,7 +506,7 @@ class TransactionServiceTest {
     @DisplayName("해당 거래 없음 - 거래 취소 실패")
     void cancelTransaction_TransactionNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.empty());
         
         // when
@@ -401,14 +537,6 @@ class TransactionServiceTest {
                 .accountNumber("1000000012")
                 .build();
         
-        Account accountNotUse = Account.builder()
-                .accountUser(user)
-                .id(2L)
-                .accountStatus(AccountStatus.IN_USE)
-                .balance(10000L)
-                .accountNumber("1000000013")
-                .build();
-        
         Transaction transaction = Transaction.builder()
                 .account(account)
                 .transactionType(TransactionType.USE)
@@ -420,16 +548,16 @@ class TransactionServiceTest {
                 .balanceSnapshot(10000L)
                 .build();
         
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(accountNotUse));
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(true);
         
         // when
         AccountException exception = assertThrows(
                 AccountException.class,
                 () -> transactionService.cancelBalance(
-                        "transactionId", "1000000000", CANCEL_AMOUNT)
+                        "transactionId", "1000000013", CANCEL_AMOUNT)
         );
         
         // then
@@ -467,16 +595,14 @@ class TransactionServiceTest {
                 .balanceSnapshot(10000L)
                 .build();
         
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
         
         // when
         AccountException exception = assertThrows(
                 AccountException.class,
                 () -> transactionService.cancelBalance(
-                        "transactionId", "1000000000", CANCEL_AMOUNT)
+                        "transactionId", "1000000012", CANCEL_AMOUNT)
         );
         
         // then
@@ -514,16 +640,14 @@ class TransactionServiceTest {
                 .balanceSnapshot(10000L)
                 .build();
         
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
         
         // when
         AccountException exception = assertThrows(
                 AccountException.class,
                 () -> transactionService.cancelBalance(
-                        "transactionId", "1000000000", CANCEL_AMOUNT)
+                        "transactionId", "1000000012", CANCEL_AMOUNT)
         );
         
         // then
@@ -540,7 +664,7 @@ class TransactionServiceTest {
                 .name("Pobi")
                 .build();
         user.setId(12L);
-
+        
         Account account = Account.builder()
                 .accountUser(user)
                 .accountStatus(AccountStatus.IN_USE)
@@ -591,4 +715,117 @@ class TransactionServiceTest {
         // then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("hot 테이블에 없으면 보관 거래 조회")
+    void queryTransaction_FromArchive() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000012")
+                .build();
+        Transaction transaction = Transaction.builder()
+                .id(7L)
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now().minusYears(2))
+                .amount(CANCEL_AMOUNT)
+                .balanceSnapshot(10000L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(
+                        TransactionArchiveCodec.encode(transaction)));
+        
+        // when
+        TransactionDto transactionDto = transactionService.queryTransaction(
+                "transactionId");
+        
+        // then
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        assertEquals(TransactionType.USE, transactionDto.getTransactionType());
+        assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
+        assertEquals(10000L, transactionDto.getBalanceSnapshot());
+        assertEquals("transactionId", transactionDto.getTransactionId());
+    }
+    
+    @Test
+    @DisplayName("거래 일괄 조회 - hot 테이블 IN 조회 후 없는 거래만 보관 테이블 조회")
+    void queryTransactions() {
+        // given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000012")
+                .build();
+        String hotId = TransactionPartitionRouter.newTransactionId(
+                LocalDateTime.now());
+        Transaction hot = Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId(hotId)
+                .transactedAt(LocalDateTime.now())
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .build();
+        Transaction archived = Transaction.builder()
+                .id(7L)
+                .account(account)
+                .transactionType(TransactionType.CANCEL)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId("archivedId")
+                .transactedAt(LocalDateTime.now().minusYears(2))
+                .amount(CANCEL_AMOUNT)
+                .balanceSnapshot(10000L)
+                .build();
+        given(transactionRepository
+                      .findWithAccountByPartitionKeyInAndTransactionIdIn(
+                              anyCollection(), anyCollection()))
+                .willReturn(Collections.singletonList(hot));
+        given(transactionRepository.findWithAccountByTransactionIdIn(
+                anyCollection()))
+                .willReturn(Collections.emptyList());
+        given(transactionArchiveRepository.findByTransactionIdIn(
+                Arrays.asList("archivedId", "missingId")))
+                .willReturn(Collections.singletonList(
+                        TransactionArchiveCodec.encode(archived)));
+        
+        // when
+        Map<String, TransactionDto> transactionDtos =
+                transactionService.queryTransactions(Arrays.asList(
+                        "archivedId", hotId, "missingId", hotId));
+        
+        // then
+        assertEquals(2, transactionDtos.size());
+        assertEquals(1000L, transactionDtos.get(hotId).getAmount());
+        assertEquals(TransactionType.CANCEL,
+                     transactionDtos.get("archivedId").getTransactionType());
+        verify(transactionRepository, times(1))
+                .findWithAccountByPartitionKeyInAndTransactionIdIn(
+                        anyCollection(), anyCollection());
+    }
+    
+    @Test
+    @DisplayName("보관된 거래 취소 - 거래 취소 실패")
+    void cancelTransaction_Archived() {
+        // given
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.existsByTransactionId(anyString()))
+                .willReturn(true);
+        
+        // when
+        AccountException exception = assertThrows(
+                AccountException.class,
+                () -> transactionService.cancelBalance(
+                        "transactionId", "1000000000", 1000L)
+        );
+        
+        // then
+        assertEquals(
+                ErrorCode.TOO_OLD_ORDER_TO_CANCEL, exception.getErrorCode());
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.account.aop.SqlStatisticsContext;
+import org.example.account.config.SqlStatisticsConfiguration;
+import org.example.account.domain.Account;
+import org.example.account.domain.AccountUser;
+import org.example.account.repository.AccountRepository;
+import org.example.account.repository.AccountUserRepository;
+import org.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 잔액 사용 한 건이 실행하는 SQL 수가 예상 범위를 넘지 않는지 확인한다.
+ * 커밋까지 실제로 일어나도록 테스트 트랜잭션은 끈다.
+ */
+@DataJpaTest
+@Import({TransactionService.class, BalanceMutationService.class,
+        SingleFlight.class, SimpleMeterRegistry.class,
+        SpendingLimiter.class, InMemorySpendingLimitStore.class,
+        SqlStatisticsConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UseBalanceStatementBudgetTest {
+    private static final String ACCOUNT_NUMBER = "5000000001";
+    // 계좌 조회, 잔액 update, 거래/outbox insert + 사용자 조회(2차 캐시 miss 시)
+    private static final int USE_BALANCE_STATEMENTS = 5;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    
+    @Test
+    void useBalanceStaysWithinStatementBudget() {
+        // given
+        AccountUser user = accountUserRepository.save(
+                AccountUser.builder().name("Pobi").build());
+        accountRepository.save(Account.builder()
+                .accountUser(user)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build());
+        // 2차 캐시, id sequence 를 채워 둔다.
+        transactionService.useBalance(user.getId(), ACCOUNT_NUMBER, 1000L);
+        
+        // when
+        SqlStatisticsContext.begin();
+        transactionService.useBalance(user.getId(), ACCOUNT_NUMBER, 1000L);
+        SqlStatisticsContext.Counters counters = SqlStatisticsContext.end();
+        
+        // then
+        assertTrue(counters.getStatements() <= USE_BALANCE_STATEMENTS,
+                   "statements: " + counters.getStatementCounts());
+        assertEquals(1, counters.countStatementsStartingWith("update"));
+        assertEquals(2, counters.countStatementsStartingWith("insert"));
+        assertTrue(counters.getMostRepeatedStatement().getValue() <= 2,
+                   "statements: " + counters.getStatementCounts());
+        assertTrue(counters.getFlushes() >= 1);
+        assertTrue(counters.getJdbcNanos() > 0);
+    }
+}